@@ -1,6 +1,11 @@
 package com.example.effectivejava;
 
+import com.example.effectivejava.math.CompensatedSum;
+import com.example.effectivejava.math.Money;
+import com.example.effectivejava.math.MoneyAccumulator;
+
 import java.math.BigDecimal;
+import java.util.Currency;
 
 /**
  *《effective java》-60：若需要精确答案就应避免使用 float 和 double 类型
@@ -23,6 +28,19 @@ public class AccurateStatistic {
         System.out.println("Change: $" + funds);
     }
 
+    //把0.10累加一百万次：普通的double累加误差越来越大，补偿求和得到的是最接近精确结果的double
+    //但0.10本身就不能用double精确表示，所以这仍然不适合货币计算
+    public static void useCompensatedSum(){
+        double naive = 0;
+        CompensatedSum compensated = new CompensatedSum();
+        for (int i = 0; i < 1_000_000; i++) {
+            naive += 0.10;
+            compensated.accept(0.10);
+        }
+        System.out.println("Naive sum: " + naive);
+        System.out.println("Compensated sum: " + compensated.sum());
+    }
+
     //得到精确的结果
     public static void useBigDecimal(){
         final BigDecimal TEN_CENTS = new BigDecimal(".10");
@@ -36,8 +54,26 @@ public class AccurateStatistic {
         System.out.println("Money left over: $" + funds);
     }
 
+    //使用long表示的Money，结果同样精确，但不需要每一步都创建BigDecimal
+    public static void useMoney(){
+        final Currency usd = Currency.getInstance("USD");
+        final Money TEN_CENTS = Money.of(".10", usd);
+        int itemsBought = 0;
+        MoneyAccumulator funds = new MoneyAccumulator(Money.of("1.00", usd));
+        MoneyAccumulator price = new MoneyAccumulator(TEN_CENTS);
+        while (funds.minorUnits() >= price.minorUnits()) {
+            funds.subtractMinor(price.minorUnits());
+            price.add(TEN_CENTS);
+            itemsBought++;
+        }
+        System.out.println(itemsBought +"items bought.");
+        System.out.println("Money left over: " + funds.get());
+    }
+
     public static void main(String[] args) {
         useDouble();
+        useCompensatedSum();
         useBigDecimal();
+        useMoney();
     }
 }
@@ -0,0 +1,33 @@
+package com.example.effectivejava;
+
+/**
+ * MyNumber的紧凑版本：值直接存为int，没有装箱的Integer，也没有每个实例一个的比较器字段
+ * 一个实例16字节（压缩指针下），MyNumber加上它引用的Integer需要32字节；compareTo不需要拆箱
+ * 大量排序时可以配合sort.RadixSort.sort(list, CompactNumber::getA)，按int键做基数排序
+ * 注意：该类具有自然排序，但是与equals方法不一致（和MyNumber一样，没有覆盖equals）
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class CompactNumber implements Comparable<CompactNumber> {
+    private int a;
+
+    public CompactNumber() {
+    }
+
+    public CompactNumber(int a) {
+        this.a = a;
+    }
+
+    public int getA() {
+        return a;
+    }
+
+    public void setA(int a) {
+        this.a = a;
+    }
+
+    @Override
+    public int compareTo(CompactNumber o) {
+        return Integer.compare(a, o.a);
+    }
+}
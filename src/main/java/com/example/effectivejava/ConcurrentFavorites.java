@@ -0,0 +1,147 @@
+package com.example.effectivejava;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 《effective java》-33：优先考虑类型安全的异构容器
+ * GenericFirst.Favorites的并发版本，适合写少读多的场景，比如按类型注册的服务表
+ * 1、写：写时复制（copy-on-write），每次put复制出一份新的State再整体替换，发布后的State不再修改
+ * 2、读：每个类型对应一个ClassValue槽位，缓存的是解析出的下标和解析时的版本号，读不加锁、不做哈希查找，
+ *    也不需要type.cast（类型检查在put时已经做过）
+ * 3、版本号只在注册了新的类型、或者某个类型的实例在null和非null之间变化时增加，
+ *    替换已注册类型的实例不会让缓存过期；版本变化后，槽位在下一次读时重新解析
+ * 4、findFavorite支持按子类型查找：没有精确注册时，返回最早注册的、类型是其子类型的实例，解析结果同样被缓存
+ * 槽位里只有long和int，不引用实例、map或其他Class，ClassValue不会让不再使用的类型、实例或类加载器无法回收
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class ConcurrentFavorites {
+
+    //已注册的类型和实例，按注册顺序存放，不可变
+    private static final class State {
+        final Class<?>[] types;
+        final Object[] values;
+        final Map<Class<?>, Integer> indexes;
+        final long version;
+
+        State(Class<?>[] types, Object[] values, Map<Class<?>, Integer> indexes, long version) {
+            this.types = types;
+            this.values = values;
+            this.indexes = indexes;
+            this.version = version;
+        }
+
+        int indexOf(Class<?> type) {
+            Integer index = indexes.get(type);
+            return index == null ? -1 : index;
+        }
+
+        int indexOfSubtype(Class<?> type) {
+            int index = indexOf(type);
+            if (index >= 0 && values[index] != null) {
+                return index;
+            }
+            for (int i = 0; i < types.length; i++) {
+                if (type.isAssignableFrom(types[i]) && values[i] != null) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    //缓存的解析结果：解析时的版本号和values中的下标，-1表示没有
+    private static final class Resolution {
+        final long version;
+        final int index;
+
+        Resolution(long version, int index) {
+            this.version = version;
+            this.index = index;
+        }
+    }
+
+    //过期的结果直接覆盖，不走ClassValue.remove；并发覆盖时留下哪一个都是正确的，最多多解析一次
+    private static final class Slot {
+        volatile Resolution resolution;
+    }
+
+    private volatile State state = new State(new Class<?>[0], new Object[0], new HashMap<>(), 0);
+
+    private final ClassValue<Slot> exact = newSlots();
+
+    private final ClassValue<Slot> assignable = newSlots();
+
+     /**
+       * @throws NullPointerException type为null
+       * @throws ClassCastException instance不是type的实例（绕过泛型检查传入时）
+       **/
+    public <T> void putFavorite(Class<T> type, T instance) {
+        Objects.requireNonNull(type, "type");
+        Object checked = type.cast(instance);
+        synchronized (this) {
+            State current = state;
+            int index = current.indexOf(type);
+            if (index >= 0) {
+                Object[] values = current.values.clone();
+                values[index] = checked;
+                boolean presenceChanged = (current.values[index] == null) != (checked == null);
+                state = new State(current.types, values, current.indexes,
+                        presenceChanged ? current.version + 1 : current.version);
+            }
+            else {
+                int size = current.types.length;
+                Class<?>[] types = Arrays.copyOf(current.types, size + 1);
+                Object[] values = Arrays.copyOf(current.values, size + 1);
+                Map<Class<?>, Integer> indexes = new HashMap<>(current.indexes);
+                types[size] = type;
+                values[size] = checked;
+                indexes.put(type, size);
+                state = new State(types, values, indexes, current.version + 1);
+            }
+        }
+    }
+
+     /**
+       * 精确按类型查找，没有注册时返回null
+       **/
+    public <T> T getFavorite(Class<T> type) {
+        return lookup(exact, type, false);
+    }
+
+     /**
+       * 按类型查找，允许返回注册在其子类型下的实例，比如用接口查实现类
+       * 精确注册的优先，其次是最早注册的子类型
+       **/
+    public <T> T findFavorite(Class<T> type) {
+        return lookup(assignable, type, true);
+    }
+
+    //下标是在同一个版本的State上解析的，对应的实例在put时已经检查过类型，所以这里的转换是安全的
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(ClassValue<Slot> slots, Class<T> type, boolean subtypes) {
+        State current = state;
+        Slot slot = slots.get(type);
+        Resolution resolution = slot.resolution;
+        if (resolution == null || resolution.version != current.version) {
+            resolution = new Resolution(current.version, subtypes ? current.indexOfSubtype(type) : current.indexOf(type));
+            slot.resolution = resolution;
+        }
+        return resolution.index < 0 ? null : (T) current.values[resolution.index];
+    }
+
+     /**
+       * 在静态方法中创建，匿名类不持有ConcurrentFavorites的引用
+       **/
+    private static ClassValue<Slot> newSlots() {
+        return new ClassValue<Slot>() {
+            @Override
+            protected Slot computeValue(Class<?> type) {
+                return new Slot();
+            }
+        };
+    }
+}
@@ -1,7 +1,5 @@
 package com.example.effectivejava;
 
-import org.omg.CORBA.Object;
-
 import java.util.*;
 import java.util.function.UnaryOperator;
 
@@ -67,11 +65,34 @@ public class GenericFirst {
            * @date: 2022/2/23 9:25
            **/
          public void pushAll(Iterable<? extends E> src) {
+             //Collection可以提前知道元素个数，只扩容一次再批量拷贝
+             if (src instanceof Collection) {
+                 pushCollection((Collection<? extends E>) src);
+                 return;
+             }
              for (E e : src) {
                  push(e);
              }
          }
 
+         private void pushCollection(Collection<? extends E> src) {
+             if (src instanceof List && src instanceof RandomAccess) {
+                 List<? extends E> list = (List<? extends E>) src;
+                 int n = list.size();
+                 ensureCapacity(n);
+                 for (int i = 0; i < n; i++) {
+                     elements[size + i] = list.get(i);
+                 }
+                 size += n;
+             }
+             else {
+                 Object[] a = src.toArray();
+                 ensureCapacity(a.length);
+                 System.arraycopy(a, 0, elements, size, a.length);
+                 size += a.length;
+             }
+         }
+
           /**
             * 消费者，因为是取出E实例的，所以传入的类型必须是E的父类
             * 使用Collection<? super E>来代替Collection<E>，限定传入的迭代器中元素类型必须是E的父类
@@ -79,9 +100,53 @@ public class GenericFirst {
             * @date: 2022/2/23 9:41
             **/
          public void popAll(Collection<? super E> dst) {
-             while (!isEmpty()){
-                 dst.add(pop());
+             drainTo(dst, size);
+         }
+
+          /**
+            * 批量出栈到数组，顺序和逐个pop相同：dst[0]是原来的栈顶
+            * 取出和置空在同一次遍历中完成
+            * @return 实际出栈的个数，栈中元素不足dst.length时小于dst.length
+            **/
+         public int popAll(E[] dst) {
+             int n = Math.min(dst.length, size);
+             for (int i = 0; i < n; i++) {
+                 dst[i] = elements[--size];
+                 elements[size] = null; // 消除过期引用
+             }
+             return n;
+         }
+
+          /**
+            * 最多出栈max个元素到dst，顺序和逐个pop相同
+            * dst只调用一次addAll，出栈的位置一次性置空
+            * @return 实际出栈的个数
+            * @throws IllegalArgumentException max为负数
+            **/
+         public int drainTo(Collection<? super E> dst, int max) {
+             if (max < 0) {
+                 throw new IllegalArgumentException("max must not be negative: " + max);
+             }
+             int n = Math.min(max, size);
+             if (n == 0) {
+                 return 0;
              }
+             final int top = size;
+             //倒序的只读视图，addAll时按pop的顺序读取
+             dst.addAll(new AbstractList<E>() {
+                 @Override
+                 public E get(int index) {
+                     return elements[top - 1 - index];
+                 }
+
+                 @Override
+                 public int size() {
+                     return n;
+                 }
+             });
+             size -= n;
+             Arrays.fill(elements, size, top, null); // 消除过期引用
+             return n;
          }
 
          //swap1和swap2为例子，如果类型参数在方法声明中只出现一次，请将其替换为通配符，swap2的声明方式更好
@@ -110,6 +175,15 @@ public class GenericFirst {
                 elements = Arrays.copyOf(elements, 2 * size + 1);
             }
         }
+
+        /**
+         * Ensure space for at least n more elements, growing at most once.
+         */
+        private void ensureCapacity(int n) {
+            if (elements.length - size < n){
+                elements = Arrays.copyOf(elements, Math.max(2 * size + 1, size + n));
+            }
+        }
     }
 
     /**
@@ -117,7 +191,7 @@ public class GenericFirst {
      * Favorites就是类型安全异构容器，它支持不同的类型参数
      * java.util.Collections 中有一些集合包装类，他们的静态工厂除了一个集合（或 Map ）之外还有一个 Class 对象（或两个）。
      * 静态工厂是泛型方法，确保 Class 对象和集合的编译时类型匹配。
-     *
+     * 需要并发读写时见ConcurrentFavorites
      */
     public class Favorites {
         private Map<Class<?>, Object> favorites = new HashMap<>();
@@ -150,6 +224,7 @@ public class GenericFirst {
 
      /**
        * 使用泛型方法来进行改造
+       * 按集合规模选择策略、或者不需要拷贝的场景见collection.SetAlgebra
        * @author: Don
        * @date: 2022/2/22 14:34
        **/
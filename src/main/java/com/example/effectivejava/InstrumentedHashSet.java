@@ -2,6 +2,8 @@ package com.example.effectivejava;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * 《effective java》-18：组合优先于继承
@@ -47,21 +49,36 @@ public class InstrumentedHashSet<E> extends HashSet<E> {
 
      /**
        * 使用组合，为了方便放在一起
+       * addCount是普通的int字段，多线程下会丢失更新；需要线程安全和更多统计时用collection.ConcurrentInstrumentedSet
+       * 同样的思路用于任意Collection、List、Set和Map，并统计延迟、通过JMX发布，见collection.Instrumented
+       * 被包装的Set可以替换，比如整数ID用collection.IntHashSet，不用为每个元素付出Integer和HashMap.Node的开销
        * @author: Don
        * @date: 2022/2/17 19:45
        **/
     public static class InstrumentedSet<E> {
         private int addCount = 0;
-        private HashSet<E> hashSet = new HashSet<>();
+        private final Set<E> set;
+
+        public InstrumentedSet() {
+            this(new HashSet<>());
+        }
+
+        public InstrumentedSet(Set<E> set) {
+            this.set = Objects.requireNonNull(set);
+        }
 
         public boolean add(E e) {
             addCount++;
-            return hashSet.add(e);
+            return set.add(e);
         }
 
         public boolean addAll(Collection<? extends E> c) {
             addCount += c.size();
-            return hashSet.addAll(c);
+            return set.addAll(c);
+        }
+
+        public boolean contains(Object o) {
+            return set.contains(o);
         }
 
         public int getAddCount() {
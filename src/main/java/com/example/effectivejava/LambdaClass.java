@@ -29,6 +29,8 @@ public class LambdaClass {
 
         //lambda方式
         Collections.sort(words, (s1, s2) -> Integer.compare(s1.length(), s2.length()));
+
+        //大量字符串先按长度再按字典序排序时，sort.StringSort按长度分桶后做多关键字快速排序，不需要比较器
     }
 
     public void methodRef(){
@@ -3,6 +3,7 @@ package com.example.effectivejava;
 /**
  * 《effective java》-13：谨慎地覆盖clone
  * 实现Object的clone方法必须实现Cloneable接口
+ * 需要频繁打快照的栈可以用不可变的com.example.effectivejava.stack.PersistentStack，快照不需要clone
  * @author Don
  * @date 2022/2/11.
  */
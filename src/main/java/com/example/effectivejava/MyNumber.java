@@ -1,7 +1,5 @@
 package com.example.effectivejava;
 
-import java.util.Comparator;
-
 /**
  * 《effective java》-14：考虑是否实现comparable
  * 如果你正在写一个明显具有自然顺序的值类，如字母顺序，数字大小顺序或者时间先后顺序，那么你就应该实现Comparable接口
@@ -12,15 +10,13 @@ import java.util.Comparator;
  * 4、强烈建议(x.compareTo(y) == 0) == (x.equals(y))成立，但这并不是必须的
  * 通常来说，任何实现了Comparable接口的类如果违反了这个条件，那么应该做个说明。推荐的说法是“注意：该类具有自然排序，但是与equals方法不一致。”
  * 因为有些集合是基于equals做同等性测试而不是compareTo方法
+ * 大量排序时用CompactNumber（值直接存为int）和sort.RadixSort
  * @author Don
  * @date 2022/2/14.
  */
 public class MyNumber implements Comparable<MyNumber> {
     private Integer a;
 
-    //比较器进行比较
-    private Comparator<Integer> comparator = Comparator.comparing((a) -> a);
-
     public Integer getA() {
         return a;
     }
@@ -31,7 +27,6 @@ public class MyNumber implements Comparable<MyNumber> {
 
     @Override
     public int compareTo(MyNumber o) {
-        //return comparator.compare(a, o.getA());
         return Integer.compare(a, o.getA());
     }
 }
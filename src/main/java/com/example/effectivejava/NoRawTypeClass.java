@@ -66,7 +66,7 @@ public class NoRawTypeClass {
         return result;
     }
 
-    //使用泛型通配符来替代
+    //使用泛型通配符来替代，集合大小相差悬殊时见collection.SetAlgebra.intersectionSize
     private static int numElementsInCommon1(Set<?> s1, Set<?> s2) {
         int result = 0;
         for (Object o1 : s1){
@@ -5,6 +5,7 @@ import java.util.EmptyStackException;
 
 /**
  * 《effective java》-7：消除过时的对象引用
+ * 倍增扩容会整体拷贝数组，出栈后也不会归还内存，突发大量入栈的场景见com.example.effectivejava.stack.SegmentedStack
  * @author Don
  * @date 2021/12/23.
  */
@@ -1,6 +1,17 @@
 package com.example.effectivejava;
 
+import com.example.effectivejava.io.AsyncFileCopier;
+import com.example.effectivejava.io.CompressionResult;
+import com.example.effectivejava.io.CopyResult;
+import com.example.effectivejava.io.FileCopier;
+import com.example.effectivejava.io.ParallelFileCopier;
+import com.example.effectivejava.io.ParallelGzip;
+import com.example.effectivejava.io.TreeCopier;
+import com.example.effectivejava.io.TreeCopyResult;
+
 import java.io.*;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 《effective java》-9：优先使用try-with-resources而不是try-finally
@@ -60,4 +71,40 @@ public class TryResourceProcessor {
         }
 
     }
+
+     /**
+       * 使用FileChannel.transferTo零拷贝复制，适合大文件，见io.FileCopier
+       * 异常不再吞掉，返回复制的字节数和耗时
+       **/
+    public CopyResult copyWithChannels(String src, String dst) throws IOException {
+        return FileCopier.copy(Paths.get(src), Paths.get(dst));
+    }
+
+     /**
+       * 把文件切成多个区域，在固定大小的线程池上并行复制，适合NVMe上的超大文件，见io.ParallelFileCopier
+       **/
+    public CopyResult copyInParallel(String src, String dst, ParallelFileCopier copier) throws IOException {
+        return copier.copy(Paths.get(src), Paths.get(dst));
+    }
+
+     /**
+       * 异步复制，调用线程不阻塞，见io.AsyncFileCopier
+       **/
+    public CompletableFuture<CopyResult> copyAsync(String src, String dst, AsyncFileCopier copier) {
+        return copier.copy(Paths.get(src), Paths.get(dst));
+    }
+
+     /**
+       * 边复制边压缩成多成员gzip，适合压缩率高的日志，见io.ParallelGzip
+       **/
+    public CompressionResult copyCompressed(String src, String dst, ParallelGzip gzip) throws IOException {
+        return gzip.compress(Paths.get(src), Paths.get(dst));
+    }
+
+     /**
+       * 增量复制整个目录树，没有变化的文件跳过，见io.TreeCopier
+       **/
+    public TreeCopyResult copyTree(String src, String dst, TreeCopier copier) throws IOException {
+        return copier.copy(Paths.get(src), Paths.get(dst));
+    }
 }
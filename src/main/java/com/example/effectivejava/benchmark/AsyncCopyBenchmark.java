@@ -0,0 +1,118 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.TryResourceProcessor;
+import com.example.effectivejava.io.AsyncFileCopier;
+import com.example.effectivejava.io.CopyResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 同时发起大量复制时，AsyncFileCopier和“线程池里执行阻塞的复制”的对比：总吞吐量和使用的线程数
+ * 1、async：AsyncFileCopier，默认的固定线程池，同时最多maxConcurrentCopies个复制
+ * 2、blocking/cached：每个在途的复制占用一个线程执行TryResourceProcessor.copyWithChannels，相当于请求线程自己阻塞
+ * 3、blocking/fixed：同样的阻塞复制放在2倍CPU数的固定线程池上，多出来的复制在队列里等待
+ * 线程数是运行期间JVM的峰值线程数和开始前的线程数；AsyncFileCopier的线程池在第一轮创建后一直存在，包含在之后各轮的基数里
+ * 用法：AsyncCopyBenchmark [复制个数，默认1000] [文件KB，默认1024] [maxConcurrentCopies，默认64] [轮数，默认3] [目录，默认java.io.tmpdir]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class AsyncCopyBenchmark {
+
+    private interface Runner {
+        List<CompletableFuture<CopyResult>> start(Path src, Path[] targets);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int copies = BenchmarkSupport.intArg(args, 0, 1000);
+        int kilobytes = BenchmarkSupport.intArg(args, 1, 1024);
+        int maxConcurrent = BenchmarkSupport.intArg(args, 2, 64);
+        int rounds = BenchmarkSupport.intArg(args, 3, 3);
+        Path dir = Files.createTempDirectory(args.length > 4 ? Paths.get(args[4]) : Paths.get(System.getProperty("java.io.tmpdir")),
+                "async-copy-benchmark");
+        Path src = dir.resolve("src");
+        byte[] data = new byte[kilobytes << 10];
+        new Random(24).nextBytes(data);
+        Files.write(src, data);
+        Path[] targets = new Path[copies];
+        for (int i = 0; i < copies; i++) {
+            targets[i] = dir.resolve("dst" + i);
+        }
+        int fixedThreads = 2 * Runtime.getRuntime().availableProcessors();
+        TryResourceProcessor processor = new TryResourceProcessor();
+        System.out.printf("%,d copies of %,d KB  cpus %d%n", copies, kilobytes, Runtime.getRuntime().availableProcessors());
+        try (AsyncFileCopier copier = new AsyncFileCopier.Builder().maxConcurrentCopies(maxConcurrent).build()) {
+            for (int round = 1; round <= rounds; round++) {
+                System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+                run(String.format("async (max %d in flight)  ", maxConcurrent), src, targets, (s, t) -> {
+                    List<CompletableFuture<CopyResult>> futures = new ArrayList<>();
+                    for (Path target : t) {
+                        futures.add(copier.copy(s, target));
+                    }
+                    return futures;
+                });
+                ExecutorService cached = Executors.newCachedThreadPool();
+                run("blocking/cached          ", src, targets, blocking(processor, cached));
+                cached.shutdown();
+                ExecutorService fixed = Executors.newFixedThreadPool(fixedThreads);
+                run(String.format("blocking/fixed(%d)        ", fixedThreads), src, targets, blocking(processor, fixed));
+                fixed.shutdown();
+            }
+        }
+        finally {
+            for (Path target : targets) {
+                Files.deleteIfExists(target);
+            }
+            Files.deleteIfExists(src);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static Runner blocking(TryResourceProcessor processor, ExecutorService executor) {
+        return (src, targets) -> {
+            List<CompletableFuture<CopyResult>> futures = new ArrayList<>();
+            for (Path target : targets) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return processor.copyWithChannels(src.toString(), target.toString());
+                    }
+                    catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }, executor));
+            }
+            return futures;
+        };
+    }
+
+    private static void run(String name, Path src, Path[] targets, Runner runner) throws IOException {
+        for (Path target : targets) {
+            Files.deleteIfExists(target);
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baseline = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        List<CompletableFuture<CopyResult>> futures = runner.start(src, targets);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        long elapsed = System.nanoTime() - start;
+        long bytes = 0;
+        for (CompletableFuture<CopyResult> future : futures) {
+            bytes += future.join().getBytes();
+        }
+        System.out.printf("%s %,10.1f MB/s  %,8.0f copies/s  peak threads %d (before %d)%n", name,
+                BenchmarkSupport.megabytesPerSecond(bytes, elapsed), BenchmarkSupport.opsPerSecond(targets.length, elapsed),
+                threads.getPeakThreadCount(), baseline);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.effectivejava.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * 基准测试的公共工具，各个Benchmark类都是带main方法的独立程序
+ * 项目中没有引入JMH，这里用System.nanoTime手工计时，所以每个基准都会先跑几轮预热，让JIT完成编译
+ * 结果只用来做同一台机器上的相对比较
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class BenchmarkSupport {
+    private BenchmarkSupport(){throw new AssertionError("不可被构造");}
+
+    //防止JIT把没有被使用的计算结果当成死代码消除掉
+    private static volatile long sink;
+
+    public static void consume(long value) {
+        sink += value;
+    }
+
+    public static void consume(double value) {
+        sink += Double.doubleToRawLongBits(value);
+    }
+
+    public static void consume(Object value) {
+        sink += System.identityHashCode(value);
+    }
+
+     /**
+       * 多次触发GC后返回当前已使用的堆大小（字节），近似表示存活对象占用的内存
+       **/
+    public static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+     /**
+       * 当前线程累计分配的字节数，HotSpot之外的JVM不支持时返回-1
+       **/
+    public static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+     /**
+       * 把前count个纳秒样本格式化成p50/p90/p99/p99.9/max
+       **/
+    public static String percentiles(long[] samples, int count) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return String.format("p50=%dns p90=%dns p99=%dns p99.9=%dns max=%dns",
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+     /**
+       * 每秒操作数，elapsedNanos为0时返回0
+       **/
+    public static double opsPerSecond(long ops, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : ops * 1e9 / elapsedNanos;
+    }
+
+    public static double megabytesPerSecond(long bytes, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : bytes / (1024.0 * 1024.0) * 1e9 / elapsedNanos;
+    }
+
+     /**
+       * 读取命令行参数，缺省时使用默认值
+       **/
+    public static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    public static long longArg(String[] args, int index, long defaultValue) {
+        return args.length > index ? Long.parseLong(args[index]) : defaultValue;
+    }
+}
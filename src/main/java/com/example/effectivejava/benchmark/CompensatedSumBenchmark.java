@@ -0,0 +1,81 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.math.CompensatedSum;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 对同一个double[]求和，比较吞吐量和误差：
+ * 普通的for循环累加、Kahan循环、DoubleStream.sum()、CompensatedSum（顺序和并行）、BigDecimal
+ * 误差以ulp计，参考值是BigDecimal精确求和后再舍入成double
+ * 数据跨越多个数量级且正负相消，普通累加的误差在这种情况下最明显
+ * 用法：CompensatedSumBenchmark [元素个数，默认10000000]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class CompensatedSumBenchmark {
+
+    public static void main(String[] args) {
+        int n = BenchmarkSupport.intArg(args, 0, 10_000_000);
+        double[] values = new double[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            values[i] = (random.nextBoolean() ? 1 : -1) * Math.pow(10, random.nextInt(16) - 8) * random.nextDouble();
+        }
+        long start = System.nanoTime();
+        double exact = bigDecimal(values);
+        long bigDecimalNanos = System.nanoTime() - start;
+        System.out.printf("n = %,d  exact sum %.17g%n", n, exact);
+        for (int round = 1; round <= 2; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            report("naive loop            ", values, exact, CompensatedSumBenchmark::naive);
+            report("Kahan loop            ", values, exact, CompensatedSumBenchmark::kahan);
+            report("DoubleStream.sum      ", values, exact, v -> Arrays.stream(v).sum());
+            report("DoubleStream.sum par  ", values, exact, v -> Arrays.stream(v).parallel().sum());
+            report("CompensatedSum        ", values, exact, CompensatedSum::sum);
+            report("CompensatedSum par    ", values, exact, v -> CompensatedSum.sum(Arrays.stream(v).parallel()));
+        }
+        System.out.printf("BigDecimal             %,8d ms  %,14.0f values/s  error %8.1f ulp%n",
+                bigDecimalNanos / 1_000_000, BenchmarkSupport.opsPerSecond(n, bigDecimalNanos), 0.0);
+    }
+
+    private static void report(String name, double[] values, double exact, ToDoubleFunction<double[]> sum) {
+        long start = System.nanoTime();
+        double result = sum.applyAsDouble(values);
+        long elapsed = System.nanoTime() - start;
+        BenchmarkSupport.consume(result);
+        System.out.printf("%s %,8d ms  %,14.0f values/s  error %8.1f ulp%n", name, elapsed / 1_000_000,
+                BenchmarkSupport.opsPerSecond(values.length, elapsed), Math.abs(result - exact) / Math.ulp(exact));
+    }
+
+    private static double naive(double[] values) {
+        double sum = 0;
+        for (double v : values) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    private static double kahan(double[] values) {
+        double sum = 0;
+        double c = 0;
+        for (double v : values) {
+            double y = v - c;
+            double t = sum + y;
+            c = (t - sum) - y;
+            sum = t;
+        }
+        return sum;
+    }
+
+    private static double bigDecimal(double[] values) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (double v : values) {
+            sum = sum.add(new BigDecimal(v));
+        }
+        return sum.doubleValue();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.Complex;
+import com.example.effectivejava.math.ComplexArray;
+
+import java.util.SplittableRandom;
+
+/**
+ * 同一段信号处理运算 y = (a * b + c) / d，再求|y|
+ * 两个版本都把y保存到输出缓冲区：Complex版本存的是每个采样新建的对象，ComplexArray版本复用同一个输出数组
+ * 用法：ComplexArrayBenchmark [采样个数，默认1000000] [轮数，默认10]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class ComplexArrayBenchmark {
+
+    public static void main(String[] args) {
+        int n = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int rounds = BenchmarkSupport.intArg(args, 1, 10);
+        SplittableRandom random = new SplittableRandom(42);
+        Complex[] a = randomComplex(random, n);
+        Complex[] b = randomComplex(random, n);
+        Complex[] c = randomComplex(random, n);
+        Complex[] d = randomComplex(random, n);
+        ComplexArray sa = ComplexArray.of(a);
+        ComplexArray sb = ComplexArray.of(b);
+        ComplexArray sc = ComplexArray.of(c);
+        ComplexArray sd = ComplexArray.of(d);
+        Complex[] out = new Complex[n];
+        ComplexArray y = new ComplexArray(n);
+        double[] magnitude = new double[n];
+
+        for (int round = 1; round <= rounds; round++) {
+            long allocatedBefore = BenchmarkSupport.allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                out[i] = a[i].times(b[i]).plus(c[i]).dividedBy(d[i]);
+            }
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                magnitude[i] = Math.sqrt(out[i].realPart() * out[i].realPart() + out[i].imaginaryPart() * out[i].imaginaryPart());
+                sum += magnitude[i];
+            }
+            long objectNanos = System.nanoTime() - start;
+            long objectBytes = BenchmarkSupport.allocatedBytes() - allocatedBefore;
+            BenchmarkSupport.consume(sum);
+
+            allocatedBefore = BenchmarkSupport.allocatedBytes();
+            start = System.nanoTime();
+            sa.times(sb, y).plus(sc, y).dividedBy(sd, y).magnitude(magnitude);
+            sum = 0;
+            for (double m : magnitude) {
+                sum += m;
+            }
+            long soaNanos = System.nanoTime() - start;
+            long soaBytes = BenchmarkSupport.allocatedBytes() - allocatedBefore;
+            BenchmarkSupport.consume(sum);
+
+            System.out.printf("round %-2d Complex: %6.2f ns/sample %,12d bytes   ComplexArray: %6.2f ns/sample %,8d bytes%n",
+                    round, (double) objectNanos / n, objectBytes, (double) soaNanos / n, soaBytes);
+        }
+    }
+
+    private static Complex[] randomComplex(SplittableRandom random, int n) {
+        Complex[] result = new Complex[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = new Complex(random.nextDouble() + 0.5, random.nextDouble() - 0.5);
+        }
+        return result;
+    }
+}
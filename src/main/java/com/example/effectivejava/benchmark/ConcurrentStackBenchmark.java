@@ -0,0 +1,110 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.GenericFirst;
+import com.example.effectivejava.stack.ConcurrentStack;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多线程吞吐量：ConcurrentStack对比外面套synchronized的GenericFirst.Stack
+ * 每个线程交替push/pop，线程数从1翻倍到最大值
+ * 用法：ConcurrentStackBenchmark [最大线程数，默认CPU核数*2] [每档运行毫秒数，默认1000]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class ConcurrentStackBenchmark {
+
+    private interface StackOps {
+        void push(Integer e);
+        boolean tryPop();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = BenchmarkSupport.intArg(args, 0, Runtime.getRuntime().availableProcessors() * 2);
+        int millis = BenchmarkSupport.intArg(args, 1, 1000);
+        //预热
+        run(synchronizedStack(), maxThreads, millis);
+        run(concurrentStack(new ConcurrentStack<>()), maxThreads, millis);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double sync = run(synchronizedStack(), threads, millis);
+            ConcurrentStack<Integer> stack = new ConcurrentStack<>();
+            double lockFree = run(concurrentStack(stack), threads, millis);
+            System.out.printf("threads=%-3d synchronized=%,.0f ops/s  lock-free=%,.0f ops/s  casFailures=%,d eliminationHits=%,d%n",
+                    threads, sync, lockFree, stack.getCasFailures(), stack.getEliminationHits());
+        }
+    }
+
+    private static StackOps synchronizedStack() {
+        GenericFirst.Stack<Integer> stack = new GenericFirst.Stack<>();
+        return new StackOps() {
+            @Override public void push(Integer e) {
+                synchronized (stack) {
+                    stack.push(e);
+                }
+            }
+            @Override public boolean tryPop() {
+                synchronized (stack) {
+                    if (stack.isEmpty()) {
+                        return false;
+                    }
+                    BenchmarkSupport.consume(stack.pop());
+                    return true;
+                }
+            }
+        };
+    }
+
+    private static StackOps concurrentStack(ConcurrentStack<Integer> stack) {
+        return new StackOps() {
+            @Override public void push(Integer e) {
+                stack.push(e);
+            }
+            @Override public boolean tryPop() {
+                try {
+                    BenchmarkSupport.consume(stack.pop());
+                    return true;
+                }
+                catch (EmptyStackException ex) {
+                    return false;
+                }
+            }
+        };
+    }
+
+    private static double run(StackOps stack, int threads, int millis) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        Integer value = 42;
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                }
+                catch (InterruptedException ex) {
+                    return;
+                }
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < 100; i++) {
+                        stack.push(value);
+                        stack.tryPop();
+                    }
+                    count += 200;
+                }
+                ops.add(count);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return BenchmarkSupport.opsPerSecond(ops.sum(), System.nanoTime() - begin);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.ConcurrentFavorites;
+import com.example.effectivejava.GenericFirst;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * 多个线程并发getFavorite，同时有一个线程偶尔写入
+ * 对比：synchronized包装的GenericFirst.Favorites、ConcurrentFavorites精确查找、ConcurrentFavorites子类型查找
+ * 用法：FavoritesBenchmark [读线程数，默认CPU核数] [每档运行毫秒数，默认1000] [写入间隔毫秒数，默认10]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class FavoritesBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int readers = BenchmarkSupport.intArg(args, 0, Runtime.getRuntime().availableProcessors());
+        int millis = BenchmarkSupport.intArg(args, 1, 1000);
+        int writeInterval = BenchmarkSupport.intArg(args, 2, 10);
+
+        GenericFirst.Favorites plain = new GenericFirst().new Favorites();
+        ConcurrentFavorites concurrent = new ConcurrentFavorites();
+        populate(plain::putFavorite);
+        populate(concurrent::putFavorite);
+
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            report("synchronized Favorites    ", readers, millis, writeInterval,
+                    type -> { synchronized (plain) { return plain.getFavorite(type); } },
+                    value -> { synchronized (plain) { plain.putFavorite(Long.class, value); } });
+            report("ConcurrentFavorites exact ", readers, millis, writeInterval,
+                    concurrent::getFavorite, value -> concurrent.putFavorite(Long.class, value));
+            report("ConcurrentFavorites find  ", readers, millis, writeInterval,
+                    type -> concurrent.findFavorite(CharSequence.class), value -> concurrent.putFavorite(Long.class, value));
+        }
+    }
+
+    private interface Put {
+        <T> void put(Class<T> type, T value);
+    }
+
+    private static void populate(Put put) {
+        put.put(String.class, "favorite");
+        put.put(Integer.class, 42);
+        put.put(Long.class, 42L);
+        put.put(Double.class, 4.2);
+        put.put(Class.class, FavoritesBenchmark.class);
+    }
+
+    private static final Class<?>[] TYPES = {String.class, Integer.class, Long.class, Double.class, Class.class};
+
+    private static void report(String name, int readers, int millis, int writeInterval,
+                               Function<Class<?>, Object> get, LongConsumer put) throws InterruptedException {
+        LongAdder reads = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        Thread[] threads = new Thread[readers + 1];
+        for (int t = 0; t < readers; t++) {
+            threads[t] = new Thread(() -> {
+                awaitQuietly(start);
+                long count = 0;
+                int i = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int j = 0; j < 1000; j++) {
+                        BenchmarkSupport.consume(get.apply(TYPES[i++ % TYPES.length]));
+                    }
+                    count += 1000;
+                }
+                reads.add(count);
+            });
+        }
+        threads[readers] = new Thread(() -> {
+            awaitQuietly(start);
+            long value = 0;
+            while (System.nanoTime() < deadline) {
+                put.accept(value++);
+                try {
+                    Thread.sleep(writeInterval);
+                }
+                catch (InterruptedException ex) {
+                    return;
+                }
+            }
+        });
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("%s readers=%d: %,.0f reads/s%n", name, readers,
+                BenchmarkSupport.opsPerSecond(reads.sum(), System.nanoTime() - begin));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
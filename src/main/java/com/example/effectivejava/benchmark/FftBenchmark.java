@@ -0,0 +1,57 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.math.ComplexArray;
+import com.example.effectivejava.math.Fft;
+
+import java.util.SplittableRandom;
+
+/**
+ * FFT吞吐量，长度从2^10到2^24（2的幂走radix-2），另外测一组2^k+1的长度走Bluestein
+ * 吞吐量按惯例用 5·n·log2(n) / 时间 折算成MFLOPS
+ * 用法：FftBenchmark [最大指数，默认24]，长度2^24时数据本身就要256MB，需要相应地调大-Xmx
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class FftBenchmark {
+
+    public static void main(String[] args) {
+        int maxExponent = BenchmarkSupport.intArg(args, 0, 24);
+        SplittableRandom random = new SplittableRandom(42);
+        //预热，同时填充2^12以内的旋转因子缓存
+        for (int i = 0; i < 200; i++) {
+            Fft.forwardInPlace(random(random, 1 << 12), Fft.Mode.SEQUENTIAL);
+            Fft.forwardInPlace(random(random, (1 << 10) + 1), Fft.Mode.SEQUENTIAL);
+        }
+        for (int exponent = 10; exponent <= maxExponent; exponent += 2) {
+            int n = 1 << exponent;
+            System.out.printf("n=2^%-2d radix-2   sequential %9.1f MFLOPS  parallel %9.1f MFLOPS%n", exponent,
+                    mflops(random, n, Fft.Mode.SEQUENTIAL), mflops(random, n, Fft.Mode.PARALLEL));
+            System.out.printf("n=2^%-2d+1 Bluestein sequential %9.1f MFLOPS  parallel %9.1f MFLOPS%n", exponent,
+                    mflops(random, n + 1, Fft.Mode.SEQUENTIAL), mflops(random, n + 1, Fft.Mode.PARALLEL));
+        }
+    }
+
+    private static double mflops(SplittableRandom random, int n, Fft.Mode mode) {
+        ComplexArray x = random(random, n);
+        //第一次运行会计算并缓存旋转因子表，不计入时间
+        Fft.forwardInPlace(x, mode);
+        int repeat = Math.max(1, (1 << 22) / n);
+        long start = System.nanoTime();
+        for (int i = 0; i < repeat; i++) {
+            Fft.forwardInPlace(x, mode);
+            Fft.inverseInPlace(x, mode);
+        }
+        long elapsed = System.nanoTime() - start;
+        BenchmarkSupport.consume(x.realPart(0));
+        double flops = 2.0 * repeat * 5 * n * (Math.log(n) / Math.log(2));
+        return flops / elapsed * 1e3;
+    }
+
+    private static ComplexArray random(SplittableRandom random, int n) {
+        ComplexArray x = new ComplexArray(n);
+        for (int i = 0; i < n; i++) {
+            x.set(i, random.nextDouble(), random.nextDouble());
+        }
+        return x;
+    }
+}
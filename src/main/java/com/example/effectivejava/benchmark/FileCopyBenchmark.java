@@ -0,0 +1,86 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.TryResourceProcessor;
+import com.example.effectivejava.io.FileCopier;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * 文件复制的吞吐量：TryResourceProcessor的1KB byte[]循环、FileCopier的1MB直接缓冲区、FileCopier的transferTo
+ * 文件大小从1MB开始每次乘10，直到指定的最大值；每种方式复制rounds次取最好的一次
+ * 源文件刚写过，大概率在页缓存里，测的主要是系统调用和用户态拷贝的开销，而不是磁盘本身
+ * 用法：FileCopyBenchmark [最大文件MB，默认1000，10GB用10000] [轮数，默认3] [目录，默认java.io.tmpdir]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class FileCopyBenchmark {
+
+    private interface Copy {
+        void copy(Path src, Path dst) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long maxMegabytes = BenchmarkSupport.longArg(args, 0, 1000);
+        int rounds = BenchmarkSupport.intArg(args, 1, 3);
+        Path dir = Files.createTempDirectory(args.length > 2 ? Paths.get(args[2]) : Paths.get(System.getProperty("java.io.tmpdir")),
+                "copy-benchmark");
+        Path src = dir.resolve("src");
+        Path dst = dir.resolve("dst");
+        TryResourceProcessor processor = new TryResourceProcessor();
+        try {
+            for (long megabytes = 1; megabytes <= maxMegabytes; megabytes *= 10) {
+                long bytes = megabytes << 20;
+                writeFile(src, bytes);
+                System.out.printf("---- %,d MB%n", megabytes);
+                //1KB循环在大文件上非常慢，超过1GB就不测了
+                if (megabytes <= 1000) {
+                    run("byte[1024] loop      ", bytes, rounds, src, dst, (s, d) -> processor.copyWithTryResource(s.toString(), d.toString()));
+                }
+                run("direct 1MB buffer    ", bytes, rounds, src, dst, FileCopier::copyBuffered);
+                run("transferTo           ", bytes, rounds, src, dst, FileCopier::copy);
+            }
+        }
+        finally {
+            Files.deleteIfExists(src);
+            Files.deleteIfExists(dst);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void run(String name, long bytes, int rounds, Path src, Path dst, Copy copy) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            Files.deleteIfExists(dst);
+            long start = System.nanoTime();
+            copy.copy(src, dst);
+            best = Math.min(best, System.nanoTime() - start);
+            if (Files.size(dst) != bytes) {
+                throw new IllegalStateException(name.trim() + " copied " + Files.size(dst) + " of " + bytes + " bytes");
+            }
+        }
+        System.out.printf("%s %,10.1f MB/s  (%.1f ms)%n", name, BenchmarkSupport.megabytesPerSecond(bytes, best), best / 1e6);
+    }
+
+    private static void writeFile(Path path, long bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        SplittableRandom random = new SplittableRandom(bytes);
+        while (buffer.remaining() >= Long.BYTES) {
+            buffer.putLong(random.nextLong());
+        }
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long written = 0; written < bytes; ) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), bytes - written));
+                written += out.write(buffer);
+            }
+        }
+    }
+}
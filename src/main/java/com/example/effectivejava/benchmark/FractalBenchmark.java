@@ -0,0 +1,58 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.Complex;
+import com.example.effectivejava.math.FractalRenderer;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 分形渲染的扩展性：并行度从1到CPU核数，报告每秒像素数，以及相对于线性扩展的效率
+ * 同时对比Complex对象迭代和局部变量迭代两种算术方式
+ * 用法：FractalBenchmark [图像边长，默认1024] [最大迭代次数，默认2000] [方块大小，默认32]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class FractalBenchmark {
+
+    public static void main(String[] args) {
+        int size = BenchmarkSupport.intArg(args, 0, 1024);
+        int maxIterations = BenchmarkSupport.intArg(args, 1, 2000);
+        int tileSize = BenchmarkSupport.intArg(args, 2, 32);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (FractalRenderer.Arithmetic arithmetic : FractalRenderer.Arithmetic.values()) {
+            FractalRenderer mandelbrot = new FractalRenderer.Builder(size, size).maxIterations(maxIterations)
+                    .tileSize(tileSize).arithmetic(arithmetic).build();
+            FractalRenderer julia = new FractalRenderer.Builder(size, size).maxIterations(maxIterations)
+                    .tileSize(tileSize).viewport(0, 0, 3.0).julia(new Complex(-0.8, 0.156)).arithmetic(arithmetic).build();
+            scaling("mandelbrot " + arithmetic, mandelbrot, cores);
+            scaling("julia      " + arithmetic, julia, cores);
+        }
+    }
+
+    private static void scaling(String name, FractalRenderer renderer, int cores) {
+        double single = 0;
+        for (int parallelism = 1; parallelism <= cores; parallelism = parallelism == cores ? cores + 1 : Math.min(cores, parallelism * 2)) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                //预热
+                BenchmarkSupport.consume(renderer.render(pool));
+                long start = System.nanoTime();
+                int repeat = 3;
+                for (int i = 0; i < repeat; i++) {
+                    BenchmarkSupport.consume(renderer.render(pool));
+                }
+                double pixelsPerSecond = BenchmarkSupport.opsPerSecond((long) repeat * renderer.width() * renderer.height(),
+                        System.nanoTime() - start);
+                if (parallelism == 1) {
+                    single = pixelsPerSecond;
+                }
+                System.out.printf("%s cores=%-3d %,14.0f pixels/s  speedup=%5.2f  efficiency=%5.1f%%%n", name, parallelism,
+                        pixelsPerSecond, pixelsPerSecond / single, 100 * pixelsPerSecond / single / parallelism);
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
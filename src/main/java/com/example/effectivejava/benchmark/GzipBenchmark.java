@@ -0,0 +1,101 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.io.CompressionResult;
+import com.example.effectivejava.io.ParallelGzip;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 压缩复制日志文件：单线程的GZIPOutputStream和不同线程数的ParallelGzip对比压缩率和耗时
+ * 输入是生成的类似访问日志的文本，压缩率和真实日志相近；每轮还会用ParallelGzip.decompress解压并检查长度
+ * 用法：GzipBenchmark [输入MB，默认256] [块KB，默认1024] [最大线程数，默认CPU数] [轮数，默认3] [目录，默认java.io.tmpdir]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class GzipBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int megabytes = BenchmarkSupport.intArg(args, 0, 256);
+        int blockKilobytes = BenchmarkSupport.intArg(args, 1, 1024);
+        int maxThreads = BenchmarkSupport.intArg(args, 2, Runtime.getRuntime().availableProcessors());
+        int rounds = BenchmarkSupport.intArg(args, 3, 3);
+        Path dir = Files.createTempDirectory(args.length > 4 ? Paths.get(args[4]) : Paths.get(System.getProperty("java.io.tmpdir")),
+                "gzip-benchmark");
+        Path src = dir.resolve("access.log");
+        Path dst = dir.resolve("access.log.gz");
+        Path restored = dir.resolve("restored.log");
+        try {
+            writeLog(src, (long) megabytes << 20);
+            long size = Files.size(src);
+            System.out.printf("%,d bytes of log  block %d KB  cpus %d%n", size, blockKilobytes,
+                    Runtime.getRuntime().availableProcessors());
+            for (int round = 1; round <= rounds; round++) {
+                System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+                print("GZIPOutputStream         ", gzipOutputStream(src, dst));
+                for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+                    ParallelGzip gzip = new ParallelGzip.Builder().blockSize(blockKilobytes << 10).parallelism(threads).build();
+                    print(String.format("ParallelGzip(%2d threads) ", threads), gzip.compress(src, dst));
+                }
+                CompressionResult back = ParallelGzip.decompress(dst, restored);
+                if (Files.size(restored) != size) {
+                    throw new AssertionError("decompressed " + Files.size(restored) + " bytes, expected " + size);
+                }
+                System.out.printf("decompress               %,10.1f MB/s  %,10.1f ms%n", back.megabytesPerSecond(),
+                        back.getElapsedNanos() / 1e6);
+            }
+        }
+        finally {
+            Files.deleteIfExists(restored);
+            Files.deleteIfExists(dst);
+            Files.deleteIfExists(src);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static CompressionResult gzipOutputStream(Path src, Path dst) throws IOException {
+        long start = System.nanoTime();
+        try (InputStream in = Files.newInputStream(src);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(dst), 64 << 10)) {
+            byte[] buffer = new byte[64 << 10];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return new CompressionResult(Files.size(src), Files.size(dst), System.nanoTime() - start);
+    }
+
+    private static void print(String name, CompressionResult result) {
+        System.out.printf("%s %,10.1f MB/s  %,10.1f ms  ratio %.2f  %,d bytes%n", name, result.megabytesPerSecond(),
+                result.getElapsedNanos() / 1e6, result.ratio(), result.getOutputBytes());
+    }
+
+    private static void writeLog(Path file, long bytes) throws IOException {
+        String[] paths = {"/", "/index.html", "/api/orders", "/api/users/login", "/static/app.js", "/static/app.css"};
+        String[] statuses = {"200", "200", "200", "304", "404", "500"};
+        Random random = new Random(25);
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            StringBuilder line = new StringBuilder(160);
+            while (written < bytes) {
+                line.setLength(0);
+                line.append("10.0.").append(random.nextInt(256)).append('.').append(random.nextInt(256))
+                        .append(" - - [18/Oct/2026:12:").append(random.nextInt(60)).append(':').append(random.nextInt(60))
+                        .append(" +0800] \"GET ").append(paths[random.nextInt(paths.length)]).append(" HTTP/1.1\" ")
+                        .append(statuses[random.nextInt(statuses.length)]).append(' ').append(random.nextInt(100_000))
+                        .append(" \"Mozilla/5.0\"\n");
+                writer.append(line);
+                written += line.length();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.collection.CollectionMetrics;
+import com.example.effectivejava.collection.Instrumented;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instrumented装饰器在快速路径上的开销：HashMap.get和ArrayList.get，不包装对比不同采样间隔的包装
+ * 采样间隔0表示只计数不计时，1表示每次都计时
+ * 用法：InstrumentationBenchmark [每项操作次数，默认50000000]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class InstrumentationBenchmark {
+    private static final int SIZE = 1 << 12;
+    private static final int[] SAMPLING_INTERVALS = {0, 1, 16, 1024};
+
+    public static void main(String[] args) {
+        int operations = BenchmarkSupport.intArg(args, 0, 50_000_000);
+        Map<Integer, Integer> map = new HashMap<>();
+        List<Integer> list = new ArrayList<>();
+        Integer[] keys = new Integer[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = i;
+            map.put(i, i);
+            list.add(i);
+        }
+        for (int round = 1; round <= 2; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            report("HashMap.get   plain            ", operations, mapGets(map, keys, operations));
+            report("ArrayList.get plain            ", operations, listGets(list, operations));
+            for (int interval : SAMPLING_INTERVALS) {
+                CollectionMetrics metrics = new CollectionMetrics("benchmark", interval);
+                report(String.format("HashMap.get   sampling 1/%-6d ", interval), operations,
+                        mapGets(Instrumented.map(map, metrics), keys, operations));
+                report(String.format("ArrayList.get sampling 1/%-6d ", interval), operations,
+                        listGets(Instrumented.list(list, metrics), operations));
+                if (round == 2) {
+                    System.out.println("  " + metrics.getOperations());
+                }
+            }
+        }
+    }
+
+    private static long mapGets(Map<Integer, Integer> map, Integer[] keys, int operations) {
+        long start = System.nanoTime();
+        long sum = 0;
+        for (int i = 0; i < operations; i++) {
+            sum += map.get(keys[i & (SIZE - 1)]);
+        }
+        BenchmarkSupport.consume(sum);
+        return System.nanoTime() - start;
+    }
+
+    private static long listGets(List<Integer> list, int operations) {
+        long start = System.nanoTime();
+        long sum = 0;
+        for (int i = 0; i < operations; i++) {
+            sum += list.get(i & (SIZE - 1));
+        }
+        BenchmarkSupport.consume(sum);
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, int operations, long nanos) {
+        System.out.printf("%s %6.2f ns/op%n", name, (double) nanos / operations);
+    }
+}
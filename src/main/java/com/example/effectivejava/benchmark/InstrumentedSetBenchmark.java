@@ -0,0 +1,92 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.collection.ConcurrentInstrumentedSet;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 多线程下ConcurrentInstrumentedSet的开销：对比不带统计的ConcurrentHashMap.newKeySet()
+ * 每个线程在同一个集合上随机执行80% contains、10% add、10% remove，线程数从1翻倍到64
+ * 用法：InstrumentedSetBenchmark [最大线程数，默认64] [每档运行毫秒数，默认1000] [键的范围，默认65536]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class InstrumentedSetBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = BenchmarkSupport.intArg(args, 0, 64);
+        int millis = BenchmarkSupport.intArg(args, 1, 1000);
+        int keyRange = BenchmarkSupport.intArg(args, 2, 1 << 16);
+        System.out.printf("cpus %d  key range %,d%n", Runtime.getRuntime().availableProcessors(), keyRange);
+        //预热
+        run(ConcurrentHashMap::newKeySet, maxThreads, millis, keyRange);
+        run(ConcurrentInstrumentedSet::concurrent, maxThreads, millis, keyRange);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double plain = run(ConcurrentHashMap::newKeySet, threads, millis, keyRange);
+            double instrumented = run(ConcurrentInstrumentedSet::concurrent, threads, millis, keyRange);
+            System.out.printf("threads=%-3d plain=%,14.0f ops/s  instrumented=%,14.0f ops/s  overhead %5.1f%%%n",
+                    threads, plain, instrumented, 100 * (plain - instrumented) / plain);
+        }
+    }
+
+    private static double run(Supplier<Set<Integer>> factory, int threads, int millis, int keyRange) throws InterruptedException {
+        Set<Integer> set = factory.get();
+        //预先放入一半的键，contains大约一半命中
+        for (int i = 0; i < keyRange; i += 2) {
+            set.add(i);
+        }
+        Integer[] keys = new Integer[keyRange];
+        for (int i = 0; i < keyRange; i++) {
+            keys[i] = i;
+        }
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                }
+                catch (InterruptedException ex) {
+                    return;
+                }
+                long count = 0;
+                long hits = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < 100; i++) {
+                        int r = random.nextInt(10 * keyRange);
+                        Integer key = keys[r % keyRange];
+                        int op = r / keyRange;
+                        if (op == 0) {
+                            set.add(key);
+                        }
+                        else if (op == 1) {
+                            set.remove(key);
+                        }
+                        else if (set.contains(key)) {
+                            hits++;
+                        }
+                    }
+                    count += 100;
+                }
+                BenchmarkSupport.consume(hits);
+                ops.add(count);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return BenchmarkSupport.opsPerSecond(ops.sum(), System.nanoTime() - begin);
+    }
+}
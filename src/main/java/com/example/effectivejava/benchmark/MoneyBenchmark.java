@@ -0,0 +1,73 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.math.Money;
+import com.example.effectivejava.math.MoneyAccumulator;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.function.Supplier;
+
+/**
+ * 重现AccurateStatistic.useBigDecimal的循环（价格每次涨一角，从余额中扣除），把迭代次数放大到10^8
+ * 初始余额足够大，保证循环不会提前结束；三种实现的结果必须相同
+ * 用法：MoneyBenchmark [迭代次数，默认100000000]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class MoneyBenchmark {
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final String INITIAL_FUNDS = "1000000000000000.00";
+
+    public static void main(String[] args) {
+        long iterations = BenchmarkSupport.longArg(args, 0, 100_000_000L);
+        for (int round = 1; round <= 2; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            report("BigDecimal       ", iterations, () -> bigDecimal(iterations));
+            report("Money            ", iterations, () -> money(iterations));
+            report("MoneyAccumulator ", iterations, () -> accumulator(iterations));
+        }
+    }
+
+    private static String bigDecimal(long iterations) {
+        final BigDecimal TEN_CENTS = new BigDecimal(".10");
+        BigDecimal funds = new BigDecimal(INITIAL_FUNDS);
+        BigDecimal price = TEN_CENTS;
+        for (long i = 0; i < iterations && funds.compareTo(price) >= 0; i++) {
+            funds = funds.subtract(price);
+            price = price.add(TEN_CENTS);
+        }
+        return funds.toPlainString();
+    }
+
+    private static String money(long iterations) {
+        final Money TEN_CENTS = Money.of(".10", USD);
+        Money funds = Money.of(INITIAL_FUNDS, USD);
+        Money price = TEN_CENTS;
+        for (long i = 0; i < iterations && funds.compareTo(price) >= 0; i++) {
+            funds = funds.minus(price);
+            price = price.plus(TEN_CENTS);
+        }
+        return funds.toBigDecimal().toPlainString();
+    }
+
+    private static String accumulator(long iterations) {
+        final Money TEN_CENTS = Money.of(".10", USD);
+        MoneyAccumulator funds = new MoneyAccumulator(Money.of(INITIAL_FUNDS, USD));
+        MoneyAccumulator price = new MoneyAccumulator(TEN_CENTS);
+        for (long i = 0; i < iterations && funds.minorUnits() >= price.minorUnits(); i++) {
+            funds.subtractMinor(price.minorUnits());
+            price.add(TEN_CENTS);
+        }
+        return funds.get().toBigDecimal().toPlainString();
+    }
+
+    private static void report(String name, long iterations, Supplier<String> body) {
+        long allocatedBefore = BenchmarkSupport.allocatedBytes();
+        long start = System.nanoTime();
+        String result = body.get();
+        long elapsed = System.nanoTime() - start;
+        long allocated = BenchmarkSupport.allocatedBytes() - allocatedBefore;
+        System.out.printf("%s %,8d ms  %6.2f ns/iteration  allocated %,12.1f MB  funds left %s%n", name,
+                elapsed / 1_000_000, (double) elapsed / iterations, allocated / (1024.0 * 1024.0), result);
+    }
+}
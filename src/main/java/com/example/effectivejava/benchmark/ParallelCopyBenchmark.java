@@ -0,0 +1,93 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.io.FileCopier;
+import com.example.effectivejava.io.ParallelFileCopier;
+import com.example.effectivejava.io.ParallelFileCopier.Strategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * ParallelFileCopier的吞吐量随线程数和区域大小的变化，以FileCopier.copy的单流transferTo为基准
+ * 线程数从1翻倍到最大值，区域大小取1MB、8MB、64MB，三种Strategy都测；每个组合复制rounds次取最好的一次
+ * 默认不force，测的是写入页缓存的速度；加上force参数后包含刷盘时间，才能看出设备本身的带宽
+ * 用法：ParallelCopyBenchmark [文件MB，默认1024] [最大线程数，默认16] [轮数，默认3] [force，默认false] [目录，默认java.io.tmpdir]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class ParallelCopyBenchmark {
+    private static final int[] REGION_SIZES = {1 << 20, 8 << 20, 64 << 20};
+
+    private interface Copy {
+        void copy(Path src, Path dst) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long megabytes = BenchmarkSupport.longArg(args, 0, 1024);
+        int maxThreads = BenchmarkSupport.intArg(args, 1, 16);
+        int rounds = BenchmarkSupport.intArg(args, 2, 3);
+        boolean force = args.length > 3 && Boolean.parseBoolean(args[3]);
+        Path dir = Files.createTempDirectory(args.length > 4 ? Paths.get(args[4]) : Paths.get(System.getProperty("java.io.tmpdir")),
+                "parallel-copy-benchmark");
+        Path src = dir.resolve("src");
+        Path dst = dir.resolve("dst");
+        long bytes = megabytes << 20;
+        try {
+            writeFile(src, bytes);
+            System.out.printf("file %,d MB  cpus %d  force %s%n", megabytes, Runtime.getRuntime().availableProcessors(), force);
+            run("single-stream transferTo          ", bytes, rounds, src, dst, FileCopier::copy);
+            for (Strategy strategy : Strategy.values()) {
+                for (int regionSize : REGION_SIZES) {
+                    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                        ParallelFileCopier copier = new ParallelFileCopier.Builder()
+                                .strategy(strategy)
+                                .regionSize(regionSize)
+                                .parallelism(threads)
+                                .force(force)
+                                .build();
+                        run(String.format("%-10s region %3dMB threads %-3d", strategy, regionSize >> 20, threads),
+                                bytes, rounds, src, dst, copier::copy);
+                    }
+                }
+            }
+        }
+        finally {
+            Files.deleteIfExists(src);
+            Files.deleteIfExists(dst);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void run(String name, long bytes, int rounds, Path src, Path dst, Copy copy) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            Files.deleteIfExists(dst);
+            long start = System.nanoTime();
+            copy.copy(src, dst);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%s %,10.1f MB/s%n", name, BenchmarkSupport.megabytesPerSecond(bytes, best));
+    }
+
+    private static void writeFile(Path path, long bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        SplittableRandom random = new SplittableRandom(bytes);
+        while (buffer.remaining() >= Long.BYTES) {
+            buffer.putLong(random.nextLong());
+        }
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long written = 0; written < bytes; ) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), bytes - written));
+                written += out.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.collection.IntHashSet;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * IntHashSet和HashSet&lt;Integer&gt;的对比：每个元素占用的内存，以及add、contains（一半命中）、remove的吞吐量
+ * IntHashSet分别测装载因子0.5和0.75；HashSet的键是调用时自动装箱的int，和业务代码里的用法一样
+ * 用法：PrimitiveHashSetBenchmark [元素个数，默认1000000] [轮数，默认5]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class PrimitiveHashSetBenchmark {
+
+    private interface IntSet {
+        boolean add(int key);
+        boolean contains(int key);
+        boolean remove(int key);
+    }
+
+    public static void main(String[] args) {
+        int n = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int rounds = BenchmarkSupport.intArg(args, 1, 5);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] keys = new int[n];
+        int[] misses = new int[n];
+        for (int i = 0; i < n; i++) {
+            //奇数存入，偶数用来测未命中
+            keys[i] = random.nextInt() | 1;
+            misses[i] = random.nextInt() & ~1;
+        }
+
+        System.out.printf("elements %,d%n", n);
+        System.out.printf("HashSet<Integer>       %6.1f bytes/element%n", bytesPerElement(() -> {
+            Set<Integer> set = new HashSet<>();
+            for (int key : keys) {
+                set.add(key);
+            }
+            return set;
+        }, n));
+        for (float loadFactor : new float[]{0.5f, 0.75f}) {
+            System.out.printf("IntHashSet(lf=%.2f)     %6.1f bytes/element%n", loadFactor, bytesPerElement(() -> {
+                IntHashSet set = new IntHashSet(0, loadFactor);
+                for (int key : keys) {
+                    set.add(key);
+                }
+                return set;
+            }, n));
+        }
+
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            Set<Integer> hashSet = new HashSet<>();
+            run("HashSet<Integer>      ", new IntSet() {
+                @Override public boolean add(int key)      { return hashSet.add(key); }
+                @Override public boolean contains(int key) { return hashSet.contains(key); }
+                @Override public boolean remove(int key)   { return hashSet.remove(key); }
+            }, keys, misses);
+            for (float loadFactor : new float[]{0.5f, 0.75f}) {
+                IntHashSet intSet = new IntHashSet(0, loadFactor);
+                run(String.format("IntHashSet(lf=%.2f)   ", loadFactor), new IntSet() {
+                    @Override public boolean add(int key)      { return intSet.add(key); }
+                    @Override public boolean contains(int key) { return intSet.contains(key); }
+                    @Override public boolean remove(int key)   { return intSet.remove(key); }
+                }, keys, misses);
+            }
+        }
+    }
+
+    private interface Builder {
+        Object build();
+    }
+
+    private static double bytesPerElement(Builder builder, int n) {
+        long before = BenchmarkSupport.usedHeap();
+        Object set = builder.build();
+        long after = BenchmarkSupport.usedHeap();
+        BenchmarkSupport.consume(set);
+        return (double) (after - before) / n;
+    }
+
+    private static void run(String name, IntSet set, int[] keys, int[] misses) {
+        int n = keys.length;
+        long hits = 0;
+        long start = System.nanoTime();
+        for (int key : keys) {
+            set.add(key);
+        }
+        long addNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            if (set.contains(keys[i])) {
+                hits++;
+            }
+            if (set.contains(misses[i])) {
+                hits++;
+            }
+        }
+        long containsNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int key : keys) {
+            if (set.remove(key)) {
+                hits++;
+            }
+        }
+        long removeNanos = System.nanoTime() - start;
+        BenchmarkSupport.consume(hits);
+        System.out.printf("%s add %,13.0f ops/s  contains %,13.0f ops/s  remove %,13.0f ops/s%n", name,
+                BenchmarkSupport.opsPerSecond(n, addNanos),
+                BenchmarkSupport.opsPerSecond(2L * n, containsNanos),
+                BenchmarkSupport.opsPerSecond(n, removeNanos));
+    }
+}
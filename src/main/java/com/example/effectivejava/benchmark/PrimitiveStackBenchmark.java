@@ -0,0 +1,83 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.GenericFirst;
+import com.example.effectivejava.stack.IntStack;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 比较IntStack和装箱的GenericFirst.Stack<Integer>的吞吐量和分配速率
+ * 入栈的数值超出Integer缓存范围（-128~127），装箱版本每次push都要分配一个Integer
+ * 用法：PrimitiveStackBenchmark [每轮元素个数，默认10000000] [轮数，默认5]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class PrimitiveStackBenchmark {
+    private static final int BULK = 1024;
+
+    public static void main(String[] args) {
+        int n = BenchmarkSupport.intArg(args, 0, 10_000_000);
+        int rounds = BenchmarkSupport.intArg(args, 1, 5);
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            report("boxed Stack<Integer>", n, () -> boxed(n));
+            report("IntStack push/pop  ", n, () -> primitive(n));
+            report("IntStack bulk      ", n, () -> primitiveBulk(n));
+        }
+    }
+
+    private static long boxed(int n) {
+        GenericFirst.Stack<Integer> stack = new GenericFirst.Stack<>();
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            stack.push(i + 1000);
+        }
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    private static long primitive(int n) {
+        IntStack stack = new IntStack();
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            stack.push(i + 1000);
+        }
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    private static long primitiveBulk(int n) {
+        IntStack stack = new IntStack();
+        int[] buffer = new int[BULK];
+        long sum = 0;
+        for (int i = 0; i < n; i += BULK) {
+            int len = Math.min(BULK, n - i);
+            for (int j = 0; j < len; j++) {
+                buffer[j] = i + j + 1000;
+            }
+            stack.pushAll(buffer, 0, len);
+        }
+        int popped;
+        while ((popped = stack.popInto(buffer)) > 0) {
+            for (int j = 0; j < popped; j++) {
+                sum += buffer[j];
+            }
+        }
+        return sum;
+    }
+
+    private static void report(String name, int n, LongSupplier body) {
+        long allocatedBefore = BenchmarkSupport.allocatedBytes();
+        long start = System.nanoTime();
+        BenchmarkSupport.consume(body.getAsLong());
+        long elapsed = System.nanoTime() - start;
+        long allocated = BenchmarkSupport.allocatedBytes() - allocatedBefore;
+        System.out.printf("%s: %,.0f ops/s, allocated %,.1f MB (%.1f MB/s, %.1f bytes/op)%n", name,
+                BenchmarkSupport.opsPerSecond(2L * n, elapsed), allocated / (1024.0 * 1024.0),
+                BenchmarkSupport.megabytesPerSecond(allocated, elapsed), allocated / (2.0 * n));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.CompactNumber;
+import com.example.effectivejava.MyNumber;
+import com.example.effectivejava.sort.RadixSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 对n个随机的MyNumber/CompactNumber按a排序：
+ * Collections.sort和Arrays.parallelSort使用Comparator.comparing(MyNumber::getA)（每次比较都拆箱），对比RadixSort的顺序和并行模式
+ * 同时报告两种对象占用的堆内存
+ * 用法：RadixSortBenchmark [元素个数，默认10000000]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class RadixSortBenchmark {
+
+    public static void main(String[] args) {
+        int n = BenchmarkSupport.intArg(args, 0, 10_000_000);
+        int[] values = new SplittableRandom(42).ints(n).toArray();
+        System.out.printf("n = %,d  parallelism %d%n", n, Runtime.getRuntime().availableProcessors());
+        System.out.printf("heap: MyNumber %.1f bytes/element, CompactNumber %.1f bytes/element%n",
+                footprint(n, () -> myNumbers(values)), footprint(n, () -> compactNumbers(values)));
+
+        Comparator<MyNumber> comparator = Comparator.comparing(MyNumber::getA);
+        for (int round = 1; round <= 2; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            time("MyNumber      Collections.sort      ", myNumbers(values), list -> Collections.sort(list, comparator));
+            time("MyNumber      Arrays.parallelSort   ", myNumbers(values), list -> {
+                MyNumber[] a = list.toArray(new MyNumber[0]);
+                Arrays.parallelSort(a, comparator);
+                BenchmarkSupport.consume(a);
+            });
+            time("MyNumber      RadixSort             ", myNumbers(values), list -> RadixSort.sort(list, MyNumber::getA));
+            time("MyNumber      RadixSort parallel    ", myNumbers(values),
+                    list -> RadixSort.sort(list, MyNumber::getA, RadixSort.Mode.PARALLEL));
+            time("CompactNumber Collections.sort      ", compactNumbers(values),
+                    list -> list.sort(Comparator.comparingInt(CompactNumber::getA)));
+            time("CompactNumber RadixSort             ", compactNumbers(values), list -> RadixSort.sort(list, CompactNumber::getA));
+            time("CompactNumber RadixSort parallel    ", compactNumbers(values),
+                    list -> RadixSort.sort(list, CompactNumber::getA, RadixSort.Mode.PARALLEL));
+        }
+    }
+
+    private static <T> void time(String name, List<T> list, Consumer<List<T>> sort) {
+        long start = System.nanoTime();
+        sort.accept(list);
+        long elapsed = System.nanoTime() - start;
+        BenchmarkSupport.consume(list.get(list.size() / 2));
+        System.out.printf("%s %,8d ms  %,14.0f elements/s%n", name, elapsed / 1_000_000,
+                BenchmarkSupport.opsPerSecond(list.size(), elapsed));
+    }
+
+    private static double footprint(int n, Supplier<List<?>> create) {
+        long before = BenchmarkSupport.usedHeap();
+        List<?> list = create.get();
+        long after = BenchmarkSupport.usedHeap();
+        BenchmarkSupport.consume(list);
+        return (double) (after - before) / n;
+    }
+
+    private static List<MyNumber> myNumbers(int[] values) {
+        List<MyNumber> list = new ArrayList<>(values.length);
+        for (int v : values) {
+            MyNumber number = new MyNumber();
+            number.setA(v);
+            list.add(number);
+        }
+        return list;
+    }
+
+    private static List<CompactNumber> compactNumbers(int[] values) {
+        List<CompactNumber> list = new ArrayList<>(values.length);
+        for (int v : values) {
+            list.add(new CompactNumber(v));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.GenericFirst;
+import com.example.effectivejava.collection.SetAlgebra;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+/**
+ * 集合规模悬殊时的集合运算：大集合固定，小集合从1:1缩小到1:10^4
+ * 交集大小：NoRawTypeClass.numElementsInCommon1的写法（总是遍历s1，这里s1是大集合）对比SetAlgebra.intersectionSize
+ * 并集：GenericFirst.union1对比SetAlgebra.union和unionView（只遍历视图一次）
+ * 另外比较两个TreeSet的归并遍历
+ * 用法：SetAlgebraBenchmark [大集合元素个数，默认1000000] [每项重复次数，默认5]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class SetAlgebraBenchmark {
+
+    public static void main(String[] args) {
+        int largeSize = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int repeat = BenchmarkSupport.intArg(args, 1, 5);
+        SplittableRandom random = new SplittableRandom(42);
+        Set<Integer> large = randomSet(random, largeSize, largeSize * 4);
+        for (int round = 1; round <= 2; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            for (int ratio = 1; ratio <= 10_000; ratio *= 10) {
+                Set<Integer> small = randomSet(random, Math.max(1, largeSize / ratio), largeSize * 4);
+                System.out.printf("1:%-6d numElementsInCommon1=%8.2f ms  intersectionSize=%8.2f ms  union1=%8.2f ms  union=%8.2f ms  unionView=%8.2f ms%n",
+                        ratio,
+                        time(repeat, () -> numElementsInCommon1(large, small)),
+                        time(repeat, () -> SetAlgebra.intersectionSize(large, small)),
+                        time(repeat, () -> GenericFirst.union1(large, small).size()),
+                        time(repeat, () -> SetAlgebra.union(large, small).size()),
+                        time(repeat, () -> iterate(SetAlgebra.unionView(large, small))));
+            }
+            Set<Integer> sortedLarge = new TreeSet<>(large);
+            Set<Integer> sortedOther = new TreeSet<>(randomSet(random, largeSize, largeSize * 4));
+            System.out.printf("TreeSet 1:1  numElementsInCommon1=%8.2f ms  intersectionSize(merge)=%8.2f ms%n",
+                    time(repeat, () -> numElementsInCommon1(sortedLarge, sortedOther)),
+                    time(repeat, () -> SetAlgebra.intersectionSize(sortedLarge, sortedOther)));
+        }
+    }
+
+    //和NoRawTypeClass.numElementsInCommon1相同的写法
+    private static int numElementsInCommon1(Set<?> s1, Set<?> s2) {
+        int result = 0;
+        for (Object o1 : s1) {
+            if (s2.contains(o1)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static long iterate(Set<?> set) {
+        long count = 0;
+        for (Object ignored : set) {
+            count++;
+        }
+        return count;
+    }
+
+    private static Set<Integer> randomSet(SplittableRandom random, int size, int bound) {
+        Set<Integer> set = new HashSet<>();
+        while (set.size() < size) {
+            set.add(random.nextInt(bound));
+        }
+        return set;
+    }
+
+    private static double time(int repeat, LongSupplier body) {
+        long start = System.nanoTime();
+        for (int i = 0; i < repeat; i++) {
+            BenchmarkSupport.consume(body.getAsLong());
+        }
+        return (System.nanoTime() - start) / 1e6 / repeat;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.stack.PersistentStack;
+import com.example.effectivejava.stack.SnapshotStack;
+
+import java.util.Arrays;
+
+/**
+ * 检查点（快照）的开销随栈大小的变化：Arrays.copyOf深拷贝对比SnapshotStack.snapshot()
+ * 每打一次快照前先push一个元素，模拟一边工作一边打检查点
+ * 用法：SnapshotBenchmark [最大栈大小，默认1000000] [每个大小的快照次数，默认1000]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class SnapshotBenchmark {
+
+    public static void main(String[] args) {
+        int maxSize = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int snapshots = BenchmarkSupport.intArg(args, 1, 1000);
+        //预热
+        deepCopy(1000, snapshots);
+        persistent(1000, snapshots);
+        for (int size = 100; size <= maxSize; size *= 10) {
+            long deep = deepCopy(size, snapshots);
+            long shared = persistent(size, snapshots);
+            System.out.printf("size=%-9d Arrays.copyOf=%,12.0f ns/snapshot  persistent=%,8.1f ns/snapshot%n",
+                    size, (double) deep / snapshots, (double) shared / snapshots);
+        }
+    }
+
+    private static long deepCopy(int size, int snapshots) {
+        Object[] elements = new Object[size + snapshots];
+        Object value = new Object();
+        int top = size;
+        Arrays.fill(elements, 0, size, value);
+        long start = System.nanoTime();
+        for (int i = 0; i < snapshots; i++) {
+            elements[top++] = value;
+            Object[] snapshot = Arrays.copyOf(elements, top);
+            BenchmarkSupport.consume(snapshot);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long persistent(int size, int snapshots) {
+        SnapshotStack<Object> stack = new SnapshotStack<>();
+        Object value = new Object();
+        for (int i = 0; i < size; i++) {
+            stack.push(value);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < snapshots; i++) {
+            stack.push(value);
+            PersistentStack<Object> snapshot = stack.snapshot();
+            BenchmarkSupport.consume(snapshot);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.Stack;
+import com.example.effectivejava.stack.SegmentedStack;
+
+/**
+ * 比较倍增数组的Stack和分段的SegmentedStack
+ * 1、push/pop的延迟分位数：每BATCH次操作计一个样本，倍增数组扩容时的整体拷贝会体现在高分位上
+ * 2、突发入栈后再出栈到很小的深度，GC后栈仍然存活时的堆占用
+ * 用法：StackBenchmark [元素个数，默认4000000] [轮数，默认5]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class StackBenchmark {
+    private static final int BATCH = 256;
+
+    //只为了让两种栈走同一段测试代码
+    private interface StackOps {
+        void push(Object o);
+        Object pop();
+    }
+
+    public static void main(String[] args) {
+        int n = BenchmarkSupport.intArg(args, 0, 4_000_000);
+        int rounds = BenchmarkSupport.intArg(args, 1, 5);
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            latency("doubling ", doubling(), n);
+            latency("segmented", segmented(), n);
+        }
+        retainedHeap("doubling ", doubling(), n);
+        retainedHeap("segmented", segmented(), n);
+    }
+
+    private static StackOps doubling() {
+        Stack stack = new Stack();
+        return new StackOps() {
+            @Override public void push(Object o) { stack.push(o); }
+            @Override public Object pop() { return stack.pop(); }
+        };
+    }
+
+    private static StackOps segmented() {
+        SegmentedStack<Object> stack = new SegmentedStack<>();
+        return new StackOps() {
+            @Override public void push(Object o) { stack.push(o); }
+            @Override public Object pop() { return stack.pop(); }
+        };
+    }
+
+    private static void latency(String name, StackOps stack, int n) {
+        Object value = new Object();
+        int batches = n / BATCH;
+        long[] pushSamples = new long[batches];
+        long[] popSamples = new long[batches];
+        for (int b = 0; b < batches; b++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < BATCH; i++) {
+                stack.push(value);
+            }
+            pushSamples[b] = System.nanoTime() - start;
+        }
+        for (int b = 0; b < batches; b++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < BATCH; i++) {
+                BenchmarkSupport.consume(stack.pop());
+            }
+            popSamples[b] = System.nanoTime() - start;
+        }
+        System.out.println(name + " push/" + BATCH + ": " + BenchmarkSupport.percentiles(pushSamples, batches));
+        System.out.println(name + " pop/" + BATCH + " : " + BenchmarkSupport.percentiles(popSamples, batches));
+    }
+
+    private static void retainedHeap(String name, StackOps stack, int n) {
+        Object value = new Object();
+        long before = BenchmarkSupport.usedHeap();
+        for (int i = 0; i < n; i++) {
+            stack.push(value);
+        }
+        for (int i = 0; i < n - n / 1000; i++) {
+            stack.pop();
+        }
+        long after = BenchmarkSupport.usedHeap();
+        System.out.printf("%s retained after burst of %d and drain to %d: %.1f MB%n",
+                name, n, n / 1000, (after - before) / (1024.0 * 1024.0));
+        //保证测量时栈仍然可达
+        BenchmarkSupport.consume(stack);
+    }
+}
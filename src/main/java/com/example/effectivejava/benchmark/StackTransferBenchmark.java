@@ -0,0 +1,58 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.GenericFirst;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GenericFirst.Stack批量接口的收益：把n个元素从ArrayList搬进栈再搬出来
+ * 逐个：for循环push，再while循环pop+add
+ * 批量：pushAll(ArrayList)，再drainTo(ArrayList, n)
+ * 用法：StackTransferBenchmark [元素个数，默认10000000] [轮数，默认5]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class StackTransferBenchmark {
+
+    public static void main(String[] args) {
+        int n = BenchmarkSupport.intArg(args, 0, 10_000_000);
+        int rounds = BenchmarkSupport.intArg(args, 1, 5);
+        List<Integer> source = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            source.add(i);
+        }
+        for (int round = 1; round <= rounds; round++) {
+            long perElement = perElement(source);
+            long bulk = bulk(source);
+            System.out.printf("round %d%s: per-element %,d ms, bulk %,d ms%n", round, round == 1 ? " (warm-up)" : "",
+                    perElement / 1_000_000, bulk / 1_000_000);
+        }
+    }
+
+    private static long perElement(List<Integer> source) {
+        long start = System.nanoTime();
+        GenericFirst.Stack<Integer> stack = new GenericFirst.Stack<>();
+        for (Integer e : source) {
+            stack.push(e);
+        }
+        List<Integer> dst = new ArrayList<>();
+        while (!stack.isEmpty()) {
+            dst.add(stack.pop());
+        }
+        long elapsed = System.nanoTime() - start;
+        BenchmarkSupport.consume(dst.size());
+        return elapsed;
+    }
+
+    private static long bulk(List<Integer> source) {
+        long start = System.nanoTime();
+        GenericFirst.Stack<Integer> stack = new GenericFirst.Stack<>();
+        stack.pushAll(source);
+        List<Integer> dst = new ArrayList<>();
+        stack.drainTo(dst, source.size());
+        long elapsed = System.nanoTime() - start;
+        BenchmarkSupport.consume(dst.size());
+        return elapsed;
+    }
+}
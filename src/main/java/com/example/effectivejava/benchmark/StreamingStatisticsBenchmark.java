@@ -0,0 +1,83 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.math.StreamingStatistics;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * 对n个数求均值、标准差和p50/p99：parallel()流 + StreamingStatistics合并，对比先收集到List<Double>再排序
+ * 数据由下标经过哈希生成（对数均匀分布在[1, 10^6)），各线程不需要共享随机数生成器
+ * List+排序需要为每个元素保存一个Double，n超过baselineLimit时跳过（10^9个Double需要约20GB堆）
+ * 用法：StreamingStatisticsBenchmark [n，默认1000000000] [baselineLimit，默认10000000]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class StreamingStatisticsBenchmark {
+    private static final double[] QUANTILES = {0.5, 0.99};
+
+    public static void main(String[] args) {
+        long n = BenchmarkSupport.longArg(args, 0, 1_000_000_000L);
+        long baselineLimit = BenchmarkSupport.longArg(args, 1, 10_000_000L);
+        System.out.printf("parallelism %d%n", Runtime.getRuntime().availableProcessors());
+        for (long size = Math.min(n, 1_000_000L); size <= n; size = size * 10 > n && size < n ? n : size * 10) {
+            System.out.printf("---- n = %,d%n", size);
+            double[] exact = null;
+            if (size <= baselineLimit) {
+                exact = sortBaseline(size);
+            }
+            else {
+                System.out.println("list + sort          skipped (n > baselineLimit)");
+            }
+            streaming(size, exact);
+        }
+    }
+
+    private static double[] sortBaseline(long n) {
+        long heapBefore = BenchmarkSupport.usedHeap();
+        long start = System.nanoTime();
+        List<Double> list = LongStream.range(0, n).parallel().mapToObj(StreamingStatisticsBenchmark::value)
+                .collect(Collectors.toList());
+        long peakHeap = BenchmarkSupport.usedHeap() - heapBefore;
+        list.sort(null);
+        double mean = list.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
+        double m2 = list.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum();
+        double[] quantiles = new double[QUANTILES.length];
+        for (int i = 0; i < QUANTILES.length; i++) {
+            quantiles[i] = list.get((int) (QUANTILES[i] * (n - 1)));
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("list + sort          %,8d ms  %,12.0f values/s  heap ~%,8.1f MB  mean %.3f stddev %.3f p50 %.3f p99 %.3f%n",
+                elapsed / 1_000_000, BenchmarkSupport.opsPerSecond(n, elapsed), peakHeap / (1024.0 * 1024.0),
+                mean, Math.sqrt(m2 / (n - 1)), quantiles[0], quantiles[1]);
+        BenchmarkSupport.consume(list);
+        return quantiles;
+    }
+
+    private static void streaming(long n, double[] exact) {
+        long start = System.nanoTime();
+        StreamingStatistics stats = LongStream.range(0, n).parallel().mapToDouble(StreamingStatisticsBenchmark::value)
+                .collect(StreamingStatistics::new, StreamingStatistics::accept, StreamingStatistics::merge);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("StreamingStatistics  %,8d ms  %,12.0f values/s                    mean %.3f stddev %.3f p50 %.3f p99 %.3f%n",
+                elapsed / 1_000_000, BenchmarkSupport.opsPerSecond(n, elapsed),
+                stats.mean(), stats.standardDeviation(), stats.quantile(QUANTILES[0]), stats.quantile(QUANTILES[1]));
+        if (exact != null) {
+            for (int i = 0; i < QUANTILES.length; i++) {
+                System.out.printf("  p%-4s relative error %.4f%%%n", Math.round(QUANTILES[i] * 100),
+                        100 * Math.abs(stats.quantile(QUANTILES[i]) - exact[i]) / exact[i]);
+            }
+        }
+    }
+
+    private static double value(long i) {
+        //SplitMix64的混合函数，把下标打散成均匀分布的53位小数
+        long z = (i + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        double u = (z >>> 11) * 0x1.0p-53;
+        return Math.pow(10, 6 * u);
+    }
+}
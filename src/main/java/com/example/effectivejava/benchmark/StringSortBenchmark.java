@@ -0,0 +1,74 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.sort.StringSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * 按长度再按字典序排序n个单词：Collections.sort和Arrays.parallelSort使用等价的比较器StringSort.ORDER，对比StringSort的顺序和并行模式
+ * 单词从一个较小的词表里按类Zipf分布抽取（大量重复），长度在1到14之间、集中在7附近，接近自然语言的词频
+ * 用法：StringSortBenchmark [单词个数，默认10000000] [词表大小，默认1000000]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class StringSortBenchmark {
+
+    public static void main(String[] args) {
+        int n = BenchmarkSupport.intArg(args, 0, 10_000_000);
+        int vocabularySize = BenchmarkSupport.intArg(args, 1, 1_000_000);
+        String[] words = words(n, vocabularySize);
+        System.out.printf("n = %,d  vocabulary %,d  parallelism %d%n", n, vocabularySize,
+                Runtime.getRuntime().availableProcessors());
+        for (int round = 1; round <= 2; round++) {
+            System.out.println("---- round " + round + (round == 1 ? " (warm-up)" : ""));
+            time("Collections.sort(ORDER)    ", words, a -> {
+                List<String> list = new ArrayList<>(Arrays.asList(a));
+                Collections.sort(list, StringSort.ORDER);
+                list.toArray(a);
+            });
+            time("Arrays.parallelSort(ORDER) ", words, a -> Arrays.parallelSort(a, StringSort.ORDER));
+            time("StringSort                 ", words, StringSort::sort);
+            time("StringSort parallel        ", words, a -> StringSort.sort(a, StringSort.Mode.PARALLEL));
+        }
+    }
+
+    private static void time(String name, String[] words, Consumer<String[]> sort) {
+        String[] a = words.clone();
+        long start = System.nanoTime();
+        sort.accept(a);
+        long elapsed = System.nanoTime() - start;
+        for (int i = 1; i < a.length; i++) {
+            if (StringSort.ORDER.compare(a[i - 1], a[i]) > 0) {
+                throw new AssertionError(name + " is not sorted at " + i);
+            }
+        }
+        System.out.printf("%s %,8d ms  %,14.0f words/s%n", name, elapsed / 1_000_000,
+                BenchmarkSupport.opsPerSecond(a.length, elapsed));
+    }
+
+    private static String[] words(int n, int vocabularySize) {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] vocabulary = new String[vocabularySize];
+        for (int i = 0; i < vocabularySize; i++) {
+            //两个均匀分布相加，长度在1到14之间，集中在7附近
+            int length = 1 + random.nextInt(7) + random.nextInt(8);
+            char[] chars = new char[length];
+            for (int j = 0; j < length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(26));
+            }
+            vocabulary[i] = new String(chars);
+        }
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++) {
+            //下标按u^3取，靠前的单词出现得多
+            double u = random.nextDouble();
+            words[i] = vocabulary[(int) (u * u * u * vocabularySize)];
+        }
+        return words;
+    }
+}
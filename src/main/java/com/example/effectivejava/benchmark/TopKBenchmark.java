@@ -0,0 +1,99 @@
+package com.example.effectivejava.benchmark;
+
+import com.example.effectivejava.optional.OptionalDemo;
+import com.example.effectivejava.optional.TopK;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * max和top-100在10^5到10^9个元素上的扩展性
+ * int[]：顺序循环、IntStream.parallel().max()、TopK.max、TopK.topK，以及拷贝后排序取前k个
+ * List<Integer>：OptionalDemo.max4Optional、TopK.max、stream().sorted().limit(k)、TopK.topK
+ * int[]需要4n字节，超过最大堆的一半时跳过；装箱的List和排序基准每个元素要多得多的内存，只测到objectLimit
+ * 用法：TopKBenchmark [最大元素个数，默认1000000000] [objectLimit，默认10000000] [k，默认100]
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class TopKBenchmark {
+
+    public static void main(String[] args) {
+        long maxSize = BenchmarkSupport.longArg(args, 0, 1_000_000_000L);
+        long objectLimit = BenchmarkSupport.longArg(args, 1, 10_000_000L);
+        int k = BenchmarkSupport.intArg(args, 2, 100);
+        System.out.printf("parallelism %d  k = %d  max heap %,d MB%n", Runtime.getRuntime().availableProcessors(), k,
+                Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        for (long size = 100_000; size <= maxSize; size *= 10) {
+            if (size * Integer.BYTES > Runtime.getRuntime().maxMemory() / 2) {
+                System.out.printf("---- n = %,d skipped, needs a larger heap (-Xmx)%n", size);
+                break;
+            }
+            int n = (int) size;
+            System.out.printf("---- n = %,d%n", n);
+            int[] a = new int[n];
+            Arrays.parallelSetAll(a, TopKBenchmark::value);
+            //第一次只用于预热
+            for (int round = 0; round < 2; round++) {
+                boolean print = round == 1;
+                time(print, "int[]  sequential loop max    ", n, () -> sequentialMax(a));
+                time(print, "int[]  IntStream parallel max ", n, () -> IntStream.of(a).parallel().max().getAsInt());
+                time(print, "int[]  TopK.max               ", n, () -> TopK.max(a).getAsInt());
+                time(print, "int[]  TopK.topK              ", n, () -> TopK.topK(a, k)[0]);
+                if (n <= objectLimit) {
+                    time(print, "int[]  sort copy, take k      ", n, () -> {
+                        int[] copy = a.clone();
+                        Arrays.parallelSort(copy);
+                        return copy[n - 1];
+                    });
+                }
+            }
+            if (n <= objectLimit) {
+                List<Integer> list = new ArrayList<>(n);
+                for (int v : a) {
+                    list.add(v);
+                }
+                for (int round = 0; round < 2; round++) {
+                    boolean print = round == 1;
+                    time(print, "List   max4Optional           ", n, () -> OptionalDemo.max4Optional(list).get());
+                    time(print, "List   TopK.max               ", n, () -> TopK.max(list).get());
+                    time(print, "List   sorted().limit(k)      ", n, () -> list.parallelStream().sorted(Collections.reverseOrder())
+                            .limit(k).collect(Collectors.toList()).get(0));
+                    time(print, "List   TopK.topK              ", n, () -> TopK.topK(list, k).get(0));
+                }
+            }
+        }
+    }
+
+    private static long sequentialMax(int[] a) {
+        int max = Integer.MIN_VALUE;
+        for (int v : a) {
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    private static void time(boolean print, String name, int n, LongSupplier body) {
+        long start = System.nanoTime();
+        long result = body.getAsLong();
+        long elapsed = System.nanoTime() - start;
+        BenchmarkSupport.consume(result);
+        if (print) {
+            System.out.printf("%s %,10.2f ms  %,16.0f elements/s  max %d%n", name, elapsed / 1e6,
+                    BenchmarkSupport.opsPerSecond(n, elapsed), result);
+        }
+    }
+
+    private static int value(int i) {
+        int z = i * 0x9E3779B9;
+        z = (z ^ (z >>> 16)) * 0x85EBCA6B;
+        z = (z ^ (z >>> 13)) * 0xC2B2AE35;
+        return z ^ (z >>> 16);
+    }
+}
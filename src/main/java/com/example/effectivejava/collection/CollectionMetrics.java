@@ -0,0 +1,172 @@
+package com.example.effectivejava.collection;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumented包装出来的集合的统计数据：每种操作的调用次数和采样的延迟直方图
+ * 1、每次调用都计数（LongAdder）；平均每samplingInterval次调用随机抽一次，用System.nanoTime计时后记入LatencyHistogram
+ *    未被抽中的调用只多了一次计数和一次ThreadLocalRandom，快速路径只有几纳秒
+ * 2、samplingInterval为0时只计数不计时；为1时每次都计时
+ * 3、内存是固定的：每种操作一个计数器和一个直方图，在构造时分配
+ * 4、register()把它注册为平台MBeanServer上的MXBean，ObjectName为com.example.effectivejava:type=CollectionMetrics,name=名称
+ * 多个集合可以共用一个CollectionMetrics，统计会合在一起
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class CollectionMetrics implements CollectionMetricsMXBean {
+
+     /**
+       * 统计的操作；只读写元素的操作才统计，size、isEmpty、equals、hashCode、toString等不统计
+       **/
+    public enum Operation {
+        ADD, ADD_ALL, REMOVE, REMOVE_ALL, RETAIN_ALL, REMOVE_IF, CONTAINS, CONTAINS_ALL, CLEAR,
+        //iterator()和listIterator()只统计创建迭代器，forEach统计整个遍历
+        ITERATE,
+        GET, SET, INDEX_OF, REPLACE_ALL, SORT,
+        PUT, PUT_ALL, CONTAINS_KEY, CONTAINS_VALUE, COMPUTE, MERGE, REPLACE
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    //start返回这个值表示没有被采样
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final String name;
+    private final int samplingInterval;
+    private final int samplingMask;
+    private final LongAdder[] counts = new LongAdder[OPERATIONS.length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private ObjectName objectName;
+
+     /**
+       * 每次调用都计时
+       **/
+    public CollectionMetrics(String name) {
+        this(name, 1);
+    }
+
+     /**
+       * @param samplingInterval 平均每多少次调用计时一次，必须是0或2的幂
+       * @throws IllegalArgumentException samplingInterval不是0或2的幂
+       **/
+    public CollectionMetrics(String name, int samplingInterval) {
+        if (samplingInterval < 0 || Integer.bitCount(samplingInterval) > 1) {
+            throw new IllegalArgumentException("samplingInterval must be 0 or a power of two: " + samplingInterval);
+        }
+        this.name = Objects.requireNonNull(name);
+        this.samplingInterval = samplingInterval;
+        this.samplingMask = samplingInterval - 1;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i] = new LongAdder();
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public long count(Operation operation) {
+        return counts[operation.ordinal()].sum();
+    }
+
+     /**
+       * 该操作延迟直方图的拷贝，可以和其他直方图合并
+       **/
+    public LatencyHistogram latency(Operation operation) {
+        return latencies[operation.ordinal()].copy();
+    }
+
+    public OperationSnapshot snapshot(Operation operation) {
+        return OperationSnapshot.of(operation.name(), count(operation), latencies[operation.ordinal()]);
+    }
+
+    @Override
+    public List<OperationSnapshot> getOperations() {
+        List<OperationSnapshot> result = new ArrayList<>();
+        for (Operation operation : OPERATIONS) {
+            if (count(operation) > 0) {
+                result.add(snapshot(operation));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i].reset();
+            latencies[i].reset();
+        }
+    }
+
+     /**
+       * 注册到平台MBeanServer
+       * @throws IllegalStateException 已经注册过，或者同名的MBean已经存在
+       **/
+    public synchronized ObjectName register() {
+        if (objectName != null) {
+            throw new IllegalStateException("already registered: " + objectName);
+        }
+        try {
+            ObjectName on = new ObjectName("com.example.effectivejava:type=CollectionMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+            objectName = on;
+            return on;
+        }
+        catch (JMException ex) {
+            throw new IllegalStateException("cannot register " + name, ex);
+        }
+    }
+
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        }
+        catch (JMException ex) {
+            throw new IllegalStateException("cannot unregister " + objectName, ex);
+        }
+        finally {
+            objectName = null;
+        }
+    }
+
+     /**
+       * 记一次调用，被采样时返回开始时间，否则返回NOT_SAMPLED
+       **/
+    long start(Operation operation) {
+        counts[operation.ordinal()].increment();
+        if (samplingMask >= 0 && (ThreadLocalRandom.current().nextInt() & samplingMask) == 0) {
+            return System.nanoTime();
+        }
+        return NOT_SAMPLED;
+    }
+
+    void end(Operation operation, long start) {
+        if (start != NOT_SAMPLED) {
+            latencies[operation.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CollectionMetrics[" + name + "]" + getOperations();
+    }
+}
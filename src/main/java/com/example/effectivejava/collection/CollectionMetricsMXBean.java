@@ -0,0 +1,22 @@
+package com.example.effectivejava.collection;
+
+import java.util.List;
+
+/**
+ * CollectionMetrics通过JMX发布的接口，可以用jconsole、VisualVM等工具查看
+ * @author Don
+ * @date 2026/10/18.
+ */
+public interface CollectionMetricsMXBean {
+
+    String getName();
+
+    int getSamplingInterval();
+
+     /**
+       * 调用过至少一次的操作的快照
+       **/
+    List<OperationSnapshot> getOperations();
+
+    void reset();
+}
@@ -0,0 +1,204 @@
+package com.example.effectivejava.collection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * InstrumentedHashSet.InstrumentedSet的线程安全版本：用组合包装任意Set（《effective java》-18），统计各种操作的次数
+ * 1、计数器是LongAdder：多个线程同时更新时各自累加到不同的单元，读取时才求和，计数本身不会成为竞争点，也不会像int字段那样丢失更新
+ * 2、统计：add的次数和其中成功（元素原来不存在）的次数、remove的次数和其中成功的次数、contains命中和未命中的次数
+ * 3、addAll、removeAll、retainAll、removeIf和迭代器的remove逐个元素计数；clear无法知道删除了多少元素，不计数
+ *    removeIf先找出满足条件的元素，再逐个调用remove，被其他线程抢先删除的元素不算成功的删除；
+ *    迭代器的remove无法知道被包装的Set是否真的删除了元素，总是计为成功
+ * 集合本身是否线程安全取决于被包装的Set，比如concurrent()包装的是ConcurrentHashMap.newKeySet()
+ * equals、hashCode和toString都转发给被包装的Set
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class ConcurrentInstrumentedSet<E> implements Set<E> {
+    private final Set<E> s;
+    private final LongAdder adds = new LongAdder();
+    private final LongAdder successfulAdds = new LongAdder();
+    private final LongAdder removes = new LongAdder();
+    private final LongAdder successfulRemoves = new LongAdder();
+    private final LongAdder containsHits = new LongAdder();
+    private final LongAdder containsMisses = new LongAdder();
+
+    public ConcurrentInstrumentedSet(Set<E> s) {
+        this.s = Objects.requireNonNull(s);
+    }
+
+     /**
+       * 包装一个新的ConcurrentHashMap.newKeySet()
+       **/
+    public static <E> ConcurrentInstrumentedSet<E> concurrent() {
+        return new ConcurrentInstrumentedSet<>(ConcurrentHashMap.newKeySet());
+    }
+
+    @Override
+    public boolean add(E e) {
+        adds.increment();
+        boolean added = s.add(e);
+        if (added) {
+            successfulAdds.increment();
+        }
+        return added;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean modified = false;
+        for (E e : snapshotIfSelf(c)) {
+            modified |= add(e);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        removes.increment();
+        boolean removed = s.remove(o);
+        if (removed) {
+            successfulRemoves.increment();
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        boolean modified = false;
+        for (Object o : snapshotIfSelf(c)) {
+            modified |= remove(o);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(e -> !c.contains(e));
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        //遍历结束后再删除，被包装的不是并发的Set时也不会抛ConcurrentModificationException
+        List<E> matches = new ArrayList<>();
+        for (E e : s) {
+            if (filter.test(e)) {
+                matches.add(e);
+            }
+        }
+        boolean modified = false;
+        for (E e : matches) {
+            modified |= remove(e);
+        }
+        return modified;
+    }
+
+     /**
+       * c就是这个集合时先复制一份，遍历的同时修改被包装的Set不会抛ConcurrentModificationException
+       **/
+    private <T> Collection<T> snapshotIfSelf(Collection<T> c) {
+        return c == this ? new ArrayList<>(c) : c;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        boolean found = s.contains(o);
+        (found ? containsHits : containsMisses).increment();
+        return found;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> it = s.iterator();
+        return new Iterator<E>() {
+            @Override public boolean hasNext() {
+                return it.hasNext();
+            }
+            @Override public E next() {
+                return it.next();
+            }
+            @Override public void remove() {
+                it.remove();
+                removes.increment();
+                successfulRemoves.increment();
+            }
+            @Override public void forEachRemaining(Consumer<? super E> action) {
+                it.forEachRemaining(action);
+            }
+        };
+    }
+
+    @Override public void clear()               { s.clear(); }
+    @Override public int size()                 { return s.size(); }
+    @Override public boolean isEmpty()          { return s.isEmpty(); }
+    @Override public Object[] toArray()         { return s.toArray(); }
+    @Override public <T> T[] toArray(T[] a)     { return s.toArray(a); }
+    @Override public void forEach(Consumer<? super E> action) { s.forEach(action); }
+    @Override public boolean equals(Object o)   { return o == this || s.equals(o); }
+    @Override public int hashCode()             { return s.hashCode(); }
+    @Override public String toString()          { return s.toString(); }
+
+     /**
+       * 尝试添加的元素个数
+       **/
+    public long getAddCount() {
+        return adds.sum();
+    }
+
+    public long getSuccessfulAddCount() {
+        return successfulAdds.sum();
+    }
+
+     /**
+       * 尝试删除的元素个数
+       **/
+    public long getRemoveCount() {
+        return removes.sum();
+    }
+
+    public long getSuccessfulRemoveCount() {
+        return successfulRemoves.sum();
+    }
+
+    public long getContainsHits() {
+        return containsHits.sum();
+    }
+
+    public long getContainsMisses() {
+        return containsMisses.sum();
+    }
+
+     /**
+       * 所有计数清零；和并发的更新同时进行时，这些更新可能计入清零之前或之后
+       **/
+    public void resetCounts() {
+        adds.reset();
+        successfulAdds.reset();
+        removes.reset();
+        successfulRemoves.reset();
+        containsHits.reset();
+        containsMisses.reset();
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.effectivejava.collection;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import static com.example.effectivejava.collection.CollectionMetrics.Operation.*;
+
+/**
+ * 给Collection、List、Set、Map加上统计的装饰器工厂，InstrumentedHashSet.InstrumentedSet的通用版本（《effective java》-18：组合优先于继承）
+ * 1、返回的对象把所有方法转发给被包装的集合，读写元素的操作顺便记入CollectionMetrics（调用次数和采样的延迟）
+ * 2、Map的putIfAbsent、computeIfAbsent、merge等默认方法也直接转发，被包装的是ConcurrentMap时仍然是原子操作；
+ *    Collection的removeIf和List的replaceAll、sort同理
+ * 3、和Collections.synchronizedList一样，包装RandomAccess的List得到的也是RandomAccess
+ * 4、keySet、values、entrySet、subList返回的视图不统计
+ * 线程安全性和被包装的集合相同；CollectionMetrics本身是线程安全的
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class Instrumented {
+    private Instrumented(){throw new AssertionError("不可被构造");}
+
+    public static <E> Collection<E> collection(Collection<E> c, CollectionMetrics metrics) {
+        return new InstrumentedCollection<>(c, metrics);
+    }
+
+    public static <E> Set<E> set(Set<E> s, CollectionMetrics metrics) {
+        return new InstrumentedSet<>(s, metrics);
+    }
+
+    public static <E> List<E> list(List<E> list, CollectionMetrics metrics) {
+        return list instanceof RandomAccess ? new InstrumentedRandomAccessList<>(list, metrics) : new InstrumentedList<>(list, metrics);
+    }
+
+    public static <K, V> Map<K, V> map(Map<K, V> map, CollectionMetrics metrics) {
+        return new InstrumentedMap<>(map, metrics);
+    }
+
+    private static class InstrumentedCollection<E> implements Collection<E> {
+        final Collection<E> c;
+        final CollectionMetrics m;
+
+        InstrumentedCollection(Collection<E> c, CollectionMetrics m) {
+            this.c = Objects.requireNonNull(c);
+            this.m = Objects.requireNonNull(m);
+        }
+
+        @Override public int size()                 { return c.size(); }
+        @Override public boolean isEmpty()          { return c.isEmpty(); }
+        @Override public Object[] toArray()         { return c.toArray(); }
+        @Override public <T> T[] toArray(T[] a)     { return c.toArray(a); }
+        @Override public Spliterator<E> spliterator() { return c.spliterator(); }
+        @Override public String toString()          { return c.toString(); }
+
+        @Override
+        public boolean contains(Object o) {
+            long t = m.start(CONTAINS);
+            boolean r = c.contains(o);
+            m.end(CONTAINS, t);
+            return r;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            long t = m.start(ITERATE);
+            Iterator<E> r = c.iterator();
+            m.end(ITERATE, t);
+            return r;
+        }
+
+        @Override
+        public void forEach(Consumer<? super E> action) {
+            long t = m.start(ITERATE);
+            c.forEach(action);
+            m.end(ITERATE, t);
+        }
+
+        @Override
+        public boolean add(E e) {
+            long t = m.start(ADD);
+            boolean r = c.add(e);
+            m.end(ADD, t);
+            return r;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            long t = m.start(REMOVE);
+            boolean r = c.remove(o);
+            m.end(REMOVE, t);
+            return r;
+        }
+
+        @Override
+        public boolean containsAll(Collection<?> coll) {
+            long t = m.start(CONTAINS_ALL);
+            boolean r = c.containsAll(coll);
+            m.end(CONTAINS_ALL, t);
+            return r;
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> coll) {
+            long t = m.start(ADD_ALL);
+            boolean r = c.addAll(coll);
+            m.end(ADD_ALL, t);
+            return r;
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> coll) {
+            long t = m.start(REMOVE_ALL);
+            boolean r = c.removeAll(coll);
+            m.end(REMOVE_ALL, t);
+            return r;
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> coll) {
+            long t = m.start(RETAIN_ALL);
+            boolean r = c.retainAll(coll);
+            m.end(RETAIN_ALL, t);
+            return r;
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super E> filter) {
+            long t = m.start(REMOVE_IF);
+            boolean r = c.removeIf(filter);
+            m.end(REMOVE_IF, t);
+            return r;
+        }
+
+        @Override
+        public void clear() {
+            long t = m.start(CLEAR);
+            c.clear();
+            m.end(CLEAR, t);
+        }
+    }
+
+    private static class InstrumentedSet<E> extends InstrumentedCollection<E> implements Set<E> {
+        InstrumentedSet(Set<E> s, CollectionMetrics m) {
+            super(s, m);
+        }
+
+        @Override public boolean equals(Object o)   { return o == this || c.equals(o); }
+        @Override public int hashCode()             { return c.hashCode(); }
+    }
+
+    private static class InstrumentedList<E> extends InstrumentedCollection<E> implements List<E> {
+        final List<E> list;
+
+        InstrumentedList(List<E> list, CollectionMetrics m) {
+            super(list, m);
+            this.list = list;
+        }
+
+        @Override public boolean equals(Object o)   { return o == this || list.equals(o); }
+        @Override public int hashCode()             { return list.hashCode(); }
+        @Override public List<E> subList(int fromIndex, int toIndex) { return list.subList(fromIndex, toIndex); }
+
+        @Override
+        public E get(int index) {
+            long t = m.start(GET);
+            E r = list.get(index);
+            m.end(GET, t);
+            return r;
+        }
+
+        @Override
+        public E set(int index, E element) {
+            long t = m.start(SET);
+            E r = list.set(index, element);
+            m.end(SET, t);
+            return r;
+        }
+
+        @Override
+        public void add(int index, E element) {
+            long t = m.start(ADD);
+            list.add(index, element);
+            m.end(ADD, t);
+        }
+
+        @Override
+        public E remove(int index) {
+            long t = m.start(REMOVE);
+            E r = list.remove(index);
+            m.end(REMOVE, t);
+            return r;
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends E> coll) {
+            long t = m.start(ADD_ALL);
+            boolean r = list.addAll(index, coll);
+            m.end(ADD_ALL, t);
+            return r;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            long t = m.start(INDEX_OF);
+            int r = list.indexOf(o);
+            m.end(INDEX_OF, t);
+            return r;
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            long t = m.start(INDEX_OF);
+            int r = list.lastIndexOf(o);
+            m.end(INDEX_OF, t);
+            return r;
+        }
+
+        @Override
+        public ListIterator<E> listIterator() {
+            return listIterator(0);
+        }
+
+        @Override
+        public ListIterator<E> listIterator(int index) {
+            long t = m.start(ITERATE);
+            ListIterator<E> r = list.listIterator(index);
+            m.end(ITERATE, t);
+            return r;
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<E> operator) {
+            long t = m.start(REPLACE_ALL);
+            list.replaceAll(operator);
+            m.end(REPLACE_ALL, t);
+        }
+
+        @Override
+        public void sort(Comparator<? super E> comparator) {
+            long t = m.start(SORT);
+            list.sort(comparator);
+            m.end(SORT, t);
+        }
+    }
+
+    private static final class InstrumentedRandomAccessList<E> extends InstrumentedList<E> implements RandomAccess {
+        InstrumentedRandomAccessList(List<E> list, CollectionMetrics m) {
+            super(list, m);
+        }
+    }
+
+    private static final class InstrumentedMap<K, V> implements Map<K, V> {
+        private final Map<K, V> map;
+        private final CollectionMetrics m;
+
+        InstrumentedMap(Map<K, V> map, CollectionMetrics m) {
+            this.map = Objects.requireNonNull(map);
+            this.m = Objects.requireNonNull(m);
+        }
+
+        @Override public int size()                 { return map.size(); }
+        @Override public boolean isEmpty()          { return map.isEmpty(); }
+        @Override public Set<K> keySet()            { return map.keySet(); }
+        @Override public Collection<V> values()     { return map.values(); }
+        @Override public Set<Entry<K, V>> entrySet() { return map.entrySet(); }
+        @Override public boolean equals(Object o)   { return o == this || map.equals(o); }
+        @Override public int hashCode()             { return map.hashCode(); }
+        @Override public String toString()          { return map.toString(); }
+
+        @Override
+        public boolean containsKey(Object key) {
+            long t = m.start(CONTAINS_KEY);
+            boolean r = map.containsKey(key);
+            m.end(CONTAINS_KEY, t);
+            return r;
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            long t = m.start(CONTAINS_VALUE);
+            boolean r = map.containsValue(value);
+            m.end(CONTAINS_VALUE, t);
+            return r;
+        }
+
+        @Override
+        public V get(Object key) {
+            long t = m.start(GET);
+            V r = map.get(key);
+            m.end(GET, t);
+            return r;
+        }
+
+        @Override
+        public V getOrDefault(Object key, V defaultValue) {
+            long t = m.start(GET);
+            V r = map.getOrDefault(key, defaultValue);
+            m.end(GET, t);
+            return r;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            long t = m.start(PUT);
+            V r = map.put(key, value);
+            m.end(PUT, t);
+            return r;
+        }
+
+        @Override
+        public V putIfAbsent(K key, V value) {
+            long t = m.start(PUT);
+            V r = map.putIfAbsent(key, value);
+            m.end(PUT, t);
+            return r;
+        }
+
+        @Override
+        public void putAll(Map<? extends K, ? extends V> other) {
+            long t = m.start(PUT_ALL);
+            map.putAll(other);
+            m.end(PUT_ALL, t);
+        }
+
+        @Override
+        public V remove(Object key) {
+            long t = m.start(REMOVE);
+            V r = map.remove(key);
+            m.end(REMOVE, t);
+            return r;
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            long t = m.start(REMOVE);
+            boolean r = map.remove(key, value);
+            m.end(REMOVE, t);
+            return r;
+        }
+
+        @Override
+        public void clear() {
+            long t = m.start(CLEAR);
+            map.clear();
+            m.end(CLEAR, t);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            long t = m.start(ITERATE);
+            map.forEach(action);
+            m.end(ITERATE, t);
+        }
+
+        @Override
+        public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+            long t = m.start(REPLACE_ALL);
+            map.replaceAll(function);
+            m.end(REPLACE_ALL, t);
+        }
+
+        @Override
+        public boolean replace(K key, V oldValue, V newValue) {
+            long t = m.start(REPLACE);
+            boolean r = map.replace(key, oldValue, newValue);
+            m.end(REPLACE, t);
+            return r;
+        }
+
+        @Override
+        public V replace(K key, V value) {
+            long t = m.start(REPLACE);
+            V r = map.replace(key, value);
+            m.end(REPLACE, t);
+            return r;
+        }
+
+        @Override
+        public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+            long t = m.start(COMPUTE);
+            V r = map.computeIfAbsent(key, mappingFunction);
+            m.end(COMPUTE, t);
+            return r;
+        }
+
+        @Override
+        public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+            long t = m.start(COMPUTE);
+            V r = map.computeIfPresent(key, remappingFunction);
+            m.end(COMPUTE, t);
+            return r;
+        }
+
+        @Override
+        public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+            long t = m.start(COMPUTE);
+            V r = map.compute(key, remappingFunction);
+            m.end(COMPUTE, t);
+            return r;
+        }
+
+        @Override
+        public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+            long t = m.start(MERGE);
+            V r = map.merge(key, value, remappingFunction);
+            m.end(MERGE, t);
+            return r;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.effectivejava.collection;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定内存的延迟直方图（纳秒），线程安全
+ * 1、桶按2的幂分组，每组再等分成8个子桶：[2^e, 2^(e+1))里的值落在8个等宽的桶里，桶内的相对误差不超过12.5%
+ *    小于8ns的值每个值一个桶，2^40ns（约18分钟）以上的值都放在最后一个桶
+ * 2、总共BUCKETS个桶，创建时一次分配，之后记录多少个值都不会再分配内存
+ * 3、所有直方图的桶划分相同，merge就是对应的桶计数相加，可以把多个线程、多个集合的直方图合并成一个
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+     /**
+       * 记录一个值，负数按0记录
+       **/
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(v));
+        total.add(v);
+        max.accumulate(v);
+    }
+
+     /**
+       * 把other的计数加进来，other不变
+       **/
+    public LatencyHistogram merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        total.add(other.total.sum());
+        max.accumulate(other.max.get());
+        return this;
+    }
+
+    public LatencyHistogram copy() {
+        return new LatencyHistogram().merge(this);
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+     /**
+       * 没有数据时返回0
+       **/
+    public long max() {
+        return max.get();
+    }
+
+     /**
+       * 平均值，没有数据时返回NaN
+       **/
+    public double mean() {
+        long count = count();
+        return count == 0 ? Double.NaN : (double) total.sum() / count;
+    }
+
+     /**
+       * q分位数所在桶的上界，不会超过max；没有数据时返回0
+       * @throws IllegalArgumentException q不在[0, 1]之间
+       **/
+    public long valueAtQuantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("q must be in [0, 1]: " + q);
+        }
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        max.reset();
+    }
+
+    static int bucket(long v) {
+        if (v < SUB_BUCKETS) {
+            return (int) v;
+        }
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        if (e >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (v >>> (e - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (e - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int e = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long width = 1L << (e - SUB_BITS);
+        return ((long) (SUB_BUCKETS + sub) << (e - SUB_BITS)) + width - 1;
+    }
+}
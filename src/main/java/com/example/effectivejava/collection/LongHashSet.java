@@ -0,0 +1,360 @@
+package com.example.effectivejava.collection;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * 存放long的开放寻址哈希集合，用来代替HashSet&lt;Long&gt;（《effective java》-61：基本类型优先于装箱基本类型）
+ * HashSet&lt;Long&gt;每个元素要一个Long和一个HashMap.Node，大约是long本身的六七倍；这里只有一个long[]
+ * 1、线性探测：冲突时依次看下一个槽，相邻的槽在同一个缓存行里；键先乘以黄金分割常数打散，避免连续的键聚成一团
+ * 2、删除时不留墓碑（tombstone），而是把后面同一簇中可以前移的元素向前挪（backward shift），查找不会因为删除变慢
+ * 3、0作为空槽的标记，集合中的0单独用一个布尔值记录
+ * 4、装载因子可以配置，越小探测越短、越占内存
+ * 实现了Set&lt;Long&gt;，可以作为Instrumented.set、ConcurrentInstrumentedSet等包装器的被包装集合；
+ * 直接调用add(long)、contains(long)、remove(long)不会装箱
+ * 不是线程安全的；迭代器是快速失败的，支持remove
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class LongHashSet extends AbstractSet<Long> {
+    public static final float DEFAULT_LOAD_FACTOR = 0.5f;
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long EMPTY = 0;
+
+    private final float loadFactor;
+    private long[] keys;
+    private int mask;
+    //表中元素个数达到resizeThreshold后，再插入新元素前扩容
+    private int resizeThreshold;
+    //表中的元素个数，不含0
+    private int tableSize;
+    private boolean containsZero;
+    private int modCount;
+
+    public LongHashSet() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongHashSet(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+     /**
+       * @param expectedSize 预计的元素个数，达到之前不会扩容
+       * @param loadFactor 装载因子，必须在(0, 1)之间
+       * @throws IllegalArgumentException 参数不合法
+       **/
+    public LongHashSet(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("loadFactor must be in (0, 1): " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(expectedSize, loadFactor));
+    }
+
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            modCount++;
+            return true;
+        }
+        long[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return false;
+            }
+            if (k == EMPTY) {
+                if (tableSize >= resizeThreshold) {
+                    grow();
+                    return add(key);
+                }
+                keys[i] = key;
+                tableSize++;
+                modCount++;
+                return true;
+            }
+        }
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsZero;
+        }
+        long[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return true;
+            }
+            if (k == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            modCount++;
+            return true;
+        }
+        long[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                removeAt(i);
+                modCount++;
+                return true;
+            }
+            if (k == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+     /**
+       * 遍历所有元素，不装箱
+       **/
+    public void forEachLong(LongConsumer action) {
+        int expectedModCount = modCount;
+        if (containsZero) {
+            action.accept(0);
+        }
+        for (long k : keys) {
+            if (k != EMPTY) {
+                action.accept(k);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    public long[] toLongArray() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (containsZero) {
+            result[n++] = 0;
+        }
+        for (long k : keys) {
+            if (k != EMPTY) {
+                result[n++] = k;
+            }
+        }
+        return result;
+    }
+
+     /**
+       * 当前的槽数，用来估算内存：每个槽8字节
+       **/
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean add(Long key) {
+        return add(key.longValue());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && contains(((Long) o).longValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Long && remove(((Long) o).longValue());
+    }
+
+    @Override
+    public int size() {
+        return containsZero ? tableSize + 1 : tableSize;
+    }
+
+    @Override
+    public void clear() {
+        if (size() > 0) {
+            Arrays.fill(keys, EMPTY);
+            tableSize = 0;
+            containsZero = false;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Itr();
+    }
+
+     /**
+       * 和Set的约定一致：所有元素的Long.hashCode之和
+       **/
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (long k : keys) {
+            h += Long.hashCode(k);
+        }
+        return h;
+    }
+
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        //至少留一个空槽，保证探测一定能结束
+        long needed = Math.max((long) Math.ceil(expectedSize / (double) loadFactor), expectedSize + 1L);
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        }
+        return Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("LongHashSet is full");
+        }
+        long[] old = keys;
+        allocate(old.length << 1);
+        long[] keys = this.keys;
+        int mask = this.mask;
+        for (long key : old) {
+            if (key != EMPTY) {
+                int i = slot(key, mask);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+            }
+        }
+    }
+
+     /**
+       * 删除槽i，然后把同一簇中后面的元素尽量前移填补空位
+       * 槽j中的元素可以移到空位gap，当且仅当gap在它的理想位置和j之间（按环形计算）
+       **/
+    private void removeAt(int i) {
+        long[] keys = this.keys;
+        int mask = this.mask;
+        int gap = i;
+        for (int j = (i + 1) & mask; ; j = (j + 1) & mask) {
+            long k = keys[j];
+            if (k == EMPTY) {
+                break;
+            }
+            int home = slot(k, mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = k;
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        tableSize--;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+     /**
+       * 从某个空槽的下一个位置开始环形遍历一圈，这样每一簇在遍历顺序中都是连续的，不会跨过起点
+       * 删除当前元素时，只有同一簇中还没遍历到的元素会前移，其中可能有一个移到当前槽，需要再看一次当前槽
+       **/
+    private final class Itr implements Iterator<Long> {
+        private static final int NONE = -1;
+        private static final int ZERO = -2;
+
+        private final int start;
+        //已经看过的槽数
+        private int index;
+        private int lastSlot = NONE;
+        private boolean zeroPending = containsZero;
+        private int expectedModCount = modCount;
+
+        Itr() {
+            int s = 0;
+            while (keys[s] != EMPTY) {
+                s++;
+            }
+            start = s;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (zeroPending) {
+                return true;
+            }
+            long[] keys = LongHashSet.this.keys;
+            while (index < keys.length && keys[slotAt(index)] == EMPTY) {
+                index++;
+            }
+            return index < keys.length;
+        }
+
+        @Override
+        public Long next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (zeroPending) {
+                zeroPending = false;
+                lastSlot = ZERO;
+                return 0L;
+            }
+            lastSlot = slotAt(index++);
+            return keys[lastSlot];
+        }
+
+        @Override
+        public void remove() {
+            if (lastSlot == NONE) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            if (lastSlot == ZERO) {
+                containsZero = false;
+            }
+            else {
+                removeAt(lastSlot);
+                if (keys[lastSlot] != EMPTY) {
+                    index--;
+                }
+            }
+            lastSlot = NONE;
+            expectedModCount = ++modCount;
+        }
+
+        private int slotAt(int index) {
+            return (start + 1 + index) & mask;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
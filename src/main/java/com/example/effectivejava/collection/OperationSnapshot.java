@@ -0,0 +1,76 @@
+package com.example.effectivejava.collection;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * 某一种操作在某一时刻的统计快照，不可变
+ * 通过JMX发布时映射成CompositeData
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class OperationSnapshot {
+    private final String operation;
+    private final long count;
+    private final long sampled;
+    private final double meanNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    @ConstructorProperties({"operation", "count", "sampled", "meanNanos", "p50Nanos", "p99Nanos", "maxNanos"})
+    public OperationSnapshot(String operation, long count, long sampled, double meanNanos, long p50Nanos, long p99Nanos,
+                             long maxNanos) {
+        this.operation = operation;
+        this.count = count;
+        this.sampled = sampled;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    static OperationSnapshot of(String operation, long count, LatencyHistogram histogram) {
+        return new OperationSnapshot(operation, count, histogram.count(), histogram.mean(), histogram.valueAtQuantile(0.5),
+                histogram.valueAtQuantile(0.99), histogram.max());
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+     /**
+       * 调用次数
+       **/
+    public long getCount() {
+        return count;
+    }
+
+     /**
+       * 被采样计时的次数，延迟统计只基于这些调用
+       **/
+    public long getSampled() {
+        return sampled;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, sampled=%d, mean=%.1fns, p50=%dns, p99=%dns, max=%dns}",
+                operation, count, sampled, meanNanos, p50Nanos, p99Nanos, maxNanos);
+    }
+}
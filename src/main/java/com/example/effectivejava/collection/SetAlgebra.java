@@ -0,0 +1,329 @@
+package com.example.effectivejava.collection;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 集合运算工具，GenericFirst.union1和NoRawTypeClass.numElementsInCommon1的按规模选策略版本
+ * 1、交集、交集大小：遍历较小的集合，到较大的集合里contains
+ * 2、并集：unionView返回不拷贝的只读视图；union需要拷贝时按较大的集合预估容量
+ * 3、两个集合都是SortedSet且比较器相同时，用归并的方式一次顺序遍历完成
+ * 4、较小的一边也很大时，把它拆分到公共ForkJoinPool上并行计算
+ * 结果集合都是新建的，不会修改入参（《effective java》-50：必要时进行防御性拷贝）
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class SetAlgebra {
+    private SetAlgebra(){throw new AssertionError("不可被构造");}
+
+    //较小一边超过这个大小才并行
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    //并行时每个子任务处理的元素个数
+    private static final int SPLIT_SIZE = 1 << 13;
+
+     /**
+       * 并集，返回新的可修改集合
+       **/
+    public static <E> Set<E> union(Set<? extends E> s1, Set<? extends E> s2) {
+        Set<? extends E> larger = s1.size() >= s2.size() ? s1 : s2;
+        Set<? extends E> smaller = larger == s1 ? s2 : s1;
+        if (bothSortedSameOrder(s1, s2)) {
+            @SuppressWarnings("unchecked")
+            SortedSet<E> sorted = new TreeSet<>((Comparator<? super E>) ((SortedSet<? extends E>) s1).comparator());
+            sorted.addAll(s1);
+            sorted.addAll(s2);
+            return sorted;
+        }
+        Set<E> result = new HashSet<>(capacityFor(s1.size() + s2.size()));
+        result.addAll(larger);
+        result.addAll(smaller);
+        return result;
+    }
+
+     /**
+       * 并集的只读视图，不拷贝元素，视图随两个集合的变化而变化
+       * size()需要遍历较小的集合，如果要多次使用请用union拷贝一份
+       **/
+    public static <E> Set<E> unionView(Set<? extends E> s1, Set<? extends E> s2) {
+        Objects.requireNonNull(s1);
+        Objects.requireNonNull(s2);
+        Set<? extends E> larger = s1.size() >= s2.size() ? s1 : s2;
+        Set<? extends E> smaller = larger == s1 ? s2 : s1;
+        return new AbstractSet<E>() {
+            @Override
+            public Iterator<E> iterator() {
+                return new Iterator<E>() {
+                    private final Iterator<? extends E> first = larger.iterator();
+                    private final Iterator<? extends E> second = smaller.iterator();
+                    private E next;
+                    private boolean ready;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (ready) {
+                            return true;
+                        }
+                        if (first.hasNext()) {
+                            next = first.next();
+                            ready = true;
+                            return true;
+                        }
+                        while (second.hasNext()) {
+                            E e = second.next();
+                            if (!larger.contains(e)) {
+                                next = e;
+                                ready = true;
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+
+                    @Override
+                    public E next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        ready = false;
+                        return next;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return larger.size() + smaller.size() - intersectionSize(larger, smaller);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return larger.contains(o) || smaller.contains(o);
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return larger.isEmpty() && smaller.isEmpty();
+            }
+        };
+    }
+
+     /**
+       * 交集，返回新的可修改集合
+       * 结果中的元素取自被遍历的那个集合（有序归并时取自s1），两个集合中有相等但不是同一个对象的元素时，
+       * 取到的是哪一个和两个集合的大小有关；两个参数都是Set&lt;? extends E&gt;，所以无论取自哪一边都是E
+       **/
+    public static <E> Set<E> intersection(Set<? extends E> s1, Set<? extends E> s2) {
+        if (bothSortedSameOrder(s1, s2)) {
+            List<E> common = new ArrayList<>();
+            mergeWalk((SortedSet<? extends E>) s1, (SortedSet<?>) s2, common, null);
+            @SuppressWarnings("unchecked")
+            SortedSet<E> result = new TreeSet<>((Comparator<? super E>) ((SortedSet<? extends E>) s1).comparator());
+            result.addAll(common);
+            return result;
+        }
+        Set<? extends E> smaller = s1.size() <= s2.size() ? s1 : s2;
+        Set<? extends E> larger = smaller == s1 ? s2 : s1;
+        Set<E> result = new HashSet<>();
+        collectIf(smaller, larger, true, result);
+        return result;
+    }
+
+     /**
+       * 差集s1 - s2，必须遍历s1；s2比s1小很多时先拷贝s1再逐个删除
+       **/
+    public static <E> Set<E> difference(Set<? extends E> s1, Set<?> s2) {
+        if (bothSortedSameOrder(s1, s2)) {
+            List<E> remaining = new ArrayList<>();
+            mergeWalk((SortedSet<? extends E>) s1, (SortedSet<?>) s2, null, remaining);
+            @SuppressWarnings("unchecked")
+            SortedSet<E> result = new TreeSet<>((Comparator<? super E>) ((SortedSet<? extends E>) s1).comparator());
+            result.addAll(remaining);
+            return result;
+        }
+        Set<E> result;
+        if (s2.size() < s1.size() / 4) {
+            result = new HashSet<>(s1);
+            for (Object o : s2) {
+                result.remove(o);
+            }
+        }
+        else {
+            result = new HashSet<>();
+            collectIf(s1, s2, false, result);
+        }
+        return result;
+    }
+
+     /**
+       * 交集的大小，不创建结果集合
+       **/
+    public static int intersectionSize(Set<?> s1, Set<?> s2) {
+        if (bothSortedSameOrder(s1, s2)) {
+            return mergeWalk((SortedSet<?>) s1, (SortedSet<?>) s2, null, null);
+        }
+        Set<?> smaller = s1.size() <= s2.size() ? s1 : s2;
+        Set<?> larger = smaller == s1 ? s2 : s1;
+        if (smaller.size() >= PARALLEL_THRESHOLD) {
+            List<?> elements = new ArrayList<>(smaller);
+            return ForkJoinPool.commonPool().invoke(new CountTask(elements, larger, 0, elements.size()));
+        }
+        int result = 0;
+        for (Object o : smaller) {
+            if (larger.contains(o)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static <E> void collectIf(Set<? extends E> source, Set<?> other, boolean contained, Set<E> result) {
+        if (source.size() >= PARALLEL_THRESHOLD) {
+            List<E> elements = new ArrayList<>(source);
+            result.addAll(ForkJoinPool.commonPool().invoke(new FilterTask<>(elements, other, contained, 0, elements.size())));
+            return;
+        }
+        for (E e : source) {
+            if (other.contains(e) == contained) {
+                result.add(e);
+            }
+        }
+    }
+
+    private static boolean bothSortedSameOrder(Set<?> s1, Set<?> s2) {
+        return s1 instanceof SortedSet && s2 instanceof SortedSet
+                && Objects.equals(((SortedSet<?>) s1).comparator(), ((SortedSet<?>) s2).comparator());
+    }
+
+     /**
+       * 两个有序集合同时顺序遍历一次，返回公共元素个数
+       * common不为null时收集公共元素，onlyFirst不为null时收集只在s1中的元素
+       **/
+    @SuppressWarnings("unchecked")
+    private static <E> int mergeWalk(SortedSet<? extends E> s1, SortedSet<?> s2, List<E> common, List<E> onlyFirst) {
+        Comparator<Object> comparator = (Comparator<Object>) s1.comparator();
+        if (comparator == null) {
+            comparator = (a, b) -> ((Comparable<Object>) a).compareTo(b);
+        }
+        Iterator<? extends E> it1 = s1.iterator();
+        Iterator<?> it2 = s2.iterator();
+        int count = 0;
+        E a = it1.hasNext() ? it1.next() : null;
+        Object b = it2.hasNext() ? it2.next() : null;
+        boolean hasA = !s1.isEmpty();
+        boolean hasB = !s2.isEmpty();
+        while (hasA && hasB) {
+            int c = comparator.compare(a, b);
+            if (c == 0) {
+                count++;
+                if (common != null) {
+                    common.add(a);
+                }
+            }
+            else if (c < 0 && onlyFirst != null) {
+                onlyFirst.add(a);
+            }
+            if (c <= 0) {
+                hasA = it1.hasNext();
+                a = hasA ? it1.next() : null;
+            }
+            if (c >= 0) {
+                hasB = it2.hasNext();
+                b = hasB ? it2.next() : null;
+            }
+        }
+        while (hasA && onlyFirst != null) {
+            onlyFirst.add(a);
+            hasA = it1.hasNext();
+            a = hasA ? it1.next() : null;
+        }
+        return count;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return (int) Math.min(Integer.MAX_VALUE, expectedSize / 0.75f + 1);
+    }
+
+    private static final class CountTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        private final List<?> elements;
+        private final Set<?> other;
+        private final int from;
+        private final int to;
+
+        CountTask(List<?> elements, Set<?> other, int from, int to) {
+            this.elements = elements;
+            this.other = other;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= SPLIT_SIZE) {
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    if (other.contains(elements.get(i))) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(elements, other, from, mid);
+            left.fork();
+            return new CountTask(elements, other, mid, to).compute() + left.join();
+        }
+    }
+
+    private static final class FilterTask<E> extends RecursiveTask<List<E>> {
+        private static final long serialVersionUID = 1L;
+        private final List<E> elements;
+        private final Set<?> other;
+        private final boolean contained;
+        private final int from;
+        private final int to;
+
+        FilterTask(List<E> elements, Set<?> other, boolean contained, int from, int to) {
+            this.elements = elements;
+            this.other = other;
+            this.contained = contained;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<E> compute() {
+            if (to - from <= SPLIT_SIZE) {
+                List<E> result = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    E e = elements.get(i);
+                    if (other.contains(e) == contained) {
+                        result.add(e);
+                    }
+                }
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            FilterTask<E> left = new FilterTask<>(elements, other, contained, from, mid);
+            left.fork();
+            List<E> right = new FilterTask<>(elements, other, contained, mid, to).compute();
+            List<E> result = left.join();
+            if (result.isEmpty()) {
+                return right;
+            }
+            result.addAll(right);
+            return result;
+        }
+    }
+}
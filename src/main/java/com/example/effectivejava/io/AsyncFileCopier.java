@@ -0,0 +1,351 @@
+package com.example.effectivejava.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于AsynchronousFileChannel的异步文件复制，调用线程不会在整个复制过程中阻塞
+ * 1、copy立即返回CompletableFuture&lt;CopyResult&gt;
+ * 2、每个复制用两个池化的直接缓冲区交替使用：一个在写的同时另一个在读，读和写总是同时在进行（double buffering）
+ * 3、同时进行的复制最多maxConcurrentCopies个，多出来的排队，前面的完成后再开始，不占用线程
+ * 4、通道的I/O和回调都在executor上执行；Linux上的AsynchronousFileChannel是用线程池模拟的，
+ *    默认的线程池是不限大小的，所以这里默认用一个固定大小的线程池，线程数不会随在途复制的数量增长
+ * 返回的CompletableFuture被cancel后，复制在当前的读写完成后停止；还在排队时被cancel，不会打开源文件和目标文件，
+ * 目标文件保持原样；失败时以IOException异常结束
+ * 默认线程池由AsyncFileCopier创建，close时关闭；通过Builder传入的executor由调用者负责关闭
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class AsyncFileCopier implements AutoCloseable {
+    private static final Set<OpenOption> READ = Collections.singleton(StandardOpenOption.READ);
+    private static final Set<OpenOption> WRITE = Collections.unmodifiableSet(
+            EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
+
+    private final int maxConcurrentCopies;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    //active和waiting由this保护
+    private int active;
+    private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+
+    public static class Builder {
+        // Optional parameters - initialized to default values
+        private int maxConcurrentCopies = 64;
+        private ExecutorService executor;
+
+        public Builder maxConcurrentCopies(int val){
+            if (val <= 0) {
+                throw new IllegalArgumentException("maxConcurrentCopies must be positive: " + val);
+            }
+            maxConcurrentCopies = val; return this;
+        }
+         /**
+           * 执行通道I/O和回调的线程池，不设置时使用一个2倍CPU数的固定线程池
+           **/
+        public Builder executor(ExecutorService val){
+            executor = Objects.requireNonNull(val); return this;
+        }
+        public AsyncFileCopier build() {
+            return new AsyncFileCopier(this);
+        }
+    }
+
+    private AsyncFileCopier(Builder builder) {
+        maxConcurrentCopies = builder.maxConcurrentCopies;
+        ownsExecutor = builder.executor == null;
+        executor = ownsExecutor ? Executors.newFixedThreadPool(2 * Runtime.getRuntime().availableProcessors(), daemonThreads())
+                : builder.executor;
+    }
+
+     /**
+       * 异步复制文件，目标文件已存在时覆盖
+       **/
+    public CompletableFuture<CopyResult> copy(Path src, Path dst) {
+        Objects.requireNonNull(src);
+        Objects.requireNonNull(dst);
+        CompletableFuture<CopyResult> result = new CompletableFuture<>();
+        Runnable start = () -> new Copy(src, dst, result).start();
+        synchronized (this) {
+            if (active >= maxConcurrentCopies) {
+                waiting.add(start);
+                return result;
+            }
+            active++;
+        }
+        start.run();
+        return result;
+    }
+
+     /**
+       * 正在复制（不含排队）的个数
+       **/
+    public synchronized int activeCopies() {
+        return active;
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+     /**
+       * 一个复制结束后，开始排队中的下一个
+       * 交给executor执行而不是直接调用，否则一连串立即失败的复制会不断嵌套调用，导致栈溢出
+       **/
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                active--;
+                return;
+            }
+        }
+        try {
+            executor.execute(next);
+        }
+        catch (RejectedExecutionException ex) {
+            //executor已经关闭，直接开始，打开通道或发起读写时会失败，返回的CompletableFuture以异常结束
+            next.run();
+        }
+    }
+
+     /**
+       * 一次复制的状态机；所有字段由this保护，回调可能在不同的线程中执行
+       * 同一时刻最多一个读和一个写在进行，两个缓冲区都在等待写入时暂停读取
+       **/
+    private final class Copy {
+        private final Path src;
+        private final Path dst;
+        private final CompletableFuture<CopyResult> result;
+        private final long startNanos = System.nanoTime();
+        private final ByteBuffer[] buffers = new ByteBuffer[2];
+        //full[i]为true表示buffers[i]已经读满，等待写入或正在写入
+        private final boolean[] full = new boolean[2];
+        private AsynchronousFileChannel in;
+        private AsynchronousFileChannel out;
+        private long size;
+        private long readPosition;
+        private long writePosition;
+        private int readIndex;
+        private int writeIndex;
+        private boolean reading;
+        private boolean writing;
+        private Throwable failure;
+        private boolean finished;
+
+        private final CompletionHandler<Integer, Void> onRead = new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer n, Void attachment) {
+                boolean done;
+                synchronized (Copy.this) {
+                    reading = false;
+                    if (n < 0) {
+                        fail(new IOException("source truncated during copy at " + readPosition + ": " + src));
+                    }
+                    else {
+                        buffers[readIndex].flip();
+                        full[readIndex] = true;
+                        readPosition += n;
+                        readIndex ^= 1;
+                    }
+                    done = advance();
+                }
+                if (done) {
+                    complete();
+                }
+            }
+
+            @Override
+            public void failed(Throwable ex, Void attachment) {
+                boolean done;
+                synchronized (Copy.this) {
+                    reading = false;
+                    fail(ex);
+                    done = advance();
+                }
+                if (done) {
+                    complete();
+                }
+            }
+        };
+
+        private final CompletionHandler<Integer, Void> onWrite = new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer n, Void attachment) {
+                boolean done;
+                synchronized (Copy.this) {
+                    writing = false;
+                    writePosition += n;
+                    if (!buffers[writeIndex].hasRemaining()) {
+                        full[writeIndex] = false;
+                        writeIndex ^= 1;
+                    }
+                    done = advance();
+                }
+                if (done) {
+                    complete();
+                }
+            }
+
+            @Override
+            public void failed(Throwable ex, Void attachment) {
+                boolean done;
+                synchronized (Copy.this) {
+                    writing = false;
+                    fail(ex);
+                    done = advance();
+                }
+                if (done) {
+                    complete();
+                }
+            }
+        };
+
+        Copy(Path src, Path dst, CompletableFuture<CopyResult> result) {
+            this.src = src;
+            this.dst = dst;
+            this.result = result;
+        }
+
+        void start() {
+            boolean done;
+            synchronized (this) {
+                if (result.isDone()) {
+                    //排队时已经被取消：不打开通道，否则TRUNCATE_EXISTING会清空目标文件
+                    finished = true;
+                    done = true;
+                }
+                else {
+                    done = open();
+                }
+            }
+            if (done) {
+                complete();
+            }
+        }
+
+         /**
+           * 打开通道、取得缓冲区，然后发起第一次读写
+           * @return 是否已经结束，同advance
+           **/
+        private boolean open() {
+            try {
+                in = AsynchronousFileChannel.open(src, READ, executor);
+                out = AsynchronousFileChannel.open(dst, WRITE, executor);
+                size = in.size();
+                buffers[0] = DirectBufferPool.acquire();
+                buffers[1] = DirectBufferPool.acquire();
+            }
+            catch (IOException | RuntimeException ex) {
+                fail(ex);
+            }
+            return advance();
+        }
+
+        private void fail(Throwable ex) {
+            if (failure == null) {
+                failure = ex;
+            }
+            else if (failure != ex) {
+                failure.addSuppressed(ex);
+            }
+        }
+
+         /**
+           * 发起下一次读和写；出错、被取消或者全部写完，并且没有在进行的I/O时关闭通道、归还缓冲区
+           * @return 是否刚刚结束，结束时由调用者在锁外调用complete
+           **/
+        private boolean advance() {
+            if (finished) {
+                return false;
+            }
+            boolean stopping = failure != null || result.isDone();
+            if (!stopping) {
+                try {
+                    if (!writing && full[writeIndex]) {
+                        writing = true;
+                        out.write(buffers[writeIndex], writePosition, null, onWrite);
+                    }
+                    if (!reading && !full[readIndex] && readPosition < size) {
+                        ByteBuffer buffer = buffers[readIndex];
+                        buffer.clear();
+                        buffer.limit((int) Math.min(buffer.capacity(), size - readPosition));
+                        reading = true;
+                        in.read(buffer, readPosition, null, onRead);
+                    }
+                }
+                catch (RuntimeException ex) {
+                    //比如executor已经关闭
+                    fail(ex);
+                    stopping = true;
+                }
+            }
+            if ((stopping || writePosition == size) && !reading && !writing) {
+                finish();
+                return true;
+            }
+            return false;
+        }
+
+        private void finish() {
+            finished = true;
+            for (AsynchronousFileChannel channel : new AsynchronousFileChannel[]{in, out}) {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    }
+                    catch (IOException ex) {
+                        fail(ex);
+                    }
+                }
+            }
+            for (ByteBuffer buffer : buffers) {
+                if (buffer != null) {
+                    DirectBufferPool.release(buffer);
+                }
+            }
+        }
+
+         /**
+           * 在锁外完成CompletableFuture，依赖它的回调不会在持有锁的情况下执行
+           **/
+        //先释放名额再通知调用者，join返回时activeCopies已经不包含这个复制
+        private void complete() {
+            release();
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            }
+            else {
+                result.complete(new CopyResult(writePosition, System.nanoTime() - startNanos, false));
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, "async-copy-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
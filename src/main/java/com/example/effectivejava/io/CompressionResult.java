@@ -0,0 +1,50 @@
+package com.example.effectivejava.io;
+
+/**
+ * 一次压缩或解压的结果，不可变
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class CompressionResult {
+    private final long inputBytes;
+    private final long outputBytes;
+    private final long elapsedNanos;
+
+    public CompressionResult(long inputBytes, long outputBytes, long elapsedNanos) {
+        this.inputBytes = inputBytes;
+        this.outputBytes = outputBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getInputBytes() {
+        return inputBytes;
+    }
+
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+     /**
+       * 压缩比：输入字节数/输出字节数，输出为空时返回0
+       **/
+    public double ratio() {
+        return outputBytes == 0 ? 0 : (double) inputBytes / outputBytes;
+    }
+
+     /**
+       * 按输入字节数计算的吞吐量
+       **/
+    public double megabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : inputBytes / (1024.0 * 1024.0) * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompressionResult{in=%d, out=%d, ratio=%.2f, elapsed=%.3fms, %.1fMB/s}", inputBytes, outputBytes,
+                ratio(), elapsedNanos / 1e6, megabytesPerSecond());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.effectivejava.io;
+
+/**
+ * 一次复制的结果，不可变
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class CopyResult {
+    private final long bytes;
+    private final long elapsedNanos;
+    private final boolean zeroCopy;
+
+    public CopyResult(long bytes, long elapsedNanos, boolean zeroCopy) {
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+        this.zeroCopy = zeroCopy;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+     /**
+       * 是否全部通过FileChannel.transferTo完成，数据没有经过用户态的缓冲区
+       **/
+    public boolean isZeroCopy() {
+        return zeroCopy;
+    }
+
+    public double megabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytes / (1024.0 * 1024.0) * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CopyResult{bytes=%d, elapsed=%.3fms, %.1fMB/s%s}", bytes, elapsedNanos / 1e6,
+                megabytesPerSecond(), zeroCopy ? ", zero-copy" : "");
+    }
+}
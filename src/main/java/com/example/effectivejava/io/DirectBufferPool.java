@@ -0,0 +1,44 @@
+package com.example.effectivejava.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 复制用的直接缓冲区池
+ * 直接缓冲区读写文件时不需要再拷贝到JVM内部的临时缓冲区，但分配和回收都很慢，所以复用（《effective java》-6：避免创建不必要的对象）
+ * 池中最多保留MAX_POOLED个，多出来的归还时直接丢弃，交给GC回收
+ * @author Don
+ * @date 2026/10/18.
+ */
+final class DirectBufferPool {
+    private DirectBufferPool(){throw new AssertionError("不可被构造");}
+
+    static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_POOLED = 16;
+
+    private static final ConcurrentLinkedQueue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+     /**
+       * 取一个已clear的BUFFER_SIZE大小的直接缓冲区，用完必须release
+       **/
+    static ByteBuffer acquire() {
+        ByteBuffer buffer = POOL.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        POOLED.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    static void release(ByteBuffer buffer) {
+        if (POOLED.incrementAndGet() <= MAX_POOLED) {
+            POOL.offer(buffer);
+        }
+        else {
+            POOLED.decrementAndGet();
+        }
+    }
+}
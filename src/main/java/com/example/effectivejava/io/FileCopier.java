@@ -0,0 +1,123 @@
+package com.example.effectivejava.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于FileChannel的文件复制，TryResourceProcessor里1KB byte[]循环的替代
+ * 1、文件到文件用transferTo，Linux上是sendfile/copy_file_range，数据不经过用户态（零拷贝）
+ * 2、transferTo一次可能只传输一部分（单次最多约2GB），所以循环直到传完，支持任意大小的文件
+ * 3、transferTo没有进展时（比如源文件被截断，或者平台不支持），改用池化的1MB直接缓冲区读写剩下的部分
+ * 4、从InputStream复制到文件用transferFrom，省掉自己写读写循环，但数据仍然经过用户态的缓冲区
+ * 返回复制的字节数和耗时；异常直接抛出，不像TryResourceProcessor那样吞掉
+ * 复制的是开始时源文件的大小，复制过程中追加的内容不会被复制
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class FileCopier {
+    private FileCopier(){throw new AssertionError("不可被构造");}
+
+    //单次transferTo请求的最大字节数
+    static final long MAX_TRANSFER = Integer.MAX_VALUE;
+
+     /**
+       * 复制文件，目标文件已存在时覆盖
+       **/
+    public static CopyResult copy(Path src, Path dst) throws IOException {
+        try (FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(dst, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            return copy(in, out, MAX_TRANSFER);
+        }
+    }
+
+     /**
+       * 不使用transferTo，只用池化的直接缓冲区复制，用于对比或者明确不想用零拷贝的场合
+       **/
+    public static CopyResult copyBuffered(Path src, Path dst) throws IOException {
+        try (FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(dst, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long start = System.nanoTime();
+            long bytes = copyBuffered(in, out, 0, in.size());
+            return new CopyResult(bytes, System.nanoTime() - start, false);
+        }
+    }
+
+     /**
+       * 把InputStream读到结束并写入文件，目标文件已存在时覆盖；不关闭InputStream
+       **/
+    public static CopyResult copy(InputStream in, Path dst) throws IOException {
+        ReadableByteChannel src = Channels.newChannel(in);
+        try (FileChannel out = FileChannel.open(dst, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long start = System.nanoTime();
+            long position = 0;
+            long n;
+            //阻塞的通道只有读到结束时transferFrom才返回0
+            while ((n = out.transferFrom(src, position, MAX_TRANSFER)) > 0) {
+                position += n;
+            }
+            return new CopyResult(position, System.nanoTime() - start, false);
+        }
+    }
+
+     /**
+       * 从src的0位置复制到dst的当前位置
+       * @param maxTransfer 单次transferTo请求的最大字节数
+       **/
+    static CopyResult copy(FileChannel src, FileChannel dst, long maxTransfer) throws IOException {
+        long start = System.nanoTime();
+        long size = src.size();
+        long position = 0;
+        while (position < size) {
+            long n = src.transferTo(position, Math.min(size - position, maxTransfer), dst);
+            if (n <= 0) {
+                break;
+            }
+            position += n;
+        }
+        boolean zeroCopy = position == size;
+        if (!zeroCopy) {
+            position += copyBuffered(src, dst, position, size);
+        }
+        return new CopyResult(position, System.nanoTime() - start, zeroCopy);
+    }
+
+     /**
+       * 把src中[position, end)的内容写到dst的当前位置，源文件提前结束时停止
+       * @return 复制的字节数
+       **/
+    static long copyBuffered(FileChannel src, FileChannel dst, long position, long end) throws IOException {
+        ByteBuffer buffer = DirectBufferPool.acquire();
+        try {
+            long copied = 0;
+            while (position + copied < end) {
+                buffer.clear();
+                long remaining = end - position - copied;
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                int n = src.read(buffer, position + copied);
+                if (n < 0) {
+                    break;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    dst.write(buffer);
+                }
+                copied += n;
+            }
+            return copied;
+        }
+        finally {
+            DirectBufferPool.release(buffer);
+        }
+    }
+}
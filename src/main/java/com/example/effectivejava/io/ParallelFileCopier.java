@@ -0,0 +1,265 @@
+package com.example.effectivejava.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 大文件的并行分块复制：单个流即使是零拷贝也用不满NVMe的带宽，多个区域同时复制可以让设备的队列更深
+ * 1、先把目标文件设置成源文件的大小，再按regionSize（4KB的整数倍）把源文件切成对齐的区域
+ * 2、parallelism个工作线程依次领取下一个区域，线程数是固定的，不会因为文件大而无限增加
+ * 3、每个区域的复制方式见Strategy；默认TRANSFER，每个线程用自己的目标通道，在各自的位置上transferTo
+ * 4、每复制完一个区域调用一次ProgressListener
+ * 5、force为true时，全部复制完后调用FileChannel.force把数据和元数据刷到磁盘
+ * 任何一个区域失败时其余线程尽快停止，抛出第一个异常，后面的异常作为suppressed附在上面；目标文件的内容此时是不完整的
+ * 参数较多，用构建者创建（《effective java》-2）；创建好的ParallelFileCopier是不可变的，可以在多个线程中复用
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class ParallelFileCopier {
+
+     /**
+       * 区域的复制方式
+       * TRANSFER：FileChannel.transferTo，零拷贝；没有进展时改用直接缓冲区
+       * MAPPED：把源文件的区域映射到内存，再按位置写入目标文件；Java 8没有公开的unmap，映射在GC时才释放
+       * POSITIONAL：用池化的直接缓冲区按位置读写
+       **/
+    public enum Strategy { TRANSFER, MAPPED, POSITIONAL }
+
+     /**
+       * 进度回调，在工作线程中调用，必须是线程安全的
+       * 多个线程几乎同时完成时，调用的先后顺序可能和copied的大小顺序不一致
+       **/
+    @FunctionalInterface
+    public interface ProgressListener {
+        void progress(long copied, long total);
+    }
+
+    //区域大小必须是这个值的整数倍，和页大小对齐
+    static final int ALIGNMENT = 4096;
+    //一次映射最多Integer.MAX_VALUE字节
+    private static final int MAX_REGION_SIZE = 1 << 30;
+
+    private final int parallelism;
+    private final int regionSize;
+    private final boolean force;
+    private final Strategy strategy;
+    private final ProgressListener listener;
+
+    public static class Builder {
+        // Optional parameters - initialized to default values
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int regionSize = 64 << 20;
+        private boolean force = false;
+        private Strategy strategy = Strategy.TRANSFER;
+        private ProgressListener listener = (copied, total) -> { };
+
+        public Builder parallelism(int val){
+            if (val <= 0) {
+                throw new IllegalArgumentException("parallelism must be positive: " + val);
+            }
+            parallelism = val; return this;
+        }
+         /**
+           * @param val 区域大小，必须是4096的正整数倍，最大1GB
+           **/
+        public Builder regionSize(int val){
+            if (val <= 0 || val % ALIGNMENT != 0 || val > MAX_REGION_SIZE) {
+                throw new IllegalArgumentException("regionSize must be a positive multiple of " + ALIGNMENT
+                        + " up to " + MAX_REGION_SIZE + ": " + val);
+            }
+            regionSize = val; return this;
+        }
+        public Builder force(boolean val){
+            force = val; return this;
+        }
+        public Builder strategy(Strategy val){
+            strategy = Objects.requireNonNull(val); return this;
+        }
+        public Builder progress(ProgressListener val){
+            listener = Objects.requireNonNull(val); return this;
+        }
+        public ParallelFileCopier build() {
+            return new ParallelFileCopier(this);
+        }
+    }
+
+    private ParallelFileCopier(Builder builder) {
+        parallelism = builder.parallelism;
+        regionSize = builder.regionSize;
+        force = builder.force;
+        strategy = builder.strategy;
+        listener = builder.listener;
+    }
+
+     /**
+       * 复制文件，目标文件已存在时覆盖
+       * @throws InterruptedIOException 等待复制完成时线程被中断
+       **/
+    public CopyResult copy(Path src, Path dst) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+             RandomAccessFile file = new RandomAccessFile(dst.toFile(), "rw")) {
+            long size = in.size();
+            //预先设置好大小，各个区域写入时不需要再扩展文件
+            file.setLength(size);
+            FileChannel out = file.getChannel();
+            long regions = (size + regionSize - 1) / regionSize;
+            AtomicBoolean fallback = new AtomicBoolean();
+            if (regions > 0) {
+                copyRegions(in, dst, out, size, regions, fallback);
+            }
+            if (force) {
+                out.force(true);
+            }
+            return new CopyResult(size, System.nanoTime() - start, strategy == Strategy.TRANSFER && !fallback.get());
+        }
+    }
+
+    private void copyRegions(FileChannel in, Path dst, FileChannel out, long size, long regions, AtomicBoolean fallback)
+            throws IOException {
+        int threads = (int) Math.min(parallelism, regions);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, daemonThreads());
+        AtomicLong nextRegion = new AtomicLong();
+        AtomicLong copied = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<?>> workers = new ArrayList<>(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    //TRANSFER时每个线程一个自己的目标通道，transferTo写在通道的当前位置上，不能共用
+                    try (FileChannel target = strategy == Strategy.TRANSFER ? FileChannel.open(dst, StandardOpenOption.WRITE) : null) {
+                        long region;
+                        while (!failed.get() && (region = nextRegion.getAndIncrement()) < regions) {
+                            long position = region * regionSize;
+                            long length = Math.min(regionSize, size - position);
+                            copyRegion(in, target != null ? target : out, position, length, fallback);
+                            listener.progress(copied.addAndGet(length), size);
+                        }
+                    }
+                    catch (IOException | RuntimeException ex) {
+                        failed.set(true);
+                        throw ex;
+                    }
+                    return null;
+                }));
+            }
+            awaitAll(workers);
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void copyRegion(FileChannel in, FileChannel out, long position, long length, AtomicBoolean fallback)
+            throws IOException {
+        switch (strategy) {
+            case TRANSFER: {
+                out.position(position);
+                long done = 0;
+                while (done < length) {
+                    long n = in.transferTo(position + done, length - done, out);
+                    if (n <= 0) {
+                        fallback.set(true);
+                        if (FileCopier.copyBuffered(in, out, position + done, position + length) < length - done) {
+                            throw new IOException("source truncated during copy at " + (position + done));
+                        }
+                        break;
+                    }
+                    done += n;
+                }
+                break;
+            }
+            case MAPPED: {
+                MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+                writeFully(out, mapped, position);
+                break;
+            }
+            default: {
+                ByteBuffer buffer = DirectBufferPool.acquire();
+                try {
+                    for (long done = 0; done < length; ) {
+                        buffer.clear();
+                        buffer.limit((int) Math.min(buffer.capacity(), length - done));
+                        int n = in.read(buffer, position + done);
+                        if (n < 0) {
+                            throw new IOException("source truncated during copy at " + (position + done));
+                        }
+                        buffer.flip();
+                        writeFully(out, buffer, position + done);
+                        done += n;
+                    }
+                }
+                finally {
+                    DirectBufferPool.release(buffer);
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += out.write(buffer, position);
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> workers) throws IOException {
+        IOException failure = null;
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException interrupted = new InterruptedIOException("interrupted while copying");
+                if (failure != null) {
+                    interrupted.addSuppressed(failure);
+                }
+                throw interrupted;
+            }
+            catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (failure == null) {
+                    failure = (IOException) cause;
+                }
+                else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, "parallel-copy-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.effectivejava.io;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * 分块并行的gzip压缩，用于复制压缩率高的日志：I/O比CPU贵时，先压缩再写能减少写入的字节数
+ * 1、输入按blockSize切成互不依赖的块，每块在线程池上独立压缩成一个完整的gzip成员（头、deflate数据、CRC32和长度）
+ * 2、调用线程负责读输入、按顺序写出压缩好的块，同时最多2*parallelism个块在压缩中，读、压缩、写是流水线并行的，内存有上限
+ * 3、输出是标准的多成员gzip（RFC 1952），gzip -d、GZIPInputStream都能解压
+ * 4、decompress逐个成员解压任意多成员的gzip，不依赖InputStream.available()判断后面还有没有成员
+ * 因为每块独立压缩，块之间不共享字典，压缩率比单线程的GZIPOutputStream略低，块越大越接近
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class ParallelGzip {
+    private static final int GZIP_MAGIC = 0x8b1f;
+    //和GZIPOutputStream写的头相同：没有文件名、修改时间为0
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final int BUFFER_SIZE = 64 << 10;
+
+    private final int blockSize;
+    private final int parallelism;
+    private final int level;
+
+    public static class Builder {
+        // Optional parameters - initialized to default values
+        private int blockSize = 1 << 20;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int level = Deflater.DEFAULT_COMPRESSION;
+
+        public Builder blockSize(int val){
+            if (val < 1024) {
+                throw new IllegalArgumentException("blockSize must be at least 1024: " + val);
+            }
+            blockSize = val; return this;
+        }
+        public Builder parallelism(int val){
+            if (val <= 0) {
+                throw new IllegalArgumentException("parallelism must be positive: " + val);
+            }
+            parallelism = val; return this;
+        }
+         /**
+           * 压缩级别，0到9，或者Deflater.DEFAULT_COMPRESSION
+           **/
+        public Builder level(int val){
+            if (val != Deflater.DEFAULT_COMPRESSION && (val < 0 || val > 9)) {
+                throw new IllegalArgumentException("level must be 0-9: " + val);
+            }
+            level = val; return this;
+        }
+        public ParallelGzip build() {
+            return new ParallelGzip(this);
+        }
+    }
+
+    private ParallelGzip(Builder builder) {
+        blockSize = builder.blockSize;
+        parallelism = builder.parallelism;
+        level = builder.level;
+    }
+
+     /**
+       * 压缩文件，目标文件已存在时覆盖
+       **/
+    public CompressionResult compress(Path src, Path dst) throws IOException {
+        try (InputStream in = Files.newInputStream(src);
+             OutputStream out = Files.newOutputStream(dst)) {
+            return compress(in, out);
+        }
+    }
+
+     /**
+       * 把in读到结束，压缩后写入out；不关闭两个流
+       * @throws InterruptedIOException 等待压缩时线程被中断
+       **/
+    public CompressionResult compress(InputStream in, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, daemonThreads());
+        ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        long inputBytes = 0;
+        long outputBytes = 0;
+        try {
+            byte[] block = readBlock(in);
+            if (block == null) {
+                //空输入也写一个空的成员，否则得到的空文件不是合法的gzip
+                block = new byte[0];
+            }
+            do {
+                byte[] data = block;
+                inputBytes += data.length;
+                inFlight.add(pool.submit(() -> compressBlock(data)));
+                if (inFlight.size() >= 2 * parallelism) {
+                    outputBytes += writeNext(inFlight, out);
+                }
+            } while ((block = readBlock(in)) != null);
+            while (!inFlight.isEmpty()) {
+                outputBytes += writeNext(inFlight, out);
+            }
+            out.flush();
+            return new CompressionResult(inputBytes, outputBytes, System.nanoTime() - start);
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+     /**
+       * 解压文件，目标文件已存在时覆盖
+       **/
+    public static CompressionResult decompress(Path src, Path dst) throws IOException {
+        try (InputStream in = Files.newInputStream(src);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(dst), BUFFER_SIZE)) {
+            return decompress(in, out);
+        }
+    }
+
+     /**
+       * 解压单成员或多成员的gzip流，写入out；不关闭两个流
+       * 结果中inputBytes是解压后的字节数，outputBytes是读取的压缩数据的字节数，ratio()仍然是压缩比
+       * @throws ZipException 格式错误、CRC或长度校验失败
+       * @throws EOFException 数据不完整
+       **/
+    public static CompressionResult decompress(InputStream in, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        GzipInput input = new GzipInput(in);
+        Inflater inflater = new Inflater(true);
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        try {
+            int members = 0;
+            //至少要有一个成员；之后读到流结束就停止
+            while (members == 0 || input.peek() >= 0) {
+                input.readHeader();
+                inflater.reset();
+                crc.reset();
+                long memberSize = 0;
+                while (!inflater.finished()) {
+                    if (inflater.needsInput()) {
+                        input.feed(inflater);
+                    }
+                    int n;
+                    try {
+                        n = inflater.inflate(buffer);
+                    }
+                    catch (DataFormatException ex) {
+                        throw new ZipException("invalid deflate data: " + ex.getMessage());
+                    }
+                    if (n == 0 && inflater.needsDictionary()) {
+                        throw new ZipException("deflate data needs a preset dictionary");
+                    }
+                    crc.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                    memberSize += n;
+                }
+                input.unread(inflater.getRemaining());
+                if (input.readIntLE() != (int) crc.getValue()) {
+                    throw new ZipException("corrupt gzip member " + members + ": CRC mismatch");
+                }
+                if (input.readIntLE() != (int) memberSize) {
+                    throw new ZipException("corrupt gzip member " + members + ": size mismatch");
+                }
+                total += memberSize;
+                members++;
+            }
+            out.flush();
+            return new CompressionResult(total, input.consumed(), System.nanoTime() - start);
+        }
+        finally {
+            inflater.end();
+        }
+    }
+
+    private byte[] readBlock(InputStream in) throws IOException {
+        byte[] block = new byte[blockSize];
+        int n = 0;
+        while (n < blockSize) {
+            int r = in.read(block, n, blockSize - n);
+            if (r < 0) {
+                break;
+            }
+            n += r;
+        }
+        if (n == 0) {
+            return null;
+        }
+        return n == blockSize ? block : Arrays.copyOf(block, n);
+    }
+
+     /**
+       * 把一块压缩成一个完整的gzip成员
+       **/
+    private byte[] compressBlock(byte[] data) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            //deflate对不可压缩的数据最多膨胀一点点，大多数情况下不需要扩容
+            byte[] out = new byte[HEADER.length + data.length + (data.length >> 6) + 64];
+            System.arraycopy(HEADER, 0, out, 0, HEADER.length);
+            int length = HEADER.length;
+            while (!deflater.finished()) {
+                if (length == out.length - 8) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                length += deflater.deflate(out, length, out.length - 8 - length);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length);
+            writeIntLE(out, length, (int) crc.getValue());
+            writeIntLE(out, length + 4, data.length);
+            return length + 8 == out.length ? out : Arrays.copyOf(out, length + 8);
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    private static long writeNext(ArrayDeque<Future<byte[]>> inFlight, OutputStream out) throws IOException {
+        byte[] member;
+        try {
+            member = inFlight.poll().get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while compressing");
+        }
+        catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+        out.write(member);
+        return member.length;
+    }
+
+    private static void writeIntLE(byte[] b, int offset, int value) {
+        b[offset] = (byte) value;
+        b[offset + 1] = (byte) (value >>> 8);
+        b[offset + 2] = (byte) (value >>> 16);
+        b[offset + 3] = (byte) (value >>> 24);
+    }
+
+     /**
+       * 带缓冲的gzip输入，Inflater没有用完的字节可以退回来，接着读trailer和下一个成员的头
+       **/
+    private static final class GzipInput {
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private long consumed;
+
+        GzipInput(InputStream in) {
+            this.in = in;
+        }
+
+        long consumed() {
+            return consumed - (limit - position);
+        }
+
+        int peek() throws IOException {
+            return fill() ? buffer[position] & 0xff : -1;
+        }
+
+        int read() throws IOException {
+            if (!fill()) {
+                throw new EOFException("unexpected end of gzip stream");
+            }
+            return buffer[position++] & 0xff;
+        }
+
+        int readShortLE() throws IOException {
+            return read() | read() << 8;
+        }
+
+        int readIntLE() throws IOException {
+            return readShortLE() | readShortLE() << 16;
+        }
+
+        void skip(int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                read();
+            }
+        }
+
+        void readHeader() throws IOException {
+            if (readShortLE() != GZIP_MAGIC) {
+                throw new ZipException("not in gzip format");
+            }
+            if (read() != Deflater.DEFLATED) {
+                throw new ZipException("unsupported compression method");
+            }
+            int flags = read();
+            //修改时间、XFL、OS
+            skip(6);
+            if ((flags & FEXTRA) != 0) {
+                skip(readShortLE());
+            }
+            if ((flags & FNAME) != 0) {
+                while (read() != 0) {
+                    //跳过以0结尾的文件名
+                }
+            }
+            if ((flags & FCOMMENT) != 0) {
+                while (read() != 0) {
+                    //跳过以0结尾的注释
+                }
+            }
+            if ((flags & FHCRC) != 0) {
+                skip(2);
+            }
+        }
+
+         /**
+           * 把缓冲区中剩下的字节全部交给inflater
+           **/
+        void feed(Inflater inflater) throws IOException {
+            if (!fill()) {
+                throw new EOFException("unexpected end of gzip stream");
+            }
+            inflater.setInput(buffer, position, limit - position);
+            position = limit;
+        }
+
+         /**
+           * 退回inflater没有用到的最后n个字节
+           **/
+        void unread(int n) {
+            position -= n;
+        }
+
+        private boolean fill() throws IOException {
+            if (position < limit) {
+                return true;
+            }
+            int n = in.read(buffer);
+            while (n == 0) {
+                n = in.read(buffer);
+            }
+            if (n < 0) {
+                return false;
+            }
+            position = 0;
+            limit = n;
+            consumed += n;
+            return true;
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, "parallel-gzip-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.effectivejava.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 增量的目录树复制，用来同步有几十万个小文件的目录
+ * 1、用Files.walkFileTree在单独的线程中遍历源目录，遍历时创建目标目录，文件交给ForkJoinPool（工作窃取、线程数固定）复制
+ * 2、小文件攒成一批（batchFiles个或batchBytes字节）作为一个任务，避免每个文件一个任务的调度开销盖过复制本身；
+ *    不小于batchBytes的文件单独一个任务，用FileCopier.copy零拷贝复制
+ * 3、目标文件已存在时按ChangeDetection判断是否需要复制；复制后把目标文件的修改时间设成和源文件相同，下次运行时才能跳过
+ * 4、start返回CompletableFuture，cancel后遍历和复制都会尽快停止，已经复制的文件保留
+ * 5、结果中有复制、跳过的文件数和字节数，可以算出files/s和MB/s
+ * 只复制普通文件和目录，符号链接不跟随也不复制；任何一个文件失败时整个复制以该异常结束，其余任务尽快停止
+ * 目标树里和源文件、源目录同名的符号链接会被删除后再复制，不会跟随链接写到目标树之外
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class TreeCopier {
+
+     /**
+       * 判断目标文件是否需要重新复制
+       * SIZE_AND_MTIME：大小和修改时间都相同就跳过，只需要读元数据
+       * CONTENT_HASH：大小相同时再比较两个文件内容的SHA-256，适合修改时间不可靠的场合，但要把两边都读一遍
+       **/
+    public enum ChangeDetection { SIZE_AND_MTIME, CONTENT_HASH }
+
+    private final int parallelism;
+    private final int batchFiles;
+    private final long batchBytes;
+    private final ChangeDetection changeDetection;
+    //启动过、线程还没有全部退出的复制
+    private final Set<Job> jobs = ConcurrentHashMap.newKeySet();
+
+    public static class Builder {
+        // Optional parameters - initialized to default values
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int batchFiles = 64;
+        private long batchBytes = 1 << 20;
+        private ChangeDetection changeDetection = ChangeDetection.SIZE_AND_MTIME;
+
+        public Builder parallelism(int val){
+            if (val <= 0) {
+                throw new IllegalArgumentException("parallelism must be positive: " + val);
+            }
+            parallelism = val; return this;
+        }
+         /**
+           * 一批最多多少个文件
+           **/
+        public Builder batchFiles(int val){
+            if (val <= 0) {
+                throw new IllegalArgumentException("batchFiles must be positive: " + val);
+            }
+            batchFiles = val; return this;
+        }
+         /**
+           * 一批最多多少字节；不小于这个值的文件不参与批处理
+           **/
+        public Builder batchBytes(long val){
+            if (val <= 0) {
+                throw new IllegalArgumentException("batchBytes must be positive: " + val);
+            }
+            batchBytes = val; return this;
+        }
+        public Builder changeDetection(ChangeDetection val){
+            changeDetection = Objects.requireNonNull(val); return this;
+        }
+        public TreeCopier build() {
+            return new TreeCopier(this);
+        }
+    }
+
+    private TreeCopier(Builder builder) {
+        parallelism = builder.parallelism;
+        batchFiles = builder.batchFiles;
+        batchBytes = builder.batchBytes;
+        changeDetection = builder.changeDetection;
+    }
+
+     /**
+       * 开始把source目录下的内容复制到target目录下，target不存在时创建
+       * 返回的CompletableFuture调用cancel后，复制尽快停止；失败时以IOException异常结束
+       **/
+    public CompletableFuture<TreeCopyResult> start(Path source, Path target) {
+        jobs.removeIf(Job::isTerminated);
+        Job job = new Job(source, target);
+        jobs.add(job);
+        job.walker.start();
+        return job.result;
+    }
+
+     /**
+       * 等待这个TreeCopier启动的所有复制结束，并且遍历线程和复制任务都已退出
+       * 返回的CompletableFuture被cancel后立即结束，但正在复制的文件要等当前的读写完成才会停下，
+       * 取消后要删除或检查目标目录时，先调用这个方法
+       * @return 超时前全部退出返回true
+       **/
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Job job : jobs) {
+            if (!job.awaitTermination(deadline - System.nanoTime())) {
+                return false;
+            }
+            jobs.remove(job);
+        }
+        return true;
+    }
+
+     /**
+       * 同步复制，等待完成
+       * @throws InterruptedIOException 等待时线程被中断，此时复制会被取消
+       **/
+    public TreeCopyResult copy(Path source, Path target) throws IOException {
+        CompletableFuture<TreeCopyResult> result = start(source, target);
+        try {
+            return result.get();
+        }
+        catch (InterruptedException ex) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while copying " + source);
+        }
+        catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+     /**
+       * 一次复制的状态；pending是还没有结束的任务数，遍历本身也算一个，减到0时复制完成
+       **/
+    private final class Job {
+        private final Path source;
+        private final Path target;
+        private final long start = System.nanoTime();
+        private final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        private final Thread walker = new Thread(this::walk, "tree-copy-walker");
+        private final CompletableFuture<TreeCopyResult> result = new CompletableFuture<>();
+        private final AtomicLong pending = new AtomicLong(1);
+        private final LongAdder filesCopied = new LongAdder();
+        private final LongAdder filesSkipped = new LongAdder();
+        private final LongAdder bytesCopied = new LongAdder();
+        private final LongAdder directories = new LongAdder();
+        private List<Path> batch = new ArrayList<>();
+        private long batchSize;
+
+        Job(Path source, Path target) {
+            this.source = source;
+            this.target = target;
+            walker.setDaemon(true);
+            //结束（包括取消或失败）后不再执行排队的任务
+            result.whenComplete((r, ex) -> pool.shutdownNow());
+        }
+
+        boolean isTerminated() {
+            return !walker.isAlive() && pool.isTerminated();
+        }
+
+        boolean awaitTermination(long nanos) throws InterruptedException {
+            long deadline = System.nanoTime() + nanos;
+            //join(0)表示一直等待，剩余时间不足1毫秒时按1毫秒等
+            walker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos)));
+            return !walker.isAlive() && pool.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        void walk() {
+            try {
+                if (!Files.isDirectory(source)) {
+                    throw Files.exists(source) ? new NotDirectoryException(source.toString()) : new NoSuchFileException(source.toString());
+                }
+                Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                        if (result.isDone()) {
+                            return FileVisitResult.TERMINATE;
+                        }
+                        Path dstDir = target.resolve(source.relativize(dir).toString());
+                        //指向别处的目录链接会让下面的文件都写到目标树之外；target本身是调用者指定的，不处理
+                        if (!dir.equals(source) && Files.isSymbolicLink(dstDir)) {
+                            Files.delete(dstDir);
+                        }
+                        Files.createDirectories(dstDir);
+                        directories.increment();
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (result.isDone()) {
+                            return FileVisitResult.TERMINATE;
+                        }
+                        if (attrs.isRegularFile()) {
+                            if (attrs.size() >= batchBytes) {
+                                submit(Collections.singletonList(file));
+                            }
+                            else {
+                                batch.add(file);
+                                batchSize += attrs.size();
+                                if (batch.size() >= batchFiles || batchSize >= batchBytes) {
+                                    flush();
+                                }
+                            }
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+                flush();
+                finish();
+            }
+            catch (IOException | RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                submit(batch);
+                batch = new ArrayList<>();
+                batchSize = 0;
+            }
+        }
+
+        private void submit(List<Path> files) {
+            pending.incrementAndGet();
+            try {
+                pool.execute(() -> {
+                    try {
+                        for (Path file : files) {
+                            if (result.isDone()) {
+                                break;
+                            }
+                            copyIfChanged(file, target.resolve(source.relativize(file).toString()));
+                        }
+                        finish();
+                    }
+                    catch (IOException | RuntimeException ex) {
+                        result.completeExceptionally(ex);
+                    }
+                });
+            }
+            catch (RejectedExecutionException ex) {
+                //已经取消或失败，线程池被关闭
+                if (!result.isDone()) {
+                    throw ex;
+                }
+            }
+        }
+
+        private void finish() {
+            if (pending.decrementAndGet() == 0) {
+                result.complete(new TreeCopyResult(filesCopied.sum(), filesSkipped.sum(), bytesCopied.sum(),
+                        directories.sum(), System.nanoTime() - start));
+            }
+        }
+
+        private void copyIfChanged(Path src, Path dst) throws IOException {
+            BasicFileAttributes srcAttrs = Files.readAttributes(src, BasicFileAttributes.class);
+            BasicFileAttributes dstAttrs;
+            try {
+                dstAttrs = Files.readAttributes(dst, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            }
+            catch (NoSuchFileException ex) {
+                dstAttrs = null;
+            }
+            if (dstAttrs != null && !dstAttrs.isRegularFile()) {
+                //符号链接等：按路径打开会跟随链接，覆盖目标树之外的文件，先删掉链接本身
+                Files.deleteIfExists(dst);
+            }
+            else if (dstAttrs != null && unchanged(src, srcAttrs, dst, dstAttrs)) {
+                filesSkipped.increment();
+                return;
+            }
+            CopyResult copied;
+            //NOFOLLOW_LINKS：删除之后又有人创建了同名链接时打开失败，而不是跟随它
+            try (FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(dst, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, LinkOption.NOFOLLOW_LINKS)) {
+                copied = FileCopier.copy(in, out, FileCopier.MAX_TRANSFER);
+            }
+            Files.getFileAttributeView(dst, BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS)
+                    .setTimes(srcAttrs.lastModifiedTime(), null, null);
+            filesCopied.increment();
+            bytesCopied.add(copied.getBytes());
+        }
+
+        private boolean unchanged(Path src, BasicFileAttributes srcAttrs, Path dst, BasicFileAttributes dstAttrs) throws IOException {
+            if (dstAttrs.size() != srcAttrs.size()) {
+                return false;
+            }
+            if (changeDetection == ChangeDetection.SIZE_AND_MTIME) {
+                return dstAttrs.lastModifiedTime().equals(srcAttrs.lastModifiedTime());
+            }
+            return Arrays.equals(sha256(src), sha256(dst));
+        }
+    }
+
+    static byte[] sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException ex) {
+            //每个Java平台都必须支持SHA-256
+            throw new AssertionError(ex);
+        }
+        ByteBuffer buffer = DirectBufferPool.acquire();
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return digest.digest();
+        }
+        finally {
+            DirectBufferPool.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.effectivejava.io;
+
+/**
+ * 一次目录树复制的结果，不可变
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class TreeCopyResult {
+    private final long filesCopied;
+    private final long filesSkipped;
+    private final long bytesCopied;
+    private final long directories;
+    private final long elapsedNanos;
+
+    public TreeCopyResult(long filesCopied, long filesSkipped, long bytesCopied, long directories, long elapsedNanos) {
+        this.filesCopied = filesCopied;
+        this.filesSkipped = filesSkipped;
+        this.bytesCopied = bytesCopied;
+        this.directories = directories;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getFilesCopied() {
+        return filesCopied;
+    }
+
+     /**
+       * 判断为没有变化、因此没有复制的文件数
+       **/
+    public long getFilesSkipped() {
+        return filesSkipped;
+    }
+
+    public long getBytesCopied() {
+        return bytesCopied;
+    }
+
+    public long getDirectories() {
+        return directories;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+     /**
+       * 每秒处理（复制或跳过）的文件数
+       **/
+    public double filesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (filesCopied + filesSkipped) * 1e9 / elapsedNanos;
+    }
+
+    public double megabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytesCopied / (1024.0 * 1024.0) * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TreeCopyResult{copied=%d, skipped=%d, bytes=%d, directories=%d, elapsed=%.3fms, %.0f files/s, %.1fMB/s}",
+                filesCopied, filesSkipped, bytesCopied, directories, elapsedNanos / 1e6, filesPerSecond(), megabytesPerSecond());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.effectivejava.math;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+
+/**
+ * 补偿求和（Kahan-Babuška-Neumaier）：在sum之外再维护一个补偿项，记录每次加法被舍入掉的低位
+ * 1、误差上界与元素个数基本无关，普通的double累加误差则随个数线性增长
+ * 2、比Kahan算法多一次比较：新加的数比当前和还大时也能正确补偿，[1e100, 1.0, -1e100]的和是1.0而不是0
+ * 3、merge把另一边的sum和补偿项都当作普通的数加进来，并行流里各分片的补偿项不会丢失：
+ *    doubleStream.collect(CompensatedSum::new, CompensatedSum::accept, CompensatedSum::merge)
+ *    或者直接用CompensatedSum.sum(doubleStream)、CompensatedSum.summing(mapper)
+ * 只是让double的和更接近精确值，并不能让0.1这样的数变得可以精确表示，货币计算仍然应该用Money或BigDecimal（《effective java》-60）
+ * 非线程安全
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class CompensatedSum implements DoubleConsumer {
+    private double sum;
+    private double compensation;
+    //不做补偿的和，只用于出现无穷大时给出正确的结果（此时补偿项会变成NaN）
+    private double simpleSum;
+    private long count;
+
+    public CompensatedSum() {
+    }
+
+    public CompensatedSum(double initial) {
+        accept(initial);
+    }
+
+     /**
+       * 对流求和，并行流也可以
+       **/
+    public static double sum(DoubleStream values) {
+        return values.collect(CompensatedSum::new, CompensatedSum::accept, CompensatedSum::merge).sum();
+    }
+
+    public static double sum(double[] values) {
+        CompensatedSum s = new CompensatedSum();
+        for (double v : values) {
+            s.accept(v);
+        }
+        return s.sum();
+    }
+
+     /**
+       * 相当于Collectors.summingDouble，但使用补偿求和，且合并时保留补偿项
+       **/
+    public static <T> Collector<T, CompensatedSum, Double> summing(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(CompensatedSum::new, (s, t) -> s.accept(mapper.applyAsDouble(t)),
+                CompensatedSum::merge, CompensatedSum::sum);
+    }
+
+    @Override
+    public void accept(double value) {
+        add(value);
+        simpleSum += value;
+        count++;
+    }
+
+     /**
+       * 把other合并进来，other不变
+       **/
+    public CompensatedSum merge(CompensatedSum other) {
+        add(other.sum);
+        add(other.compensation);
+        simpleSum += other.simpleSum;
+        count += other.count;
+        return this;
+    }
+
+    public double sum() {
+        double result = sum + compensation;
+        if (result != result && Double.isInfinite(simpleSum)) {
+            //inf - inf产生的NaN，用不补偿的和给出正确的无穷大
+            return simpleSum;
+        }
+        return result;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double average() {
+        return count == 0 ? Double.NaN : sum() / count;
+    }
+
+    public void reset() {
+        sum = 0;
+        compensation = 0;
+        simpleSum = 0;
+        count = 0;
+    }
+
+    private void add(double value) {
+        double t = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - t) + value;
+        }
+        else {
+            compensation += (value - t) + sum;
+        }
+        sum = t;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{count=" + count + ", sum=" + sum() + "}";
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.effectivejava.math;
+
+import com.example.effectivejava.Complex;
+
+import java.util.Arrays;
+
+/**
+ * 复数数组，用两个平行的double[]分别存实部和虚部（structure of arrays）
+ * Complex是不可变的值类型（《effective java》-17），每次运算都会新建对象，对上百万个采样做运算时主要开销在年轻代GC上
+ * 这里的逐元素运算不分配对象，循环足够简单，可以被JIT自动向量化；和Complex之间的转换只在输入输出的边界做
+ * 每个运算都有两种形式：返回新数组的，以及写入dst的（dst可以就是this或参数本身，即原地运算）
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class ComplexArray {
+    final double[] re;
+    final double[] im;
+
+    public ComplexArray(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must not be negative: " + length);
+        }
+        re = new double[length];
+        im = new double[length];
+    }
+
+     /**
+       * 拷贝两个数组的内容
+       * @throws IllegalArgumentException 两个数组长度不同
+       **/
+    public ComplexArray(double[] re, double[] im) {
+        if (re.length != im.length) {
+            throw new IllegalArgumentException("length mismatch: " + re.length + " != " + im.length);
+        }
+        this.re = re.clone();
+        this.im = im.clone();
+    }
+
+    public static ComplexArray of(Complex... values) {
+        ComplexArray result = new ComplexArray(values.length);
+        for (int i = 0; i < values.length; i++) {
+            result.re[i] = values[i].realPart();
+            result.im[i] = values[i].imaginaryPart();
+        }
+        return result;
+    }
+
+    public int length() {
+        return re.length;
+    }
+
+    public double realPart(int i) {
+        return re[i];
+    }
+
+    public double imaginaryPart(int i) {
+        return im[i];
+    }
+
+    public Complex get(int i) {
+        return new Complex(re[i], im[i]);
+    }
+
+    public void set(int i, double real, double imaginary) {
+        re[i] = real;
+        im[i] = imaginary;
+    }
+
+    public void set(int i, Complex c) {
+        set(i, c.realPart(), c.imaginaryPart());
+    }
+
+    public Complex[] toComplexArray() {
+        Complex[] result = new Complex[re.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new Complex(re[i], im[i]);
+        }
+        return result;
+    }
+
+     /**
+       * 实部的拷贝
+       **/
+    public double[] realParts() {
+        return re.clone();
+    }
+
+     /**
+       * 虚部的拷贝
+       **/
+    public double[] imaginaryParts() {
+        return im.clone();
+    }
+
+    public ComplexArray copy() {
+        return new ComplexArray(re, im);
+    }
+
+    public ComplexArray plus(ComplexArray c) {
+        return plus(c, new ComplexArray(re.length));
+    }
+
+    public ComplexArray plus(ComplexArray c, ComplexArray dst) {
+        checkLength(c, dst);
+        double[] ar = re, ai = im, br = c.re, bi = c.im, dr = dst.re, di = dst.im;
+        for (int i = 0; i < ar.length; i++) {
+            dr[i] = ar[i] + br[i];
+            di[i] = ai[i] + bi[i];
+        }
+        return dst;
+    }
+
+    public ComplexArray minus(ComplexArray c) {
+        return minus(c, new ComplexArray(re.length));
+    }
+
+    public ComplexArray minus(ComplexArray c, ComplexArray dst) {
+        checkLength(c, dst);
+        double[] ar = re, ai = im, br = c.re, bi = c.im, dr = dst.re, di = dst.im;
+        for (int i = 0; i < ar.length; i++) {
+            dr[i] = ar[i] - br[i];
+            di[i] = ai[i] - bi[i];
+        }
+        return dst;
+    }
+
+    public ComplexArray times(ComplexArray c) {
+        return times(c, new ComplexArray(re.length));
+    }
+
+    public ComplexArray times(ComplexArray c, ComplexArray dst) {
+        checkLength(c, dst);
+        double[] ar = re, ai = im, br = c.re, bi = c.im, dr = dst.re, di = dst.im;
+        for (int i = 0; i < ar.length; i++) {
+            double r = ar[i] * br[i] - ai[i] * bi[i];
+            double m = ar[i] * bi[i] + ai[i] * br[i];
+            dr[i] = r;
+            di[i] = m;
+        }
+        return dst;
+    }
+
+    public ComplexArray dividedBy(ComplexArray c) {
+        return dividedBy(c, new ComplexArray(re.length));
+    }
+
+     /**
+       * 和Complex.dividedBy的公式相同
+       **/
+    public ComplexArray dividedBy(ComplexArray c, ComplexArray dst) {
+        checkLength(c, dst);
+        double[] ar = re, ai = im, br = c.re, bi = c.im, dr = dst.re, di = dst.im;
+        for (int i = 0; i < ar.length; i++) {
+            double tmp = br[i] * br[i] + bi[i] * bi[i];
+            double r = (ar[i] * br[i] + ai[i] * bi[i]) / tmp;
+            double m = (ai[i] * br[i] - ar[i] * bi[i]) / tmp;
+            dr[i] = r;
+            di[i] = m;
+        }
+        return dst;
+    }
+
+    public ComplexArray conjugate() {
+        return conjugate(new ComplexArray(re.length));
+    }
+
+    public ComplexArray conjugate(ComplexArray dst) {
+        checkLength(dst, dst);
+        double[] ai = im, di = dst.im;
+        if (dst != this) {
+            System.arraycopy(re, 0, dst.re, 0, re.length);
+        }
+        for (int i = 0; i < ai.length; i++) {
+            di[i] = -ai[i];
+        }
+        return dst;
+    }
+
+     /**
+       * 每个元素乘以同一个实数
+       **/
+    public ComplexArray scale(double factor, ComplexArray dst) {
+        checkLength(dst, dst);
+        double[] ar = re, ai = im, dr = dst.re, di = dst.im;
+        for (int i = 0; i < ar.length; i++) {
+            dr[i] = ar[i] * factor;
+            di[i] = ai[i] * factor;
+        }
+        return dst;
+    }
+
+    public double[] magnitude() {
+        return magnitude(new double[re.length]);
+    }
+
+     /**
+       * 每个元素的模，写入dst
+       * @throws IllegalArgumentException dst长度不同
+       **/
+    public double[] magnitude(double[] dst) {
+        if (dst.length != re.length) {
+            throw new IllegalArgumentException("length mismatch: " + dst.length + " != " + re.length);
+        }
+        double[] ar = re, ai = im;
+        for (int i = 0; i < ar.length; i++) {
+            dst[i] = Math.sqrt(ar[i] * ar[i] + ai[i] * ai[i]);
+        }
+        return dst;
+    }
+
+     /**
+       * 点积 Σ this[i] * c[i]，不取共轭；需要厄米内积时先对一边调用conjugate
+       **/
+    public Complex dot(ComplexArray c) {
+        checkLength(c, c);
+        double[] ar = re, ai = im, br = c.re, bi = c.im;
+        double sumRe = 0;
+        double sumIm = 0;
+        for (int i = 0; i < ar.length; i++) {
+            sumRe += ar[i] * br[i] - ai[i] * bi[i];
+            sumIm += ar[i] * bi[i] + ai[i] * br[i];
+        }
+        return new Complex(sumRe, sumIm);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof ComplexArray)) {
+            return false;
+        }
+        ComplexArray c = (ComplexArray) o;
+        return Arrays.equals(re, c.re) && Arrays.equals(im, c.im);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(re) + Arrays.hashCode(im);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < re.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('(').append(re[i]).append(" + ").append(im[i]).append("i)");
+        }
+        return sb.append(']').toString();
+    }
+
+    private void checkLength(ComplexArray c, ComplexArray dst) {
+        if (c.re.length != re.length || dst.re.length != re.length) {
+            throw new IllegalArgumentException("length mismatch: " + re.length + ", " + c.re.length + ", " + dst.re.length);
+        }
+    }
+}
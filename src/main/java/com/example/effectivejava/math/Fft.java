@@ -0,0 +1,296 @@
+package com.example.effectivejava.math;
+
+import com.example.effectivejava.Complex;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 快速傅里叶变换（FFT/IFFT）
+ * 1、长度是2的幂时用迭代的radix-2算法：先做位反转置换，再逐级做蝶形运算
+ * 2、其他长度用Bluestein算法，把变换转成长度为2的幂的卷积
+ * 3、旋转因子（twiddle）表只缓存用过的最大长度的一张，更短的2的幂按步长取值；Bluestein的预计算结果只缓存最近的一个长度
+ *    两者都是软引用，一次很大的变换之后，内存紧张时缓存可以被回收，不会在JVM的整个生命周期里一直占着
+ * 4、运算在ComplexArray（实部、虚部分开的两个double[]）上进行，Complex[]的接口只在边界做转换
+ * 5、Mode.PARALLEL时，大的变换每一级的蝶形运算拆分到公共ForkJoinPool上并行执行
+ * 正变换使用e^(-2πi·jk/n)，逆变换结果除以n，inverse(forward(x))等于x
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class Fft {
+    private Fft(){throw new AssertionError("不可被构造");}
+
+     /**
+       * 《effective java》-51：对于boolean参数，优先使用两个元素的枚举类型
+       **/
+    public enum Mode { SEQUENTIAL, PARALLEL }
+
+    //小于这个长度时即使是PARALLEL也按顺序执行
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+    //并行时每个子任务处理的蝶形个数
+    private static final int LEAF_SIZE = 1 << 13;
+
+    //用过的最大的旋转因子表；并发时可能被一张较小的表覆盖，只会多算一次，结果仍然正确
+    private static volatile SoftReference<Twiddles> twiddleCache = new SoftReference<>(null);
+    //最近一次用到的Bluestein预计算结果
+    private static volatile SoftReference<Bluestein> bluesteinCache = new SoftReference<>(null);
+
+    public static ComplexArray forward(ComplexArray x) {
+        return forward(x, Mode.SEQUENTIAL);
+    }
+
+    public static ComplexArray forward(ComplexArray x, Mode mode) {
+        ComplexArray result = x.copy();
+        transform(result.re, result.im, false, mode);
+        return result;
+    }
+
+    public static ComplexArray inverse(ComplexArray x) {
+        return inverse(x, Mode.SEQUENTIAL);
+    }
+
+    public static ComplexArray inverse(ComplexArray x, Mode mode) {
+        ComplexArray result = x.copy();
+        transform(result.re, result.im, true, mode);
+        return result;
+    }
+
+     /**
+       * 原地变换，x的内容被结果覆盖，省去一次拷贝
+       **/
+    public static void forwardInPlace(ComplexArray x, Mode mode) {
+        transform(x.re, x.im, false, mode);
+    }
+
+    public static void inverseInPlace(ComplexArray x, Mode mode) {
+        transform(x.re, x.im, true, mode);
+    }
+
+    public static Complex[] forward(Complex[] x) {
+        return forward(ComplexArray.of(x)).toComplexArray();
+    }
+
+    public static Complex[] inverse(Complex[] x) {
+        return inverse(ComplexArray.of(x)).toComplexArray();
+    }
+
+    private static void transform(double[] re, double[] im, boolean inverse, Mode mode) {
+        int n = re.length;
+        if (n <= 1) {
+            return;
+        }
+        boolean parallel = mode == Mode.PARALLEL && n >= PARALLEL_THRESHOLD;
+        if (Integer.bitCount(n) == 1) {
+            radix2(re, im, inverse, parallel);
+        }
+        else {
+            bluestein(re, im, inverse, parallel);
+        }
+        if (inverse) {
+            double scale = 1.0 / n;
+            for (int i = 0; i < n; i++) {
+                re[i] *= scale;
+                im[i] *= scale;
+            }
+        }
+    }
+
+     /**
+       * 迭代radix-2，不做1/n缩放
+       **/
+    private static void radix2(double[] re, double[] im, boolean inverse, boolean parallel) {
+        int n = re.length;
+        int bits = Integer.numberOfTrailingZeros(n);
+        Twiddles twiddles = twiddles(n);
+        double[] cos = twiddles.cos;
+        double[] sin = twiddles.sin;
+        double sign = inverse ? 1 : -1;
+
+        forRange(0, n, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int j = Integer.reverse(i) >>> (32 - bits);
+                if (i < j) {
+                    double t = re[i];
+                    re[i] = re[j];
+                    re[j] = t;
+                    t = im[i];
+                    im[i] = im[j];
+                    im[j] = t;
+                }
+            }
+        });
+
+        for (int len = 2; len <= n; len <<= 1) {
+            int half = len >>> 1;
+            int stride = twiddles.n / len;
+            int halfBits = Integer.numberOfTrailingZeros(half);
+            //第b个蝶形：所在块为b / half，块内位置为b % half
+            forRange(0, n >>> 1, parallel, (from, to) -> {
+                for (int b = from; b < to; b++) {
+                    int j = b & (half - 1);
+                    int i = ((b >>> halfBits) << (halfBits + 1)) + j;
+                    int k = i + half;
+                    double wr = cos[j * stride];
+                    double wi = sign * sin[j * stride];
+                    double tr = re[k] * wr - im[k] * wi;
+                    double ti = re[k] * wi + im[k] * wr;
+                    re[k] = re[i] - tr;
+                    im[k] = im[i] - ti;
+                    re[i] += tr;
+                    im[i] += ti;
+                }
+            });
+        }
+    }
+
+     /**
+       * Bluestein：X[k] = w[k] * Σ (x[j] * w[j]) * conj(w[k - j])，其中w[k] = e^(-πi·k²/n)
+       * 卷积用长度m（2的幂，m >= 2n - 1）的radix-2 FFT计算；逆变换把w换成共轭即可
+       **/
+    private static void bluestein(double[] re, double[] im, boolean inverse, boolean parallel) {
+        int n = re.length;
+        Bluestein plan = bluesteinCache.get();
+        if (plan == null || plan.n != n) {
+            plan = new Bluestein(n);
+            bluesteinCache = new SoftReference<>(plan);
+        }
+        int m = plan.m;
+        double sign = inverse ? -1 : 1;
+        double[] ar = new double[m];
+        double[] ai = new double[m];
+        for (int k = 0; k < n; k++) {
+            double wr = plan.chirpRe[k];
+            double wi = sign * plan.chirpIm[k];
+            ar[k] = re[k] * wr - im[k] * wi;
+            ai[k] = re[k] * wi + im[k] * wr;
+        }
+        radix2(ar, ai, false, parallel);
+        double[] br = plan.kernelRe;
+        double[] bi = plan.kernelIm;
+        for (int k = 0; k < m; k++) {
+            double kr = br[k];
+            double ki = sign * bi[k];
+            double r = ar[k] * kr - ai[k] * ki;
+            double i = ar[k] * ki + ai[k] * kr;
+            ar[k] = r;
+            ai[k] = i;
+        }
+        radix2(ar, ai, true, parallel);
+        double scale = 1.0 / m;
+        for (int k = 0; k < n; k++) {
+            double wr = plan.chirpRe[k];
+            double wi = sign * plan.chirpIm[k];
+            double cr = ar[k] * scale;
+            double ci = ai[k] * scale;
+            re[k] = cr * wr - ci * wi;
+            im[k] = cr * wi + ci * wr;
+        }
+    }
+
+     /**
+       * 长度至少为n的旋转因子表，缓存的表不够长或已被回收时重新计算
+       **/
+    private static Twiddles twiddles(int n) {
+        Twiddles cached = twiddleCache.get();
+        if (cached != null && cached.n >= n) {
+            return cached;
+        }
+        Twiddles twiddles = new Twiddles(n);
+        twiddleCache = new SoftReference<>(twiddles);
+        return twiddles;
+    }
+
+     /**
+       * 长度为n的旋转因子表：cos(2πk/n)和sin(2πk/n)，k < n/2
+       * 长度为n/s（s是2的幂）的变换用第k*s项，就是它自己的第k个旋转因子
+       **/
+    private static final class Twiddles {
+        final int n;
+        final double[] cos;
+        final double[] sin;
+
+        Twiddles(int n) {
+            this.n = n;
+            cos = new double[n / 2];
+            sin = new double[n / 2];
+            for (int k = 0; k < n / 2; k++) {
+                double angle = 2 * Math.PI * k / n;
+                cos[k] = Math.cos(angle);
+                sin[k] = Math.sin(angle);
+            }
+        }
+    }
+
+     /**
+       * 长度n的Bluestein预计算结果：chirp序列w，以及卷积核conj(w)的FFT
+       * 卷积核是对称的（b[m - k] = b[k]），所以逆变换用的核w的FFT正好是它的共轭，不需要另外保存
+       **/
+    private static final class Bluestein {
+        final int n;
+        final int m;
+        final double[] chirpRe;
+        final double[] chirpIm;
+        final double[] kernelRe;
+        final double[] kernelIm;
+
+        Bluestein(int n) {
+            this.n = n;
+            m = Integer.highestOneBit(2 * n - 1) << 1;
+            chirpRe = new double[n];
+            chirpIm = new double[n];
+            for (int k = 0; k < n; k++) {
+                //k²对2n取模，避免k很大时角度的精度损失
+                double angle = Math.PI * (((long) k * k) % (2L * n)) / n;
+                chirpRe[k] = Math.cos(angle);
+                chirpIm[k] = -Math.sin(angle);
+            }
+            kernelRe = new double[m];
+            kernelIm = new double[m];
+            for (int k = 0; k < n; k++) {
+                kernelRe[k] = chirpRe[k];
+                kernelIm[k] = -chirpIm[k];
+                if (k > 0) {
+                    kernelRe[m - k] = chirpRe[k];
+                    kernelIm[m - k] = -chirpIm[k];
+                }
+            }
+            radix2(kernelRe, kernelIm, false, false);
+        }
+    }
+
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    private static void forRange(int from, int to, boolean parallel, RangeBody body) {
+        if (!parallel || to - from <= LEAF_SIZE) {
+            body.run(from, to);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RangeTask(from, to, body));
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final RangeBody body;
+
+        RangeTask(int from, int to, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, body), new RangeTask(mid, to, body));
+        }
+    }
+}
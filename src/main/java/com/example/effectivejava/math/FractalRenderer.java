@@ -0,0 +1,204 @@
+package com.example.effectivejava.math;
+
+import com.example.effectivejava.Complex;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 逃逸时间算法的Mandelbrot/Julia集渲染器，作为CPU扩展性的标准负载
+ * 1、图像按tileSize切成方块，每块一个fork/join任务，ForkJoinPool的工作窃取让计算量不均匀的方块在各核之间自动平衡
+ * 2、Arithmetic.COMPLEX用不可变的Complex做迭代，每一步都新建对象；Arithmetic.PRIMITIVE把实部、虚部放在局部变量里，不分配对象
+ * 3、输出是原始的图像缓冲区：按行存放的int[]，每个像素是逃逸前的迭代次数（不逃逸的点为maxIterations）
+ * 参数较多，用构建者创建（《effective java》-2）
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class FractalRenderer {
+
+    public enum Arithmetic { COMPLEX, PRIMITIVE }
+
+    private final int width;
+    private final int height;
+    private final int maxIterations;
+    private final int tileSize;
+    private final double minRe;
+    private final double maxIm;
+    private final double step;
+    //julia为false时是Mandelbrot集，此时cRe、cIm不使用
+    private final boolean julia;
+    private final double cRe;
+    private final double cIm;
+    private final Arithmetic arithmetic;
+
+    public static class Builder {
+        // Required parameters
+        private final int width;
+        private final int height;
+        // Optional parameters - initialized to default values
+        private int maxIterations = 1000;
+        private int tileSize = 32;
+        private double centerRe = -0.5;
+        private double centerIm = 0;
+        private double viewWidth = 3.0;
+        private Complex juliaConstant;
+        private Arithmetic arithmetic = Arithmetic.PRIMITIVE;
+
+        public Builder(int width, int height) {
+            if (width <= 0 || height <= 0) {
+                throw new IllegalArgumentException("size must be positive: " + width + "x" + height);
+            }
+            this.width = width;
+            this.height = height;
+        }
+        public Builder maxIterations(int val){
+            if (val <= 0) {
+                throw new IllegalArgumentException("maxIterations must be positive: " + val);
+            }
+            maxIterations = val; return this;
+        }
+        public Builder tileSize(int val){
+            if (val <= 0) {
+                throw new IllegalArgumentException("tileSize must be positive: " + val);
+            }
+            tileSize = val; return this;
+        }
+         /**
+           * 视口：中心点和复平面上的可见宽度，高度按图像宽高比计算
+           **/
+        public Builder viewport(double centerRe, double centerIm, double viewWidth){
+            this.centerRe = centerRe;
+            this.centerIm = centerIm;
+            this.viewWidth = viewWidth;
+            return this;
+        }
+         /**
+           * 渲染常数为c的Julia集，不调用时渲染Mandelbrot集
+           **/
+        public Builder julia(Complex c){
+            juliaConstant = Objects.requireNonNull(c); return this;
+        }
+        public Builder arithmetic(Arithmetic val){
+            arithmetic = Objects.requireNonNull(val); return this;
+        }
+        public FractalRenderer build() {
+            return new FractalRenderer(this);
+        }
+    }
+
+    private FractalRenderer(Builder builder) {
+        width = builder.width;
+        height = builder.height;
+        maxIterations = builder.maxIterations;
+        tileSize = builder.tileSize;
+        step = builder.viewWidth / width;
+        minRe = builder.centerRe - builder.viewWidth / 2;
+        maxIm = builder.centerIm + step * height / 2;
+        julia = builder.juliaConstant != null;
+        cRe = julia ? builder.juliaConstant.realPart() : 0;
+        cIm = julia ? builder.juliaConstant.imaginaryPart() : 0;
+        arithmetic = builder.arithmetic;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+     /**
+       * 在公共ForkJoinPool上渲染
+       **/
+    public int[] render() {
+        return render(ForkJoinPool.commonPool());
+    }
+
+     /**
+       * 在指定的线程池上渲染，线程池的并行度就是使用的核数
+       **/
+    public int[] render(ForkJoinPool pool) {
+        int[] pixels = new int[width * height];
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        pool.invoke(new TileTask(pixels, tilesX, 0, tilesX * tilesY));
+        return pixels;
+    }
+
+    private void renderTile(int[] pixels, int tileX, int tileY) {
+        int x0 = tileX * tileSize;
+        int y0 = tileY * tileSize;
+        int x1 = Math.min(x0 + tileSize, width);
+        int y1 = Math.min(y0 + tileSize, height);
+        for (int y = y0; y < y1; y++) {
+            double im = maxIm - y * step;
+            for (int x = x0; x < x1; x++) {
+                double re = minRe + x * step;
+                pixels[y * width + x] = arithmetic == Arithmetic.PRIMITIVE ? escapePrimitive(re, im) : escapeComplex(re, im);
+            }
+        }
+    }
+
+    private int escapePrimitive(double re, double im) {
+        double zr = julia ? re : 0;
+        double zi = julia ? im : 0;
+        double cr = julia ? cRe : re;
+        double ci = julia ? cIm : im;
+        int n = 0;
+        double zr2 = zr * zr;
+        double zi2 = zi * zi;
+        while (n < maxIterations && zr2 + zi2 <= 4) {
+            zi = 2 * zr * zi + ci;
+            zr = zr2 - zi2 + cr;
+            zr2 = zr * zr;
+            zi2 = zi * zi;
+            n++;
+        }
+        return n;
+    }
+
+    private int escapeComplex(double re, double im) {
+        Complex z = julia ? new Complex(re, im) : new Complex(0, 0);
+        Complex c = julia ? new Complex(cRe, cIm) : new Complex(re, im);
+        int n = 0;
+        while (n < maxIterations && normSquared(z) <= 4) {
+            z = z.times(z).plus(c);
+            n++;
+        }
+        return n;
+    }
+
+    private static double normSquared(Complex z) {
+        return z.realPart() * z.realPart() + z.imaginaryPart() * z.imaginaryPart();
+    }
+
+     /**
+       * 按方块编号二分，直到只剩一个方块；空闲线程会从其他线程的队列里窃取剩下的一半
+       **/
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] pixels;
+        private final int tilesX;
+        private final int from;
+        private final int to;
+
+        TileTask(int[] pixels, int tilesX, int from, int to) {
+            this.pixels = pixels;
+            this.tilesX = tilesX;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                renderTile(pixels, from % tilesX, from / tilesX);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TileTask(pixels, tilesX, from, mid), new TileTask(pixels, tilesX, mid, to));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.effectivejava.math;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * 《effective java》-60：若需要精确答案就应避免使用 float 和 double 类型，货币计算可以使用 long
+ * 不可变的金额类型，内部是一个long，表示最小货币单位（比如分）的个数，小数位数由币种决定（Currency.getDefaultFractionDigits）
+ * 1、加减乘都是精确的，溢出时抛ArithmeticException，而不是悄悄地回绕
+ * 2、除法和按比例缩放会产生舍入，必须显式给出RoundingMode
+ * 3、不同币种之间不能直接运算，抛IllegalArgumentException
+ * 热点循环里累加大量金额时用MoneyAccumulator，不会每一步都新建对象
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class Money implements Comparable<Money> {
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+     /**
+       * @param minorUnits 最小货币单位的个数，比如1.00元为100
+       * @throws IllegalArgumentException 币种没有固定的小数位数（比如XAU）
+       **/
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        scaleOf(Objects.requireNonNull(currency, "currency"));
+        return new Money(minorUnits, currency);
+    }
+
+     /**
+       * @throws ArithmeticException amount的小数位数多于币种的小数位数，或者超出long的范围
+       **/
+    public static Money of(BigDecimal amount, Currency currency) {
+        return of(amount, currency, RoundingMode.UNNECESSARY);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency, RoundingMode rounding) {
+        int scale = scaleOf(Objects.requireNonNull(currency, "currency"));
+        return new Money(amount.setScale(scale, rounding).unscaledValue().longValueExact(), currency);
+    }
+
+     /**
+       * 比如Money.of("1.00", Currency.getInstance("USD"))
+       **/
+    public static Money of(String amount, Currency currency) {
+        return of(new BigDecimal(amount), currency);
+    }
+
+    public static Money zero(Currency currency) {
+        return ofMinor(0, currency);
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public Currency currency() {
+        return currency;
+    }
+
+    public int scale() {
+        return currency.getDefaultFractionDigits();
+    }
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long multiplier) {
+        return new Money(Math.multiplyExact(minorUnits, multiplier), currency);
+    }
+
+     /**
+       * 按比例缩放，比如计算利息、税费，结果按rounding舍入到最小货币单位
+       **/
+    public Money times(BigDecimal factor, RoundingMode rounding) {
+        BigDecimal scaled = BigDecimal.valueOf(minorUnits).multiply(factor).setScale(0, rounding);
+        return new Money(scaled.longValueExact(), currency);
+    }
+
+     /**
+       * @throws ArithmeticException divisor为0，或者rounding为UNNECESSARY但不能整除
+       **/
+    public Money dividedBy(long divisor, RoundingMode rounding) {
+        return new Money(divide(minorUnits, divisor, rounding), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, scale());
+    }
+
+     /**
+       * @throws IllegalArgumentException 币种不同
+       **/
+    @Override
+    public int compareTo(Money o) {
+        checkCurrency(o);
+        return Long.compare(minorUnits, o.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money m = (Money) o;
+        return m.minorUnits == minorUnits && m.currency.equals(currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+     /**
+       * 格式为"币种代码 金额"，比如"USD 1.00"
+       **/
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + " " + toBigDecimal().toPlainString();
+    }
+
+    void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("currency mismatch: " + currency + " != " + other.currency);
+        }
+    }
+
+    static int scaleOf(Currency currency) {
+        int scale = currency.getDefaultFractionDigits();
+        if (scale < 0) {
+            throw new IllegalArgumentException("currency has no fixed scale: " + currency);
+        }
+        return scale;
+    }
+
+     /**
+       * long的带舍入除法，不经过BigDecimal
+       **/
+    static long divide(long dividend, long divisor, RoundingMode rounding) {
+        if (divisor == 0) {
+            throw new ArithmeticException("division by zero");
+        }
+        if (divisor == Long.MIN_VALUE || (dividend == Long.MIN_VALUE && divisor == -1)) {
+            //极端值下取绝对值会溢出，交给BigDecimal处理
+            return new BigDecimal(BigInteger.valueOf(dividend)).divide(new BigDecimal(BigInteger.valueOf(divisor)), 0, rounding)
+                    .longValueExact();
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        //商的符号，余数不为0时商向0截断了，需要时朝远离0的方向加1
+        int signum = (dividend < 0) == (divisor < 0) ? 1 : -1;
+        long absRemainder = Math.abs(remainder);
+        long absRest = Math.abs(divisor) - absRemainder;
+        boolean awayFromZero;
+        switch (rounding) {
+            case UNNECESSARY:
+                throw new ArithmeticException("rounding necessary");
+            case UP:
+                awayFromZero = true;
+                break;
+            case DOWN:
+                awayFromZero = false;
+                break;
+            case CEILING:
+                awayFromZero = signum > 0;
+                break;
+            case FLOOR:
+                awayFromZero = signum < 0;
+                break;
+            case HALF_UP:
+                awayFromZero = absRemainder >= absRest;
+                break;
+            case HALF_DOWN:
+                awayFromZero = absRemainder > absRest;
+                break;
+            case HALF_EVEN:
+                awayFromZero = absRemainder > absRest || (absRemainder == absRest && (quotient & 1) != 0);
+                break;
+            default:
+                throw new AssertionError(rounding);
+        }
+        return awayFromZero ? quotient + signum : quotient;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.effectivejava.math;
+
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Money的可变累加器，用于热点循环：累加过程中只修改一个long，不分配任何对象，最后再用get()取出不可变的Money
+ * 溢出时同样抛ArithmeticException，抛出后累加器的值保持不变
+ * 非线程安全，多线程时每个线程一个累加器，最后用add(MoneyAccumulator)合并
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class MoneyAccumulator {
+    private final Currency currency;
+    private long minorUnits;
+
+    public MoneyAccumulator(Currency currency) {
+        Money.scaleOf(Objects.requireNonNull(currency, "currency"));
+        this.currency = currency;
+    }
+
+    public MoneyAccumulator(Money initial) {
+        this.currency = initial.currency();
+        this.minorUnits = initial.minorUnits();
+    }
+
+    public MoneyAccumulator add(Money amount) {
+        checkCurrency(amount.currency());
+        minorUnits = Math.addExact(minorUnits, amount.minorUnits());
+        return this;
+    }
+
+    public MoneyAccumulator subtract(Money amount) {
+        checkCurrency(amount.currency());
+        minorUnits = Math.subtractExact(minorUnits, amount.minorUnits());
+        return this;
+    }
+
+     /**
+       * 直接累加最小货币单位，调用方自己保证是同一币种
+       **/
+    public MoneyAccumulator addMinor(long units) {
+        minorUnits = Math.addExact(minorUnits, units);
+        return this;
+    }
+
+    public MoneyAccumulator subtractMinor(long units) {
+        minorUnits = Math.subtractExact(minorUnits, units);
+        return this;
+    }
+
+    public MoneyAccumulator add(MoneyAccumulator other) {
+        checkCurrency(other.currency);
+        minorUnits = Math.addExact(minorUnits, other.minorUnits);
+        return this;
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public int compareTo(Money amount) {
+        checkCurrency(amount.currency());
+        return Long.compare(minorUnits, amount.minorUnits());
+    }
+
+    public Money get() {
+        return Money.ofMinor(minorUnits, currency);
+    }
+
+    public void reset() {
+        minorUnits = 0;
+    }
+
+    private void checkCurrency(Currency other) {
+        if (!currency.equals(other)) {
+            throw new IllegalArgumentException("currency mismatch: " + currency + " != " + other);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return get().toString();
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.effectivejava.math;
+
+/**
+ * 内存有上限、可合并的近似分位数草图（DDSketch的思路）
+ * 1、正数x落在编号为ceil(log_γ(x))的桶里，γ = (1 + α) / (1 - α)，同一个桶内的值相对误差不超过α
+ *    负数取绝对值放到另一组桶里，0单独计数；±Infinity不进桶，各自单独计数，分位数落在它们上面时原样返回
+ * 2、每组桶最多maxBuckets个，超出时把最小的桶合并到一起（牺牲最接近0的那部分值的精度），内存不会随数据量增长
+ * 3、两个草图参数相同时，合并就是对应的桶计数相加，满足结合律，适合并行流和按线程分片统计
+ * 非线程安全
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class QuantileSketch {
+    private static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    private static final int DEFAULT_MAX_BUCKETS = 2048;
+    //比这个更小的绝对值都算作0，避免log得到过小的桶编号
+    private static final double MIN_INDEXABLE = 1e-300;
+    //桶编号的范围，α极小时log_γ(x)可能超出int；超出的值归到两端的桶，不再保证相对误差
+    private static final int MAX_INDEX = 1 << 30;
+
+    private final double relativeAccuracy;
+    private final int maxBuckets;
+    private final double gamma;
+    private final double logGamma;
+    private final Buckets positive;
+    private final Buckets negative;
+    private long zeroCount;
+    private long negativeInfinityCount;
+    private long positiveInfinityCount;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKETS);
+    }
+
+     /**
+       * @param relativeAccuracy 相对误差α，0 < α < 1
+       * @param maxBuckets 正、负两组桶各自的桶数上限
+       * @throws IllegalArgumentException 参数不合法
+       **/
+    public QuantileSketch(double relativeAccuracy, int maxBuckets) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        if (maxBuckets < 16) {
+            throw new IllegalArgumentException("maxBuckets must be at least 16: " + maxBuckets);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxBuckets = maxBuckets;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.positive = new Buckets(maxBuckets);
+        this.negative = new Buckets(maxBuckets);
+    }
+
+     /**
+       * 创建一个参数相同的空草图
+       **/
+    public QuantileSketch emptyCopy() {
+        return new QuantileSketch(relativeAccuracy, maxBuckets);
+    }
+
+     /**
+       * NaN被忽略，±Infinity单独计数
+       **/
+    public void accept(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            positiveInfinityCount++;
+        }
+        else if (value == Double.NEGATIVE_INFINITY) {
+            negativeInfinityCount++;
+        }
+        else if (value > MIN_INDEXABLE) {
+            positive.add(index(value), 1);
+        }
+        else if (value < -MIN_INDEXABLE) {
+            negative.add(index(-value), 1);
+        }
+        else if (value == value) {
+            zeroCount++;
+        }
+    }
+
+    public long count() {
+        return negativeInfinityCount + negative.total + zeroCount + positive.total + positiveInfinityCount;
+    }
+
+     /**
+       * 把other合并进来，other不变
+       * @throws IllegalArgumentException 两个草图的参数不同
+       **/
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy || other.maxBuckets != maxBuckets) {
+            throw new IllegalArgumentException("sketch parameters differ");
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        negativeInfinityCount += other.negativeInfinityCount;
+        positiveInfinityCount += other.positiveInfinityCount;
+        return this;
+    }
+
+     /**
+       * 近似的q分位数，q在[0, 1]之间；没有数据时返回NaN
+       * @throws IllegalArgumentException q不在[0, 1]之间
+       **/
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("q must be in [0, 1]: " + q);
+        }
+        long count = count();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (q * (count - 1));
+        //-Infinity，负数从绝对值最大的桶开始，然后是0，正数从小到大，最后是+Infinity
+        if (rank < negativeInfinityCount) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        rank -= negativeInfinityCount;
+        if (rank < negative.total) {
+            return -value(negative.indexAtDescendingRank(rank));
+        }
+        rank -= negative.total;
+        if (rank < zeroCount) {
+            return 0;
+        }
+        rank -= zeroCount;
+        if (rank < positive.total) {
+            return value(positive.indexAtAscendingRank(rank));
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private int index(double value) {
+        double index = Math.ceil(Math.log(value) / logGamma);
+        return (int) Math.max(-MAX_INDEX, Math.min(MAX_INDEX, index));
+    }
+
+    //桶(γ^(i-1), γ^i]的代表值，到两端的相对误差都是α
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+     /**
+       * 连续编号的桶，counts[i]对应编号offset + i
+       **/
+    private static final class Buckets {
+        private final int maxBuckets;
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        Buckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        void add(int index, long count) {
+            if (count == 0) {
+                return;
+            }
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - 8;
+            }
+            if (index < offset || index >= (long) offset + counts.length) {
+                index = grow(index);
+            }
+            counts[index - offset] += count;
+            total += count;
+        }
+
+         /**
+           * 扩大数组以容纳index，超过maxBuckets时把最小的桶合并掉，返回实际应该计入的编号
+           **/
+        private int grow(int index) {
+            //编号被限制在±MAX_INDEX内，但边界用long计算，不依赖这一点
+            long low = Math.min(offset, index);
+            long high = Math.max((long) offset + counts.length - 1, index);
+            if (high - low + 1 > maxBuckets) {
+                long newLow = high - maxBuckets + 1;
+                long[] collapsed = new long[maxBuckets];
+                for (int i = 0; i < counts.length; i++) {
+                    long target = Math.max((long) offset + i, newLow) - newLow;
+                    collapsed[(int) target] += counts[i];
+                }
+                counts = collapsed;
+                offset = (int) newLow;
+                return (int) Math.max(index, newLow);
+            }
+            int length = (int) Math.min(maxBuckets, Math.max(counts.length * 2L, high - low + 1));
+            //新数组向增长的方向留出余量
+            long newOffset = index < offset ? high - length + 1 : low;
+            long[] grown = new long[length];
+            System.arraycopy(counts, 0, grown, (int) (offset - newOffset), counts.length);
+            counts = grown;
+            offset = (int) newOffset;
+            return index;
+        }
+
+        void merge(Buckets other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                add(other.offset + i, other.counts[i]);
+            }
+        }
+
+        int indexAtAscendingRank(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        int indexAtDescendingRank(long rank) {
+            long seen = 0;
+            for (int i = counts.length - 1; i >= 0; i--) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.effectivejava.math;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * 可合并的流式统计：个数、最小值、最大值、均值、方差，以及近似分位数
+ * 1、均值和方差用Welford算法在线更新，不需要保存数据，也不会像Σx²- (Σx)²/n那样因为相减而丢失精度
+ * 2、分位数交给内存有上限的QuantileSketch，数据量再大占用的内存也是固定的
+ * 3、merge满足结合律（方差用Chan等人的合并公式），可以在parallel()流里按分片统计再合并：
+ *    doubleStream.collect(StreamingStatistics::new, StreamingStatistics::accept, StreamingStatistics::merge)
+ *    或者stream.collect(StreamingStatistics.collector(mapper))
+ * 和DoubleSummaryStatistics一样实现DoubleConsumer，非线程安全
+ * 没有数据时min、max、mean、方差和分位数都返回NaN
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class StreamingStatistics implements DoubleConsumer {
+    private final QuantileSketch sketch;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private double mean;
+    //与均值之差的平方和
+    private double m2;
+
+    public StreamingStatistics() {
+        this(new QuantileSketch());
+    }
+
+     /**
+       * @param sketch 一个空的草图，决定分位数的精度和内存上限
+       * @throws IllegalArgumentException sketch不为空
+       **/
+    public StreamingStatistics(QuantileSketch sketch) {
+        if (sketch.count() != 0) {
+            throw new IllegalArgumentException("sketch must be empty");
+        }
+        this.sketch = sketch;
+    }
+
+     /**
+       * 把流的元素映射成double后统计，并行流中每个分片各自累加，最后merge
+       **/
+    public static <T> Collector<T, StreamingStatistics, StreamingStatistics> collector(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(StreamingStatistics::new, (s, t) -> s.accept(mapper.applyAsDouble(t)),
+                StreamingStatistics::merge, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+     /**
+       * NaN被忽略
+       **/
+    @Override
+    public void accept(double value) {
+        if (value != value) {
+            return;
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        }
+        else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        sketch.accept(value);
+    }
+
+     /**
+       * 把other合并进来，other不变
+       * @throws IllegalArgumentException 两者的草图参数不同
+       **/
+    public StreamingStatistics merge(StreamingStatistics other) {
+        sketch.merge(other.sketch);
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            min = other.min;
+            max = other.max;
+            mean = other.mean;
+            m2 = other.m2;
+            return this;
+        }
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * ((double) other.count / n);
+        m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+        count = n;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    public double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+     /**
+       * 总体方差，除以n
+       **/
+    public double populationVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+     /**
+       * 样本方差，除以n - 1；只有一个数据时返回NaN
+       **/
+    public double sampleVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(sampleVariance());
+    }
+
+     /**
+       * 近似的q分位数，相对误差由草图决定，结果不会超出[min, max]；q为0和1时就是精确的min和max
+       * @throws IllegalArgumentException q不在[0, 1]之间
+       **/
+    public double quantile(double q) {
+        double estimate = sketch.quantile(q);
+        if (count == 0) {
+            return estimate;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+        return Math.max(min, Math.min(max, estimate));
+    }
+
+    public double median() {
+        return quantile(0.5);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, min=%f, mean=%f, max=%f, stddev=%f, p50=%f, p99=%f}",
+                getClass().getSimpleName(), count, min, mean(), max, standardDeviation(), quantile(0.5), quantile(0.99));
+    }
+}
@@ -15,6 +15,7 @@ import java.util.*;
  * 如果发现自己编写的方法不能总是返回值，并且认为该方法的用户在每次调用时考虑这种可能性很重要，
  * 那么或许应该返回一个 Optional 的方法。但是，应该意识到，返回 Optional 会带来实际的性能后果；对于性能关键
  * 的方法，最好返回 null 或抛出异常。最后，除了作为返回值之外，不应该在任何其他地方中使用 Optional
+ * 大集合上并行的max和topK（包括返回OptionalInt等的基本类型版本）见TopK
  * @author Don
  * @date 2022/3/1.
  */
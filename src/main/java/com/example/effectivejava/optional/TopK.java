@@ -0,0 +1,464 @@
+package com.example.effectivejava.optional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * 大集合上的max和topK，OptionalDemo.max4Optional的并行版本
+ * 1、RandomAccess的List和数组按下标二分成fork/join任务，每个子任务顺序扫描自己的区间，结果两两合并
+ * 2、topK在每个子任务里维护一个最多k个元素的小顶堆，合并时把小的堆倒进大的堆，内存是O(k × 子任务数)而不是O(n)
+ * 3、int[]、long[]、double[]有单独的版本，返回OptionalInt、OptionalLong、OptionalDouble（《effective java》-55：
+ *    不要返回装箱基本类型的Optional），堆也是基本类型数组，扫描过程中不装箱
+ * 元素较少时直接顺序扫描；其他Collection只能用迭代器顺序扫描
+ * topK的结果按从大到小排列，相等的元素之间的顺序不确定；double按Double.compare的顺序比较（NaN最大，-0.0小于0.0）
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class TopK {
+    private TopK(){throw new AssertionError("不可被构造");}
+
+    //小于这个长度时顺序扫描
+    private static final int PARALLEL_THRESHOLD = 1 << 17;
+    //每个子任务扫描的元素个数；每个子任务都要从空堆开始建堆，太小的话建堆的开销会超过扫描本身
+    private static final int LEAF_SIZE = 1 << 16;
+    private static final int INITIAL_HEAP_CAPACITY = 64;
+
+    public static <E extends Comparable<? super E>> Optional<E> max(Collection<? extends E> c) {
+        return max(c, Comparator.naturalOrder());
+    }
+
+     /**
+       * @throws NullPointerException c中有null元素
+       **/
+    public static <E> Optional<E> max(Collection<? extends E> c, Comparator<? super E> comparator) {
+        if (c.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!(c instanceof RandomAccess && c instanceof List)) {
+            E result = null;
+            for (E e : c) {
+                result = greater(result, Objects.requireNonNull(e), comparator);
+            }
+            return Optional.of(result);
+        }
+        List<? extends E> list = (List<? extends E>) c;
+        return Optional.of(reduce(list.size(), (from, to) -> {
+            E result = null;
+            for (int i = from; i < to; i++) {
+                result = greater(result, Objects.requireNonNull(list.get(i)), comparator);
+            }
+            return result;
+        }, (a, b) -> greater(a, b, comparator)));
+    }
+
+    public static <E extends Comparable<? super E>> List<E> topK(Collection<? extends E> c, int k) {
+        return topK(c, k, Comparator.naturalOrder());
+    }
+
+     /**
+       * 最大的k个元素，从大到小排列；c的元素少于k个时返回全部元素
+       * @throws IllegalArgumentException k为负数
+       * @throws NullPointerException c中有null元素
+       **/
+    public static <E> List<E> topK(Collection<? extends E> c, int k, Comparator<? super E> comparator) {
+        checkK(k);
+        if (k == 0 || c.isEmpty()) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<E> heap;
+        if (c instanceof RandomAccess && c instanceof List) {
+            List<? extends E> list = (List<? extends E>) c;
+            heap = reduce(list.size(), (from, to) -> {
+                PriorityQueue<E> h = new PriorityQueue<>(Math.min(k, to - from) + 1, comparator);
+                for (int i = from; i < to; i++) {
+                    offer(h, Objects.requireNonNull(list.get(i)), k, comparator);
+                }
+                return h;
+            }, (a, b) -> mergeHeaps(a, b, k, comparator));
+        }
+        else {
+            heap = new PriorityQueue<>(Math.min(k, c.size()) + 1, comparator);
+            for (E e : c) {
+                offer(heap, Objects.requireNonNull(e), k, comparator);
+            }
+        }
+        List<E> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    public static <E extends Comparable<? super E>> Optional<E> max(E[] a) {
+        return max(Arrays.asList(a));
+    }
+
+    public static <E extends Comparable<? super E>> List<E> topK(E[] a, int k) {
+        return topK(Arrays.asList(a), k);
+    }
+
+    public static OptionalInt max(int[] a) {
+        if (a.length == 0) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(reduce(a.length, (from, to) -> {
+            int result = a[from];
+            for (int i = from + 1; i < to; i++) {
+                if (a[i] > result) {
+                    result = a[i];
+                }
+            }
+            return result;
+        }, Math::max));
+    }
+
+    public static OptionalLong max(long[] a) {
+        if (a.length == 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(reduce(a.length, (from, to) -> {
+            long result = a[from];
+            for (int i = from + 1; i < to; i++) {
+                if (a[i] > result) {
+                    result = a[i];
+                }
+            }
+            return result;
+        }, Math::max));
+    }
+
+    public static OptionalDouble max(double[] a) {
+        if (a.length == 0) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(reduce(a.length, (from, to) -> {
+            double result = a[from];
+            for (int i = from + 1; i < to; i++) {
+                if (Double.compare(a[i], result) > 0) {
+                    result = a[i];
+                }
+            }
+            return result;
+        }, (x, y) -> Double.compare(x, y) >= 0 ? x : y));
+    }
+
+     /**
+       * 最大的k个数，从大到小排列
+       * @throws IllegalArgumentException k为负数
+       **/
+    public static int[] topK(int[] a, int k) {
+        checkK(k);
+        if (k == 0 || a.length == 0) {
+            return new int[0];
+        }
+        return reduce(a.length, (from, to) -> {
+            IntHeap h = new IntHeap(k);
+            for (int i = from; i < to; i++) {
+                h.offer(a[i]);
+            }
+            return h;
+        }, IntHeap::merge).toDescendingArray();
+    }
+
+    public static long[] topK(long[] a, int k) {
+        checkK(k);
+        if (k == 0 || a.length == 0) {
+            return new long[0];
+        }
+        return reduce(a.length, (from, to) -> {
+            LongHeap h = new LongHeap(k);
+            for (int i = from; i < to; i++) {
+                h.offer(a[i]);
+            }
+            return h;
+        }, LongHeap::merge).toDescendingArray();
+    }
+
+    public static double[] topK(double[] a, int k) {
+        checkK(k);
+        if (k == 0 || a.length == 0) {
+            return new double[0];
+        }
+        return reduce(a.length, (from, to) -> {
+            DoubleHeap h = new DoubleHeap(k);
+            for (int i = from; i < to; i++) {
+                h.offer(a[i]);
+            }
+            return h;
+        }, DoubleHeap::merge).toDescendingArray();
+    }
+
+    private static void checkK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+    }
+
+    private static <E> E greater(E a, E b, Comparator<? super E> comparator) {
+        return a == null || comparator.compare(b, a) > 0 ? b : a;
+    }
+
+    private static <E> void offer(PriorityQueue<E> heap, E e, int k, Comparator<? super E> comparator) {
+        if (heap.size() < k) {
+            heap.add(e);
+        }
+        else if (comparator.compare(e, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(e);
+        }
+    }
+
+    private static <E> PriorityQueue<E> mergeHeaps(PriorityQueue<E> a, PriorityQueue<E> b, int k, Comparator<? super E> comparator) {
+        PriorityQueue<E> into = a.size() >= b.size() ? a : b;
+        for (E e : into == a ? b : a) {
+            offer(into, e, k, comparator);
+        }
+        return into;
+    }
+
+    private interface RangeFunction<R> {
+        R apply(int from, int to);
+    }
+
+    private static <R> R reduce(int n, RangeFunction<R> leaf, BinaryOperator<R> combine) {
+        if (n < PARALLEL_THRESHOLD) {
+            return leaf.apply(0, n);
+        }
+        return ForkJoinPool.commonPool().invoke(new ReduceTask<>(0, n, leaf, combine));
+    }
+
+    private static final class ReduceTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final RangeFunction<R> leaf;
+        private final BinaryOperator<R> combine;
+
+        ReduceTask(int from, int to, RangeFunction<R> leaf, BinaryOperator<R> combine) {
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.combine = combine;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= LEAF_SIZE) {
+                return leaf.apply(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ReduceTask<R> left = new ReduceTask<>(from, mid, leaf, combine);
+            left.fork();
+            R right = new ReduceTask<>(mid, to, leaf, combine).compute();
+            return combine.apply(left.join(), right);
+        }
+    }
+
+     /**
+       * 最多limit个int的小顶堆，满了以后只接受比堆顶大的数；数组按需扩容，k很大时小的子任务也不会预先分配k个元素
+       **/
+    private static final class IntHeap {
+        private final int limit;
+        private int[] heap;
+        private int size;
+
+        IntHeap(int limit) {
+            this.limit = limit;
+            heap = new int[Math.min(limit, INITIAL_HEAP_CAPACITY)];
+        }
+
+        void offer(int v) {
+            if (size < limit) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(limit, 2L * size));
+                }
+                int i = size++;
+                while (i > 0 && heap[(i - 1) >>> 1] > v) {
+                    heap[i] = heap[(i - 1) >>> 1];
+                    i = (i - 1) >>> 1;
+                }
+                heap[i] = v;
+            }
+            else if (v > heap[0]) {
+                siftDown(v, size);
+            }
+        }
+
+        //用v替换堆顶，在前n个元素里下沉
+        private void siftDown(int v, int n) {
+            int i = 0;
+            int child;
+            while ((child = 2 * i + 1) < n) {
+                if (child + 1 < n && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= v) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = v;
+        }
+
+        static IntHeap merge(IntHeap a, IntHeap b) {
+            IntHeap into = a.size >= b.size ? a : b;
+            IntHeap from = into == a ? b : a;
+            for (int i = 0; i < from.size; i++) {
+                into.offer(from.heap[i]);
+            }
+            return into;
+        }
+
+         /**
+           * 堆排序：依次把堆顶换到末尾，得到从大到小的数组
+           **/
+        int[] toDescendingArray() {
+            for (int n = size - 1; n > 0; n--) {
+                int top = heap[0];
+                siftDown(heap[n], n);
+                heap[n] = top;
+            }
+            return Arrays.copyOf(heap, size);
+        }
+    }
+
+    private static final class LongHeap {
+        private final int limit;
+        private long[] heap;
+        private int size;
+
+        LongHeap(int limit) {
+            this.limit = limit;
+            heap = new long[Math.min(limit, INITIAL_HEAP_CAPACITY)];
+        }
+
+        void offer(long v) {
+            if (size < limit) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(limit, 2L * size));
+                }
+                int i = size++;
+                while (i > 0 && heap[(i - 1) >>> 1] > v) {
+                    heap[i] = heap[(i - 1) >>> 1];
+                    i = (i - 1) >>> 1;
+                }
+                heap[i] = v;
+            }
+            else if (v > heap[0]) {
+                siftDown(v, size);
+            }
+        }
+
+        private void siftDown(long v, int n) {
+            int i = 0;
+            int child;
+            while ((child = 2 * i + 1) < n) {
+                if (child + 1 < n && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= v) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = v;
+        }
+
+        static LongHeap merge(LongHeap a, LongHeap b) {
+            LongHeap into = a.size >= b.size ? a : b;
+            LongHeap from = into == a ? b : a;
+            for (int i = 0; i < from.size; i++) {
+                into.offer(from.heap[i]);
+            }
+            return into;
+        }
+
+        long[] toDescendingArray() {
+            for (int n = size - 1; n > 0; n--) {
+                long top = heap[0];
+                siftDown(heap[n], n);
+                heap[n] = top;
+            }
+            return Arrays.copyOf(heap, size);
+        }
+    }
+
+    private static final class DoubleHeap {
+        private final int limit;
+        private double[] heap;
+        private int size;
+
+        DoubleHeap(int limit) {
+            this.limit = limit;
+            heap = new double[Math.min(limit, INITIAL_HEAP_CAPACITY)];
+        }
+
+        void offer(double v) {
+            if (size < limit) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(limit, 2L * size));
+                }
+                int i = size++;
+                while (i > 0 && Double.compare(heap[(i - 1) >>> 1], v) > 0) {
+                    heap[i] = heap[(i - 1) >>> 1];
+                    i = (i - 1) >>> 1;
+                }
+                heap[i] = v;
+            }
+            else if (Double.compare(v, heap[0]) > 0) {
+                siftDown(v, size);
+            }
+        }
+
+        private void siftDown(double v, int n) {
+            int i = 0;
+            int child;
+            while ((child = 2 * i + 1) < n) {
+                if (child + 1 < n && Double.compare(heap[child + 1], heap[child]) < 0) {
+                    child++;
+                }
+                if (Double.compare(heap[child], v) >= 0) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = v;
+        }
+
+        static DoubleHeap merge(DoubleHeap a, DoubleHeap b) {
+            DoubleHeap into = a.size >= b.size ? a : b;
+            DoubleHeap from = into == a ? b : a;
+            for (int i = 0; i < from.size; i++) {
+                into.offer(from.heap[i]);
+            }
+            return into;
+        }
+
+        double[] toDescendingArray() {
+            for (int n = size - 1; n > 0; n--) {
+                double top = heap[0];
+                siftDown(heap[n], n);
+                heap[n] = top;
+            }
+            return Arrays.copyOf(heap, size);
+        }
+    }
+}
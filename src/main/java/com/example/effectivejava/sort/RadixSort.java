@@ -0,0 +1,183 @@
+package com.example.effectivejava.sort;
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * 按int键的LSD基数排序，稳定
+ * 1、先把每个对象的键取出来放进int[]，之后只在int[]上排序，同时维护一个下标排列，排完再按排列一次性重排对象
+ *    排序过程中不调用比较器，不拆箱，也不会去访问分散在堆上的对象
+ * 2、每轮处理8位，共4轮；所有键在某一轮的那8位都相同时跳过这一轮
+ * 3、符号位取反后按无符号数排序，负数排在正数前面
+ * 4、Mode.PARALLEL时，大的输入按块并行统计直方图，再按（桶，块）的顺序计算写入位置，各块并行分发，结果仍然是稳定的
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class RadixSort {
+    private RadixSort(){throw new AssertionError("不可被构造");}
+
+    public enum Mode { SEQUENTIAL, PARALLEL }
+
+    private static final int BITS = 8;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int PASSES = Integer.SIZE / BITS;
+    //小于这个长度时即使是PARALLEL也按顺序执行
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    //并行时每块的最小元素个数
+    private static final int MIN_CHUNK = 1 << 14;
+
+    public static <T> void sort(List<T> list, ToIntFunction<? super T> key) {
+        sort(list, key, Mode.SEQUENTIAL);
+    }
+
+     /**
+       * 按key从小到大稳定地排序list，和Collections.sort一样先拷贝成数组，排好后用ListIterator写回
+       **/
+    public static <T> void sort(List<T> list, ToIntFunction<? super T> key, Mode mode) {
+        Object[] a = list.toArray();
+        sortArray(a, key, mode);
+        ListIterator<T> it = list.listIterator();
+        for (Object e : a) {
+            it.next();
+            @SuppressWarnings("unchecked")
+            T t = (T) e;
+            it.set(t);
+        }
+    }
+
+    public static <T> void sort(T[] a, ToIntFunction<? super T> key) {
+        sort(a, key, Mode.SEQUENTIAL);
+    }
+
+    public static <T> void sort(T[] a, ToIntFunction<? super T> key, Mode mode) {
+        sortArray(a, key, mode);
+    }
+
+    public static int[] sortedOrder(int[] keys) {
+        return sortedOrder(keys, Mode.SEQUENTIAL);
+    }
+
+     /**
+       * 返回下标排列order，使得keys[order[0]] <= keys[order[1]] <= ...，相等的键保持原来的先后顺序；keys不变
+       **/
+    public static int[] sortedOrder(int[] keys, Mode mode) {
+        int n = keys.length;
+        int[] k = keys.clone();
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        if (n < 2) {
+            return order;
+        }
+        boolean parallel = mode == Mode.PARALLEL && n >= PARALLEL_THRESHOLD;
+        int[] k2 = new int[n];
+        int[] order2 = new int[n];
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * BITS;
+            boolean moved = parallel ? parallelPass(k, order, k2, order2, shift) : sequentialPass(k, order, k2, order2, shift);
+            if (moved) {
+                int[] t = k;
+                k = k2;
+                k2 = t;
+                t = order;
+                order = order2;
+                order2 = t;
+            }
+        }
+        return order;
+    }
+
+     /**
+       * 对象数组原地排序：取键、排序下标、按下标重排
+       **/
+    private static <T> void sortArray(Object[] a, ToIntFunction<? super T> key, Mode mode) {
+        int n = a.length;
+        int[] keys = new int[n];
+        boolean parallel = mode == Mode.PARALLEL && n >= PARALLEL_THRESHOLD;
+        range(n, parallel).forEach(i -> {
+            @SuppressWarnings("unchecked")
+            T t = (T) a[i];
+            keys[i] = key.applyAsInt(t);
+        });
+        int[] order = sortedOrder(keys, mode);
+        Object[] source = a.clone();
+        range(n, parallel).forEach(i -> a[i] = source[order[i]]);
+    }
+
+    private static IntStream range(int n, boolean parallel) {
+        IntStream range = IntStream.range(0, n);
+        return parallel ? range.parallel() : range;
+    }
+
+    private static int digit(int key, int shift) {
+        return ((key ^ Integer.MIN_VALUE) >>> shift) & (BUCKETS - 1);
+    }
+
+     /**
+       * 一轮计数排序，从(k, order)写到(k2, order2)；所有键这一位都相同时什么都不做，返回false
+       **/
+    private static boolean sequentialPass(int[] k, int[] order, int[] k2, int[] order2, int shift) {
+        int n = k.length;
+        int[] count = new int[BUCKETS];
+        for (int i = 0; i < n; i++) {
+            count[digit(k[i], shift)]++;
+        }
+        if (count[digit(k[0], shift)] == n) {
+            return false;
+        }
+        int sum = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            int c = count[b];
+            count[b] = sum;
+            sum += c;
+        }
+        for (int i = 0; i < n; i++) {
+            int pos = count[digit(k[i], shift)]++;
+            k2[pos] = k[i];
+            order2[pos] = order[i];
+        }
+        return true;
+    }
+
+    private static boolean parallelPass(int[] k, int[] order, int[] k2, int[] order2, int shift) {
+        int n = k.length;
+        int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, n / MIN_CHUNK));
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][BUCKETS];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] count = counts[c];
+            for (int i = c * chunkSize, end = Math.min(n, i + chunkSize); i < end; i++) {
+                count[digit(k[i], shift)]++;
+            }
+        });
+        int first = digit(k[0], shift);
+        int firstTotal = 0;
+        for (int c = 0; c < chunks; c++) {
+            firstTotal += counts[c][first];
+        }
+        if (firstTotal == n) {
+            return false;
+        }
+        //按桶优先、块其次的顺序累加，每块在每个桶里得到一段不重叠的写入位置，块内保持原顺序
+        int sum = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][b];
+                counts[c][b] = sum;
+                sum += count;
+            }
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] offset = counts[c];
+            for (int i = c * chunkSize, end = Math.min(n, i + chunkSize); i < end; i++) {
+                int pos = offset[digit(k[i], shift)]++;
+                k2[pos] = k[i];
+                order2[pos] = order[i];
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.effectivejava.sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 字符串排序：先按长度，长度相同再按字典序（和String.compareTo一样按char比较），即LambdaClass.sort的长度比较器再加上字典序
+ * 1、先对长度做一次计数排序，把字符串分到各个长度桶里；长度超过MAX_BUCKETED_LENGTH的字符串都放进最后一个桶，
+ *    这部分通常很少，单独按长度做比较排序，计数数组的大小不会被一个很长的字符串撑大
+ * 2、每个桶里的字符串长度都相同，用多关键字快速排序（三路基数快速排序，Bentley-Sedgewick）：
+ *    按第d个字符三路划分，等于枢轴的部分直接比较第d+1个字符，已经比较过的前缀不会再比较；小的区间用插入排序
+ * 3、Mode.PARALLEL时所有桶作为fork/join任务同时排序，大的桶在划分后三个部分继续并行，最大的那个桶不会成为瓶颈
+ * 结果和Arrays.sort(a, ORDER)相同；不稳定，但按这个顺序相等的字符串内容也相同，看不出区别
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class StringSort {
+    private StringSort(){throw new AssertionError("不可被构造");}
+
+    public enum Mode { SEQUENTIAL, PARALLEL }
+
+     /**
+       * 排序使用的顺序，可用于和基于比较器的排序对比
+       **/
+    public static final Comparator<String> ORDER = Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    private static final int INSERTION_THRESHOLD = 16;
+    //小于这个长度的数组即使是PARALLEL也按顺序排序
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+    //并行时区间小于这个长度就不再拆分任务
+    private static final int TASK_THRESHOLD = 1 << 13;
+    //按长度计数的最大长度，更长的字符串共用下标为LONG_BUCKET的桶
+    private static final int MAX_BUCKETED_LENGTH = 1 << 12;
+    private static final int LONG_BUCKET = MAX_BUCKETED_LENGTH + 1;
+
+    public static void sort(String[] a) {
+        sort(a, Mode.SEQUENTIAL);
+    }
+
+     /**
+       * @throws NullPointerException a中有null元素
+       **/
+    public static void sort(String[] a, Mode mode) {
+        int n = a.length;
+        if (n < 2) {
+            return;
+        }
+        int maxBucket = 0;
+        for (String s : a) {
+            maxBucket = Math.max(maxBucket, bucket(s));
+        }
+        //start[b]是桶b的起始位置
+        int[] start = new int[maxBucket + 2];
+        for (String s : a) {
+            start[bucket(s) + 1]++;
+        }
+        for (int b = 0; b <= maxBucket; b++) {
+            start[b + 1] += start[b];
+        }
+        int[] next = start.clone();
+        String[] aux = new String[n];
+        for (String s : a) {
+            aux[next[bucket(s)]++] = s;
+        }
+        System.arraycopy(aux, 0, a, 0, n);
+        //相邻两项之间是一段长度相同的字符串
+        int[] runs = maxBucket == LONG_BUCKET ? splitLongBucket(a, start) : start;
+
+        if (mode == Mode.PARALLEL && n >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new BucketsTask(a, runs));
+        }
+        else {
+            for (int i = 0; i < runs.length - 1; i++) {
+                multikeySort(a, runs[i], runs[i + 1], 0);
+            }
+        }
+    }
+
+    public static void sort(List<String> list) {
+        sort(list, Mode.SEQUENTIAL);
+    }
+
+     /**
+       * 和Collections.sort一样先拷贝成数组，排好后用ListIterator写回
+       **/
+    public static void sort(List<String> list, Mode mode) {
+        String[] a = list.toArray(new String[0]);
+        sort(a, mode);
+        ListIterator<String> it = list.listIterator();
+        for (String s : a) {
+            it.next();
+            it.set(s);
+        }
+    }
+
+    private static int bucket(String s) {
+        return Math.min(s.length(), LONG_BUCKET);
+    }
+
+     /**
+       * 最后一个桶里的字符串按长度排序，再把它切成长度相同的几段
+       * @return start去掉最后一个桶，换成切出来的各段的边界
+       **/
+    private static int[] splitLongBucket(String[] a, int[] start) {
+        int lo = start[LONG_BUCKET];
+        int hi = start[LONG_BUCKET + 1];
+        Arrays.sort(a, lo, hi, Comparator.comparingInt(String::length));
+        int[] runs = Arrays.copyOf(start, LONG_BUCKET + 1 + hi - lo);
+        int count = LONG_BUCKET + 1;
+        for (int i = lo + 1; i < hi; i++) {
+            if (a[i].length() != a[i - 1].length()) {
+                runs[count++] = i;
+            }
+        }
+        runs[count++] = hi;
+        return Arrays.copyOf(runs, count);
+    }
+
+     /**
+       * 对[lo, hi)排序，区间内的字符串长度相同，且前d个字符都相同
+       **/
+    private static void multikeySort(String[] a, int lo, int hi, int d) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (d == a[lo].length()) {
+                return;
+            }
+            long bounds = partition(a, lo, hi, d);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            multikeySort(a, lo, lt, d);
+            multikeySort(a, gt, hi, d);
+            //等于枢轴的部分第d个字符都相同，继续比较下一个字符
+            lo = lt;
+            hi = gt;
+            d++;
+        }
+        insertionSort(a, lo, hi, d);
+    }
+
+     /**
+       * 按第d个字符三路划分，返回等于枢轴的区间[lt, gt)，高32位是lt，低32位是gt
+       **/
+    private static long partition(String[] a, int lo, int hi, int d) {
+        int v = medianOf3(a[lo].charAt(d), a[(lo + hi) >>> 1].charAt(d), a[hi - 1].charAt(d));
+        int lt = lo;
+        int gt = hi;
+        int i = lo;
+        while (i < gt) {
+            int c = a[i].charAt(d);
+            if (c < v) {
+                swap(a, lt++, i++);
+            }
+            else if (c > v) {
+                swap(a, i, --gt);
+            }
+            else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | gt;
+    }
+
+    private static int medianOf3(int x, int y, int z) {
+        if (x < y) {
+            return y < z ? y : Math.max(x, z);
+        }
+        return x < z ? x : Math.max(y, z);
+    }
+
+    private static void insertionSort(String[] a, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            String s = a[i];
+            int j = i;
+            while (j > lo && lessFrom(s, a[j - 1], d)) {
+                a[j] = a[j - 1];
+                j--;
+            }
+            a[j] = s;
+        }
+    }
+
+     /**
+       * 长度相同、前d个字符相同的两个字符串，从第d个字符开始比较
+       **/
+    private static boolean lessFrom(String s, String t, int d) {
+        for (int i = d, len = s.length(); i < len; i++) {
+            char c = s.charAt(i);
+            char e = t.charAt(i);
+            if (c != e) {
+                return c < e;
+            }
+        }
+        return false;
+    }
+
+    private static void swap(String[] a, int i, int j) {
+        String t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    private static final class BucketsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final String[] a;
+        private final int[] runs;
+
+        BucketsTask(String[] a, int[] runs) {
+            this.a = a;
+            this.runs = runs;
+        }
+
+        @Override
+        protected void compute() {
+            List<MultikeyTask> tasks = new ArrayList<>();
+            for (int i = 0; i < runs.length - 1; i++) {
+                if (runs[i + 1] - runs[i] > 1) {
+                    tasks.add(new MultikeyTask(a, runs[i], runs[i + 1], 0));
+                }
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private static final class MultikeyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final String[] a;
+        private final int lo;
+        private final int hi;
+        private final int d;
+
+        MultikeyTask(String[] a, int lo, int hi, int d) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.d = d;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= TASK_THRESHOLD || d == a[lo].length()) {
+                multikeySort(a, lo, hi, d);
+                return;
+            }
+            long bounds = partition(a, lo, hi, d);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            invokeAll(new MultikeyTask(a, lo, lt, d), new MultikeyTask(a, lt, gt, d + 1), new MultikeyTask(a, gt, hi, d));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.effectivejava.stack;
+
+import java.util.Collection;
+import java.util.EmptyStackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程安全的栈，API和GenericFirst.Stack保持一致，用来代替在外面套synchronized的做法
+ * 1、Treiber栈：栈顶是一个AtomicReference，push/pop都用CAS修改栈顶，不加锁
+ * 2、消除数组（elimination array）：CAS失败说明栈顶有竞争，这时push把元素挂到消除数组的随机槽位上等待一小会儿，
+ *    同时发生的pop可以直接从槽位上取走，一对push/pop相互抵消，完全不碰栈顶
+ * 3、CAS失败次数和消除命中次数用LongAdder统计，统计本身不会成为新的竞争点
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class ConcurrentStack<E> {
+    //消除槽位的数量，和CPU核数相关，太多了push和pop很难碰上
+    private static final int ELIMINATION_SIZE = Math.max(1, Math.min(16, Runtime.getRuntime().availableProcessors() / 2));
+    //push在槽位上等待被取走的自旋次数
+    private static final int ELIMINATION_SPINS = 64;
+
+    private static final class Node<E> {
+        final E item;
+        Node<E> next;
+
+        Node(E item) {
+            this.item = item;
+        }
+    }
+
+    private final AtomicReference<Node<E>> head = new AtomicReference<>();
+    //槽位上放的是待消除的节点，每个节点都是新对象，所以CAS不会有ABA问题
+    private final AtomicReferenceArray<Node<E>> eliminationArray = new AtomicReferenceArray<>(ELIMINATION_SIZE);
+    private final LongAdder casFailures = new LongAdder();
+    private final LongAdder eliminationHits = new LongAdder();
+
+    public void push(E e) {
+        Node<E> node = new Node<>(e);
+        while (true) {
+            Node<E> top = head.get();
+            node.next = top;
+            if (head.compareAndSet(top, node)) {
+                return;
+            }
+            casFailures.increment();
+            if (tryEliminatePush(node)) {
+                return;
+            }
+        }
+    }
+
+     /**
+       * @throws EmptyStackException 栈为空
+       **/
+    public E pop() {
+        Node<E> node = popNode();
+        if (node == null) {
+            throw new EmptyStackException();
+        }
+        return node.item;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == null;
+    }
+
+    public void pushAll(Iterable<? extends E> src) {
+        for (E e : src) {
+            push(e);
+        }
+    }
+
+     /**
+       * 和其他线程并发时，只保证取走调用期间能取到的元素，返回时栈不一定还是空的
+       **/
+    public void popAll(Collection<? super E> dst) {
+        Node<E> node;
+        while ((node = popNode()) != null) {
+            dst.add(node.item);
+        }
+    }
+
+    public long getCasFailures() {
+        return casFailures.sum();
+    }
+
+    public long getEliminationHits() {
+        return eliminationHits.sum();
+    }
+
+    private Node<E> popNode() {
+        while (true) {
+            Node<E> top = head.get();
+            if (top == null) {
+                return null;
+            }
+            if (head.compareAndSet(top, top.next)) {
+                top.next = null; // 消除过期引用，出栈的节点不再引用栈内的节点
+                return top;
+            }
+            casFailures.increment();
+            Node<E> eliminated = tryEliminatePop();
+            if (eliminated != null) {
+                return eliminated;
+            }
+        }
+    }
+
+     /**
+       * 把节点挂到随机槽位上等待pop取走，被取走返回true；超时后撤回，撤回失败说明在最后一刻被取走了
+       **/
+    private boolean tryEliminatePush(Node<E> node) {
+        int slot = ThreadLocalRandom.current().nextInt(ELIMINATION_SIZE);
+        if (!eliminationArray.compareAndSet(slot, null, node)) {
+            return false;
+        }
+        for (int i = 0; i < ELIMINATION_SPINS; i++) {
+            if (eliminationArray.get(slot) != node) {
+                eliminationHits.increment();
+                return true;
+            }
+        }
+        if (eliminationArray.compareAndSet(slot, node, null)) {
+            return false;
+        }
+        eliminationHits.increment();
+        return true;
+    }
+
+    private Node<E> tryEliminatePop() {
+        int slot = ThreadLocalRandom.current().nextInt(ELIMINATION_SIZE);
+        Node<E> node = eliminationArray.get(slot);
+        if (node != null && eliminationArray.compareAndSet(slot, node, null)) {
+            node.next = null;
+            return node;
+        }
+        return null;
+    }
+}
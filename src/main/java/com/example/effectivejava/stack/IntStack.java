@@ -0,0 +1,88 @@
+package com.example.effectivejava.stack;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * int专用的栈，直接用int[]存储，避免GenericFirst.Stack<Integer>每次push都自动装箱
+ * 《effective java》-6：避免自动装箱、拆箱（见UnnecessaryClass.boxInt）
+ * 扩容方式和com.example.effectivejava.Stack一致，基本类型没有过期引用的问题，出栈时不需要置空
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class IntStack {
+    private int[] elements;
+    private int size = 0;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    public IntStack() {
+        elements = new int[DEFAULT_INITIAL_CAPACITY];
+    }
+
+    public void push(int e) {
+        ensureCapacity(1);
+        elements[size++] = e;
+    }
+
+    public int pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[--size];
+    }
+
+     /**
+       * 返回栈顶元素但不出栈
+       * @throws EmptyStackException 栈为空
+       **/
+    public int peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+     /**
+       * 批量入栈，src[off]最先入栈，容量只检查一次
+       * @throws IndexOutOfBoundsException off、len超出src的范围
+       **/
+    public void pushAll(int[] src, int off, int len) {
+        if (off < 0 || len < 0 || len > src.length - off) {
+            throw new IndexOutOfBoundsException("off=" + off + ", len=" + len + ", length=" + src.length);
+        }
+        ensureCapacity(len);
+        System.arraycopy(src, off, elements, size, len);
+        size += len;
+    }
+
+     /**
+       * 批量出栈，顺序和逐个pop相同：dst[0]是原来的栈顶
+       * @return 实际出栈的个数，栈中元素不足dst.length时小于dst.length
+       **/
+    public int popInto(int[] dst) {
+        int n = Math.min(dst.length, size);
+        for (int i = 0; i < n; i++) {
+            dst[i] = elements[size - 1 - i];
+        }
+        size -= n;
+        return n;
+    }
+
+    /**
+     * Ensure space for at least n more elements, roughly
+     * doubling the capacity each time the array needs to grow.
+     */
+    private void ensureCapacity(int n) {
+        if (elements.length - size < n) {
+            elements = Arrays.copyOf(elements, Math.max(2 * size + 1, size + n));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.effectivejava.stack;
+
+import java.util.EmptyStackException;
+
+/**
+ * 不可变的持久化栈，新旧版本共享结构（单链表的公共后缀），push、pop都是O(1)且不拷贝任何元素
+ * 《effective java》-17：使可变性最小化，不可变对象可以自由地共享，所以"快照"就是对象本身，不需要clone
+ * 对比MyCloneObj.clone()：浅拷贝会共享elements数组，安全的深拷贝又是O(n)的
+ * @author Don
+ * @date 2026/10/18.
+ */
+public final class PersistentStack<E> {
+    private static final PersistentStack<Object> EMPTY = new PersistentStack<>(null, null, 0);
+
+    private final E head;
+    private final PersistentStack<E> tail;
+    private final int size;
+
+    private PersistentStack(E head, PersistentStack<E> tail, int size) {
+        this.head = head;
+        this.tail = tail;
+        this.size = size;
+    }
+
+     /**
+       * 空栈是单例，对任何类型都是安全的（和GenericFirst.identityFunction同样的泛型单例用法）
+       **/
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentStack<E> empty() {
+        return (PersistentStack<E>) EMPTY;
+    }
+
+    public PersistentStack<E> push(E e) {
+        return new PersistentStack<>(e, this, size + 1);
+    }
+
+     /**
+       * @return 去掉栈顶之后的栈，当前栈不变
+       * @throws EmptyStackException 栈为空
+       **/
+    public PersistentStack<E> pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return tail;
+    }
+
+     /**
+       * @throws EmptyStackException 栈为空
+       **/
+    public E peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return head;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (PersistentStack<E> s = this; s.size > 0; s = s.tail) {
+            sb.append(s.head);
+            if (s.size > 1) {
+                sb.append(", ");
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.effectivejava.stack;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EmptyStackException;
+
+/**
+ * 分段存储的栈，是com.example.effectivejava.Stack和GenericFirst.Stack的分段版本
+ * 1、扩容时只新增一个固定大小的段（chunk），不再像Arrays.copyOf那样整体拷贝，避免扩容时的延迟尖刺
+ * 2、出栈后尾部空闲段超过阈值会被释放，大量入栈后再出栈不会一直占着一个巨大的数组
+ * 3、释放时保留一个空闲段作为缓冲（滞后），避免在段边界上反复push/pop时不停地分配、释放
+ * 和《effective java》-7一样，出栈的位置要置null，消除过期引用
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class SegmentedStack<E> {
+    private static final int DEFAULT_CHUNK_SIZE = 1024;
+    private static final int DEFAULT_DIRECTORY_SIZE = 16;
+    //出栈后保留的空闲段数量，超过这个数才释放
+    private static final int SPARE_CHUNKS = 1;
+
+    private final int chunkShift;
+    private final int chunkMask;
+    //段目录，只存放段的引用，扩容时拷贝的只是目录
+    private Object[][] chunks;
+    //已分配的段数量
+    private int chunkCount = 0;
+    private int size = 0;
+
+    public SegmentedStack() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+     /**
+       * @param chunkSize 每段的元素个数，必须是2的幂
+       * @throws IllegalArgumentException chunkSize不是正的2的幂
+       **/
+    public SegmentedStack(int chunkSize) {
+        if (chunkSize <= 0 || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("chunkSize must be a power of two: " + chunkSize);
+        }
+        chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        chunkMask = chunkSize - 1;
+        chunks = new Object[DEFAULT_DIRECTORY_SIZE][];
+    }
+
+    public void push(E e) {
+        int chunk = size >>> chunkShift;
+        if (chunk == chunkCount) {
+            addChunk();
+        }
+        chunks[chunk][size & chunkMask] = e;
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        int index = --size;
+        Object[] chunk = chunks[index >>> chunkShift];
+        E result = (E) chunk[index & chunkMask];
+        chunk[index & chunkMask] = null; // 消除过期引用，防止内存占用
+        if ((index & chunkMask) == 0) {
+            trimChunks();
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+     /**
+       * 当前已分配的元素槽位数，用来观察释放效果
+       **/
+    public long capacity() {
+        return (long) chunkCount << chunkShift;
+    }
+
+    public void pushAll(Iterable<? extends E> src) {
+        for (E e : src) {
+            push(e);
+        }
+    }
+
+    public void popAll(Collection<? super E> dst) {
+        while (!isEmpty()) {
+            dst.add(pop());
+        }
+    }
+
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        chunks[chunkCount++] = new Object[chunkMask + 1];
+    }
+
+     /**
+       * 使用中的段之外只保留SPARE_CHUNKS个空闲段，其余的释放掉
+       * 段目录也随之收缩，但同样留有余量
+       **/
+    private void trimChunks() {
+        int usedChunks = (size + chunkMask) >>> chunkShift;
+        int keep = usedChunks + SPARE_CHUNKS;
+        if (chunkCount <= keep) {
+            return;
+        }
+        Arrays.fill(chunks, keep, chunkCount, null);
+        chunkCount = keep;
+        if (chunks.length > DEFAULT_DIRECTORY_SIZE && chunkCount < chunks.length / 4) {
+            chunks = Arrays.copyOf(chunks, Math.max(DEFAULT_DIRECTORY_SIZE, chunks.length / 2));
+        }
+    }
+}
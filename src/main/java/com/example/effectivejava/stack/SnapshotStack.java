@@ -0,0 +1,69 @@
+package com.example.effectivejava.stack;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * 用法和GenericFirst.Stack一样的可变栈，底层是PersistentStack，可以O(1)地打快照和回滚
+ * 用来替代MyCloneObj这种靠clone()做检查点的写法，快照之后原栈继续push/pop不会影响快照
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class SnapshotStack<E> {
+    private PersistentStack<E> current;
+
+    public SnapshotStack() {
+        this(PersistentStack.empty());
+    }
+
+     /**
+       * 从快照恢复出一个新的可变栈，相当于拷贝构造器（《effective java》-13中推荐的clone替代方式）
+       **/
+    public SnapshotStack(PersistentStack<E> snapshot) {
+        this.current = Objects.requireNonNull(snapshot, "snapshot");
+    }
+
+    public void push(E e) {
+        current = current.push(e);
+    }
+
+    public E pop() {
+        E result = current.peek();
+        current = current.pop();
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return current.isEmpty();
+    }
+
+    public int size() {
+        return current.size();
+    }
+
+    public void pushAll(Iterable<? extends E> src) {
+        for (E e : src) {
+            push(e);
+        }
+    }
+
+    public void popAll(Collection<? super E> dst) {
+        while (!isEmpty()) {
+            dst.add(pop());
+        }
+    }
+
+     /**
+       * O(1)快照，不拷贝任何元素
+       **/
+    public PersistentStack<E> snapshot() {
+        return current;
+    }
+
+     /**
+       * 回滚到之前的快照
+       **/
+    public void restore(PersistentStack<E> snapshot) {
+        current = Objects.requireNonNull(snapshot, "snapshot");
+    }
+}
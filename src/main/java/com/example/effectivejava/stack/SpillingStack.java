@@ -0,0 +1,298 @@
+package com.example.effectivejava.stack;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EmptyStackException;
+import java.util.Objects;
+
+/**
+ * 可以溢出到磁盘的栈，用于深度优先遍历这类工作列表可能超过堆大小的场景，API和GenericFirst.Stack一致
+ * 1、栈顶附近的热段（segment）留在堆上，热段数量超过上限时，把最底下的热段序列化后追加写到临时文件
+ * 2、磁盘上的段本身也是一个栈，pop把堆上的段取空后，从文件末尾整段读回来
+ * 3、文件按固定大小的窗口做内存映射，写出和读回都是整段连续的顺序I/O
+ * 4、至少保留两个热段，读回一个满段后紧接着push不会马上又溢出，避免在边界上来回读写
+ * 元素的序列化方式由Serializer决定（《effective java》-5：依赖注入优于硬连接资源）
+ * 使用完要close，删除临时文件（《effective java》-9：优先使用try-with-resources）
+ * @author Don
+ * @date 2026/10/18.
+ */
+public class SpillingStack<E> implements Closeable {
+    private static final int DEFAULT_SEGMENT_SIZE = 8192;
+    private static final int DEFAULT_HOT_SEGMENTS = 4;
+    //内存映射窗口大小
+    private static final long MAP_WINDOW = 64L * 1024 * 1024;
+
+     /**
+       * 元素的序列化方式，read必须能读回write写出的内容
+       **/
+    public interface Serializer<E> {
+        void write(E element, DataOutput out) throws IOException;
+
+        E read(DataInput in) throws IOException;
+    }
+
+    private final Serializer<E> serializer;
+    private final int segmentSize;
+    private final Path directory;
+
+    //堆上的段，hot[0]在最下面，hot[hotCount - 1]是栈顶所在的段，除栈顶段外都是满的
+    private final Object[][] hot;
+    private int hotCount = 0;
+    private int topSize = 0;
+    private long size = 0;
+    //留一个空段复用，减少分配
+    private Object[] spare;
+
+    //磁盘上每个段的起始位置和元素个数，段按写入顺序首尾相接
+    private final LongStack spilledOffsets = new LongStack();
+    private final IntStack spilledCounts = new IntStack();
+    private long writePosition = 0;
+    private Path file;
+    private FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart = -1;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    private long bytesSpilled = 0;
+    private long reloadCount = 0;
+    private long reloadNanos = 0;
+
+    public SpillingStack(Serializer<E> serializer) {
+        this(serializer, DEFAULT_SEGMENT_SIZE, DEFAULT_HOT_SEGMENTS, null);
+    }
+
+     /**
+       * @param segmentSize 每段的元素个数
+       * @param hotSegments 堆上最多保留的段数，至少为2
+       * @param directory 临时文件所在目录，为null时使用系统临时目录
+       * @throws IllegalArgumentException segmentSize或hotSegments不合法
+       **/
+    public SpillingStack(Serializer<E> serializer, int segmentSize, int hotSegments, Path directory) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("segmentSize must be positive: " + segmentSize);
+        }
+        if (hotSegments < 2) {
+            throw new IllegalArgumentException("hotSegments must be at least 2: " + hotSegments);
+        }
+        this.serializer = Objects.requireNonNull(serializer, "serializer");
+        this.segmentSize = segmentSize;
+        this.directory = directory;
+        this.hot = new Object[hotSegments][];
+    }
+
+     /**
+       * @throws UncheckedIOException 溢出到磁盘失败
+       **/
+    public void push(E e) {
+        if (hotCount == 0 || topSize == segmentSize) {
+            if (hotCount == hot.length) {
+                spillBottom();
+            }
+            hot[hotCount++] = newSegment();
+            topSize = 0;
+        }
+        hot[hotCount - 1][topSize++] = e;
+        size++;
+    }
+
+     /**
+       * @throws EmptyStackException 栈为空
+       * @throws UncheckedIOException 从磁盘读回失败
+       **/
+    @SuppressWarnings("unchecked")
+    public E pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        if (hotCount == 0) {
+            reload();
+        }
+        Object[] top = hot[hotCount - 1];
+        E result = (E) top[--topSize];
+        top[topSize] = null; // 消除过期引用，防止内存占用
+        size--;
+        if (topSize == 0) {
+            spare = top;
+            hot[--hotCount] = null;
+            topSize = hotCount == 0 ? 0 : segmentSize;
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public void pushAll(Iterable<? extends E> src) {
+        for (E e : src) {
+            push(e);
+        }
+    }
+
+    public void popAll(Collection<? super E> dst) {
+        while (!isEmpty()) {
+            dst.add(pop());
+        }
+    }
+
+     /**
+       * 累计写到磁盘的字节数
+       **/
+    public long getBytesSpilled() {
+        return bytesSpilled;
+    }
+
+     /**
+       * 从磁盘读回段的次数
+       **/
+    public long getReloadCount() {
+        return reloadCount;
+    }
+
+     /**
+       * 读回段（读文件加反序列化）累计耗时，纳秒
+       **/
+    public long getReloadNanos() {
+        return reloadNanos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+            file = null;
+        }
+    }
+
+    private Object[] newSegment() {
+        Object[] segment = spare;
+        spare = null;
+        return segment != null ? segment : new Object[segmentSize];
+    }
+
+     /**
+       * 把最底下的热段整段序列化，追加到文件末尾
+       **/
+    private void spillBottom() {
+        Object[] bottom = hot[0];
+        try {
+            buffer.reset();
+            DataOutputStream out = new DataOutputStream(buffer);
+            for (int i = 0; i < segmentSize; i++) {
+                @SuppressWarnings("unchecked")
+                E e = (E) bottom[i];
+                serializer.write(e, out);
+            }
+            out.flush();
+            byte[] bytes = buffer.toByteArray();
+            transfer(writePosition, bytes, true);
+            spilledOffsets.push(writePosition);
+            spilledCounts.push(segmentSize);
+            writePosition += bytes.length;
+            bytesSpilled += bytes.length;
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("spill failed", ex);
+        }
+        System.arraycopy(hot, 1, hot, 0, hotCount - 1);
+        hot[--hotCount] = null;
+        Arrays.fill(bottom, null);
+        spare = bottom;
+    }
+
+     /**
+       * 从文件末尾读回最上面的一个段，作为唯一的热段
+       * 整段读完并反序列化成功后才出栈段的记录，失败时状态不变，可以重试pop
+       **/
+    private void reload() {
+        long start = System.nanoTime();
+        long offset = spilledOffsets.peek();
+        int count = spilledCounts.peek();
+        byte[] bytes = new byte[(int) (writePosition - offset)];
+        Object[] segment = newSegment();
+        boolean loaded = false;
+        try {
+            transfer(offset, bytes, false);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            for (int i = 0; i < count; i++) {
+                segment[i] = serializer.read(in);
+            }
+            loaded = true;
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("reload failed", ex);
+        }
+        finally {
+            if (!loaded) {
+                Arrays.fill(segment, null);
+                spare = segment;
+            }
+        }
+        spilledOffsets.pop();
+        spilledCounts.pop();
+        writePosition = offset;
+        hot[0] = segment;
+        hotCount = 1;
+        topSize = count;
+        reloadCount++;
+        reloadNanos += System.nanoTime() - start;
+    }
+
+     /**
+       * 在position处写入或读出bytes，跨越映射窗口时分多次完成
+       **/
+    private void transfer(long position, byte[] bytes, boolean write) throws IOException {
+        int done = 0;
+        while (done < bytes.length) {
+            long pos = position + done;
+            MappedByteBuffer mapped = window(pos);
+            int offsetInWindow = (int) (pos - windowStart);
+            int n = (int) Math.min(bytes.length - done, MAP_WINDOW - offsetInWindow);
+            mapped.position(offsetInWindow);
+            if (write) {
+                mapped.put(bytes, done, n);
+            }
+            else {
+                mapped.get(bytes, done, n);
+            }
+            done += n;
+        }
+    }
+
+    private MappedByteBuffer window(long position) throws IOException {
+        long start = position / MAP_WINDOW * MAP_WINDOW;
+        if (window == null || start != windowStart) {
+            if (channel == null) {
+                file = directory == null ? Files.createTempFile("spilling-stack", ".bin")
+                        : Files.createTempFile(directory, "spilling-stack", ".bin");
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            window = channel.map(FileChannel.MapMode.READ_WRITE, start, MAP_WINDOW);
+            windowStart = start;
+        }
+        return window;
+    }
+}
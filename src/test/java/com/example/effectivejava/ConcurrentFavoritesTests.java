@@ -0,0 +1,128 @@
+package com.example.effectivejava;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class ConcurrentFavoritesTests {
+
+    @Test
+    void putAndGet() {
+        ConcurrentFavorites favorites = new ConcurrentFavorites();
+        assertNull(favorites.getFavorite(String.class));
+        favorites.putFavorite(String.class, "Java");
+        favorites.putFavorite(Integer.class, 0xcafebabe);
+        favorites.putFavorite(Class.class, ConcurrentFavorites.class);
+        assertEquals("Java", favorites.getFavorite(String.class));
+        assertEquals(0xcafebabe, (int) favorites.getFavorite(Integer.class));
+        assertSame(ConcurrentFavorites.class, favorites.getFavorite(Class.class));
+        assertNull(favorites.getFavorite(Long.class));
+        assertThrows(NullPointerException.class, () -> favorites.putFavorite(null, "x"));
+        //绕过泛型检查传入错误类型的实例
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<Object> raw = (Class) Integer.class;
+        assertThrows(ClassCastException.class, () -> favorites.putFavorite(raw, "not an integer"));
+        assertEquals(0xcafebabe, (int) favorites.getFavorite(Integer.class));
+    }
+
+    @Test
+    void cachedResultsSeeLaterPuts() {
+        ConcurrentFavorites favorites = new ConcurrentFavorites();
+        favorites.putFavorite(String.class, "a");
+        assertEquals("a", favorites.getFavorite(String.class));
+        assertNull(favorites.getFavorite(Long.class));
+        assertNull(favorites.findFavorite(Number.class));
+        //替换已注册的类型
+        favorites.putFavorite(String.class, "b");
+        assertEquals("b", favorites.getFavorite(String.class));
+        assertEquals("b", favorites.findFavorite(CharSequence.class));
+        //注册新的类型后，缓存的“没有”要过期
+        favorites.putFavorite(Long.class, 1L);
+        assertEquals(1L, (long) favorites.getFavorite(Long.class));
+        assertEquals(1L, favorites.findFavorite(Number.class));
+        //置为null后子类型查找不再返回它，恢复后重新可见
+        favorites.putFavorite(Long.class, null);
+        assertNull(favorites.getFavorite(Long.class));
+        assertNull(favorites.findFavorite(Number.class));
+        favorites.putFavorite(Long.class, 2L);
+        assertEquals(2L, favorites.findFavorite(Number.class));
+    }
+
+    @Test
+    void findsSubtypes() {
+        ConcurrentFavorites favorites = new ConcurrentFavorites();
+        favorites.putFavorite(Integer.class, 1);
+        favorites.putFavorite(Long.class, 2L);
+        assertNull(favorites.getFavorite(Number.class));
+        //最早注册的子类型
+        assertEquals(1, favorites.findFavorite(Number.class));
+        assertEquals(1, favorites.findFavorite(Serializable.class));
+        assertEquals(1, favorites.findFavorite(Object.class));
+        //精确注册的优先
+        favorites.putFavorite(Number.class, 3.0);
+        assertEquals(3.0, favorites.findFavorite(Number.class));
+        assertEquals(1, favorites.findFavorite(Comparable.class));
+        assertNull(favorites.findFavorite(CharSequence.class));
+    }
+
+     /**
+       * 一个线程不断写入递增的值，读线程看到的值不会倒退，最后都能看到最终的值
+       **/
+    @Test
+    void concurrentReadersSeeMonotonicValues() throws Exception {
+        ConcurrentFavorites favorites = new ConcurrentFavorites();
+        favorites.putFavorite(Long.class, 0L);
+        int readers = 4;
+        long writes = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(readers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            boolean subtypes = (r & 1) == 1;
+            futures.add(pool.submit(() -> {
+                start.await();
+                long last = 0;
+                while (last < writes) {
+                    long value = subtypes ? (Long) favorites.findFavorite(Number.class) : favorites.getFavorite(Long.class);
+                    assertTrue(value >= last, value + " after " + last);
+                    last = value;
+                    //写线程中途注册了新的类型，缓存的“没有”过期后要能看到它
+                    CharSequence s = favorites.findFavorite(CharSequence.class);
+                    assertTrue(s == null || s.equals("s"));
+                }
+                return null;
+            }));
+        }
+        futures.add(pool.submit(() -> {
+            start.await();
+            for (long i = 1; i <= writes; i++) {
+                favorites.putFavorite(Long.class, i);
+                if (i == writes / 2) {
+                    favorites.putFavorite(String.class, "s");
+                }
+            }
+            return null;
+        }));
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(writes, (long) favorites.getFavorite(Long.class));
+        assertEquals("s", favorites.findFavorite(CharSequence.class));
+    }
+}
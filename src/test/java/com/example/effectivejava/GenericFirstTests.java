@@ -0,0 +1,64 @@
+package com.example.effectivejava;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class GenericFirstTests {
+
+    private static List<Integer> range(int n) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    void pushAllKeepsOrderForEverySource() {
+        List<Integer> expected = range(100);
+        List<Iterable<Integer>> sources = Arrays.asList(new ArrayList<>(expected), new LinkedList<>(expected),
+                new ArrayDeque<>(expected), () -> expected.iterator());
+        for (Iterable<Integer> source : sources) {
+            GenericFirst.Stack<Integer> stack = new GenericFirst.Stack<>();
+            stack.push(-1);
+            stack.pushAll(source);
+            for (int i = 99; i >= 0; i--) {
+                assertEquals(i, (int) stack.pop());
+            }
+            assertEquals(-1, (int) stack.pop());
+            assertTrue(stack.isEmpty());
+        }
+    }
+
+    @Test
+    void popAllAndDrainToUsePopOrder() {
+        GenericFirst.Stack<Integer> stack = new GenericFirst.Stack<>();
+        stack.pushAll(range(10));
+
+        List<Number> drained = new ArrayList<>();
+        assertEquals(3, stack.drainTo(drained, 3));
+        assertEquals(Arrays.asList(9, 8, 7), drained);
+
+        Integer[] array = new Integer[4];
+        assertEquals(4, stack.popAll(array));
+        assertArrayEquals(new Integer[]{6, 5, 4, 3}, array);
+
+        List<Object> rest = new ArrayList<>();
+        stack.popAll(rest);
+        assertEquals(Arrays.asList(2, 1, 0), rest);
+        assertTrue(stack.isEmpty());
+        assertEquals(0, stack.popAll(new Integer[2]));
+        assertThrows(IllegalArgumentException.class, () -> stack.drainTo(rest, -1));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.effectivejava.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class ConcurrentInstrumentedSetTests {
+
+    @Test
+    void countsEveryOperation() {
+        ConcurrentInstrumentedSet<String> set = new ConcurrentInstrumentedSet<>(new HashSet<>());
+        //InstrumentedHashSet在这里会得到6
+        set.addAll(Arrays.asList("1", "2", "3"));
+        assertEquals(3, set.getAddCount());
+        set.add("1");
+        assertEquals(4, set.getAddCount());
+        assertEquals(3, set.getSuccessfulAddCount());
+        assertTrue(set.contains("2"));
+        assertFalse(set.contains("9"));
+        assertTrue(set.containsAll(Arrays.asList("1", "2")));
+        assertEquals(3, set.getContainsHits());
+        assertEquals(1, set.getContainsMisses());
+        set.remove("9");
+        set.retainAll(Arrays.asList("1", "2"));
+        Iterator<String> it = set.iterator();
+        it.next();
+        it.remove();
+        assertEquals(3, set.getRemoveCount());
+        assertEquals(2, set.getSuccessfulRemoveCount());
+        assertEquals(1, set.size());
+        assertEquals(new HashSet<>(set), set);
+        set.resetCounts();
+        assertEquals(0, set.getAddCount());
+    }
+
+    @Test
+    void bulkOperationsWithItself() {
+        //被包装的是HashSet，直接遍历自己的同时删除会抛ConcurrentModificationException
+        ConcurrentInstrumentedSet<String> set = new ConcurrentInstrumentedSet<>(new HashSet<>());
+        set.addAll(Arrays.asList("1", "2", "3", "4"));
+        assertFalse(set.addAll(set));
+        assertEquals(8, set.getAddCount());
+        assertEquals(4, set.getSuccessfulAddCount());
+        assertTrue(set.removeAll(set));
+        assertTrue(set.isEmpty());
+        assertEquals(4, set.getRemoveCount());
+        assertEquals(4, set.getSuccessfulRemoveCount());
+        assertFalse(set.removeAll(set));
+    }
+
+    @Test
+    void countsAreExactUnderContention() throws Exception {
+        ConcurrentInstrumentedSet<Integer> set = ConcurrentInstrumentedSet.concurrent();
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    set.add(i % 1000);
+                    set.contains(i % 2000);
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals((long) threads * perThread, set.getAddCount());
+        assertEquals(1000, set.getSuccessfulAddCount());
+        assertEquals((long) threads * perThread, set.getContainsHits() + set.getContainsMisses());
+        assertEquals(1000, set.size());
+    }
+
+     /**
+       * 多个线程同时删除同样的元素：每个元素只有一次删除是成功的
+       **/
+    @Test
+    void removeIfCountsOnlyActualRemovals() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            ConcurrentInstrumentedSet<Integer> set = ConcurrentInstrumentedSet.concurrent();
+            int size = 10_000;
+            for (int i = 0; i < size; i++) {
+                set.add(i);
+            }
+            int threads = 4;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                boolean even = (t & 1) == 0;
+                futures.add(pool.submit(() -> {
+                    set.removeIf(e -> (e & 1) == 0 || !even);
+                    set.retainAll(Arrays.asList(-1));
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+            assertTrue(set.isEmpty());
+            assertEquals(size, set.getSuccessfulRemoveCount());
+            assertTrue(set.getRemoveCount() >= size);
+        }
+        //被包装的是HashSet时也能正常删除
+        ConcurrentInstrumentedSet<String> plain = new ConcurrentInstrumentedSet<>(new HashSet<>(Arrays.asList("a", "bb", "ccc")));
+        assertTrue(plain.removeIf(e -> e.length() > 1));
+        assertFalse(plain.removeIf(e -> e.length() > 1));
+        assertEquals(2, plain.getSuccessfulRemoveCount());
+        assertEquals(new HashSet<>(Arrays.asList("a")), plain);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.effectivejava.collection;
+
+import com.example.effectivejava.collection.CollectionMetrics.Operation;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class InstrumentedTests {
+
+    @Test
+    void histogramBucketsAreWithinRelativeError() {
+        for (long v : new long[]{0, 1, 7, 8, 15, 16, 17, 100, 1_000, 123_456_789, 1L << 39}) {
+            int bucket = LatencyHistogram.bucket(v);
+            long upper = LatencyHistogram.upperBound(bucket);
+            assertTrue(upper >= v, "v=" + v);
+            assertTrue(upper - v <= v / 8, "v=" + v);
+            assertEquals(bucket, LatencyHistogram.bucket(upper), "v=" + v);
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            (i % 2 == 0 ? a : b).record(i);
+        }
+        LatencyHistogram merged = a.copy().merge(b);
+        assertEquals(1000, merged.count());
+        assertEquals(1000, merged.max());
+        assertEquals(500.5, merged.mean(), 1e-9);
+        assertEquals(500, merged.valueAtQuantile(0.5), 500 / 8);
+        assertEquals(990, merged.valueAtQuantile(0.99), 990 / 8);
+        assertEquals(500, a.count());
+    }
+
+    @Test
+    void decoratorsCountOperations() {
+        CollectionMetrics metrics = new CollectionMetrics("test", 1);
+        Set<String> set = Instrumented.set(new HashSet<>(), metrics);
+        set.addAll(Arrays.asList("a", "b"));
+        set.add("c");
+        set.contains("a");
+        set.remove("b");
+        assertEquals(new HashSet<>(Arrays.asList("a", "c")), set);
+        assertEquals(1, metrics.count(Operation.ADD_ALL));
+        assertEquals(1, metrics.count(Operation.ADD));
+        assertEquals(1, metrics.latency(Operation.CONTAINS).count());
+
+        List<Integer> arrayList = Instrumented.list(new ArrayList<>(Arrays.asList(3, 1, 2)), metrics);
+        List<Integer> linkedList = Instrumented.list(new LinkedList<>(Arrays.asList(3, 1, 2)), metrics);
+        assertTrue(arrayList instanceof RandomAccess);
+        assertFalse(linkedList instanceof RandomAccess);
+        arrayList.sort(null);
+        linkedList.sort(null);
+        assertEquals(Arrays.asList(1, 2, 3), arrayList);
+        assertEquals(arrayList, linkedList);
+        assertEquals(Integer.valueOf(1), arrayList.get(0));
+        assertEquals(1, metrics.count(Operation.GET));
+        assertEquals(2, metrics.count(Operation.SORT));
+    }
+
+    @Test
+    void mapForwardsAtomicOperations() {
+        CollectionMetrics metrics = new CollectionMetrics("map", 0);
+        Map<String, Integer> map = Instrumented.map(new ConcurrentHashMap<>(), metrics);
+        AtomicInteger calls = new AtomicInteger();
+        map.computeIfAbsent("k", k -> calls.incrementAndGet());
+        map.computeIfAbsent("k", k -> calls.incrementAndGet());
+        map.merge("k", 5, Integer::sum);
+        assertEquals(1, calls.get());
+        assertEquals(Integer.valueOf(6), map.get("k"));
+        assertEquals(2, metrics.count(Operation.COMPUTE));
+        assertEquals(1, metrics.count(Operation.MERGE));
+        //没有被内部的get、put重复计数
+        assertEquals(1, metrics.count(Operation.GET));
+        assertEquals(0, metrics.count(Operation.PUT));
+        //samplingInterval为0时只计数不计时
+        assertEquals(0, metrics.latency(Operation.COMPUTE).count());
+        assertThrows(IllegalArgumentException.class, () -> new CollectionMetrics("bad", 3));
+    }
+
+    @Test
+    void publishesOverJmx() throws Exception {
+        CollectionMetrics metrics = new CollectionMetrics("jmx \"test\"", 1);
+        Map<Integer, Integer> map = Instrumented.map(new ConcurrentHashMap<>(), metrics);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        ObjectName name = metrics.register();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1, server.getAttribute(name, "SamplingInterval"));
+            CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+            assertEquals(1, operations.length);
+            assertEquals("PUT", operations[0].get("operation"));
+            assertEquals(100L, operations[0].get("count"));
+            assertThrows(IllegalStateException.class, metrics::register);
+            server.invoke(name, "reset", null, null);
+            assertEquals(0, metrics.count(Operation.PUT));
+        }
+        finally {
+            metrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.effectivejava.collection;
+
+import com.example.effectivejava.InstrumentedHashSet;
+import com.example.effectivejava.collection.CollectionMetrics.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class PrimitiveHashSetTests {
+
+    @Test
+    void intSetMatchesHashSet() {
+        SplittableRandom random = new SplittableRandom(20);
+        IntHashSet set = new IntHashSet(4, 0.75f);
+        Set<Integer> expected = new HashSet<>();
+        //键的范围很小，冲突、删除后前移和扩容都会频繁发生
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(-300, 300);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.add(key), set.add(key));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), set.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.contains(key), set.contains(key));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        assertEquals(expected, set);
+        assertEquals(set, expected);
+        assertEquals(expected.hashCode(), set.hashCode());
+        for (int key : new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, 0}) {
+            set.add(key);
+            assertTrue(set.contains((Object) key));
+        }
+        assertFalse(set.contains((Object) 1L));
+        int[] values = set.toIntArray();
+        assertEquals(set.size(), values.length);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+    }
+
+    @Test
+    void longSetMatchesHashSet() {
+        SplittableRandom random = new SplittableRandom(21);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            //高32位不同、低32位相同的键也要能区分
+            long key = ((long) random.nextInt(-20, 20) << 32) | random.nextInt(0, 20);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.add(key), set.add(key));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), set.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.contains(key), set.contains(key));
+            }
+        }
+        assertEquals(expected, set);
+        assertEquals(expected.hashCode(), set.hashCode());
+        assertFalse(set.contains((Object) 1));
+    }
+
+    @Test
+    void iteratorRemoveVisitsEveryElementOnce() {
+        for (int seed = 0; seed < 20; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            IntHashSet set = new IntHashSet(0, 0.9f);
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < 1000; i++) {
+                int key = random.nextInt(-2000, 2000);
+                set.add(key);
+                expected.add(key);
+            }
+            Set<Integer> seen = new HashSet<>();
+            for (Iterator<Integer> it = set.iterator(); it.hasNext(); ) {
+                int key = it.next();
+                assertTrue(seen.add(key), "visited twice: " + key);
+                if ((key & 1) == 0) {
+                    it.remove();
+                }
+            }
+            assertEquals(expected, seen);
+            expected.removeIf(key -> (key & 1) == 0);
+            assertEquals(expected, set);
+        }
+
+        IntHashSet set = new IntHashSet();
+        set.addAll(Arrays.asList(1, 2, 3));
+        Iterator<Integer> it = set.iterator();
+        it.next();
+        set.add(4);
+        assertThrows(ConcurrentModificationException.class, it::next);
+        assertThrows(IllegalArgumentException.class, () -> new IntHashSet(16, 1f));
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(-1));
+    }
+
+    @Test
+    void backsInstrumentedWrappers() {
+        CollectionMetrics metrics = new CollectionMetrics("ids", 1);
+        Set<Integer> instrumented = Instrumented.set(new IntHashSet(), metrics);
+        instrumented.addAll(Arrays.asList(1, 2, 3));
+        instrumented.remove(2);
+        assertTrue(instrumented.contains(1));
+        assertEquals(new HashSet<>(Arrays.asList(1, 3)), instrumented);
+        assertEquals(1, metrics.count(Operation.CONTAINS));
+
+        ConcurrentInstrumentedSet<Long> counted = new ConcurrentInstrumentedSet<>(new LongHashSet());
+        counted.add(7L);
+        counted.add(7L);
+        assertEquals(2, counted.getAddCount());
+        assertEquals(1, counted.getSuccessfulAddCount());
+
+        InstrumentedHashSet.InstrumentedSet<Integer> legacy = new InstrumentedHashSet.InstrumentedSet<>(new IntHashSet());
+        legacy.addAll(Arrays.asList(5, 5, 6));
+        assertEquals(3, legacy.getAddCount());
+        assertTrue(legacy.contains(6));
+    }
+}
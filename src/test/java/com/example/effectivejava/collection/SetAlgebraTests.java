@@ -0,0 +1,83 @@
+package com.example.effectivejava.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class SetAlgebraTests {
+
+    private static Set<Integer> randomSet(Random random, int size, int bound, boolean sorted) {
+        Set<Integer> set = sorted ? new TreeSet<>() : new HashSet<>();
+        while (set.size() < size) {
+            set.add(random.nextInt(bound));
+        }
+        return set;
+    }
+
+    @Test
+    void matchesJdkSetOperations() {
+        Random random = new Random(42);
+        int[][] sizes = {{0, 10}, {10, 10}, {10, 10_000}, {100_000, 200}, {100_000, 150_000}};
+        for (int[] size : sizes) {
+            for (boolean sorted : new boolean[]{false, true}) {
+                Set<Integer> s1 = randomSet(random, size[0], 400_000, sorted);
+                Set<Integer> s2 = randomSet(random, size[1], 400_000, sorted);
+
+                Set<Integer> union = new HashSet<>(s1);
+                union.addAll(s2);
+                Set<Integer> intersection = new HashSet<>(s1);
+                intersection.retainAll(s2);
+                Set<Integer> difference = new HashSet<>(s1);
+                difference.removeAll(s2);
+
+                assertEquals(union, SetAlgebra.union(s1, s2));
+                assertEquals(union, SetAlgebra.unionView(s1, s2));
+                assertEquals(union.size(), SetAlgebra.unionView(s1, s2).size());
+                assertEquals(intersection, SetAlgebra.intersection(s1, s2));
+                assertEquals(intersection.size(), SetAlgebra.intersectionSize(s1, s2));
+                assertEquals(difference, SetAlgebra.difference(s1, s2));
+            }
+        }
+    }
+
+     /**
+       * ArrayList和LinkedList内容相同时相等：较小的s2里的LinkedList可能进入结果，结果的元素类型必须是两者共同的List
+       **/
+    @Test
+    void intersectionOfEqualElementsWithDifferentClasses() {
+        Set<ArrayList<Integer>> arrays = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            arrays.add(new ArrayList<>(Arrays.asList(i, i + 1)));
+        }
+        Set<LinkedList<Integer>> linked = new HashSet<>();
+        linked.add(new LinkedList<>(Arrays.asList(3, 4)));
+        linked.add(new LinkedList<>(Arrays.asList(7, 8)));
+        linked.add(new LinkedList<>(Arrays.asList(-1, 0)));
+
+        Set<List<Integer>> expected = new HashSet<>();
+        expected.add(Arrays.asList(3, 4));
+        expected.add(Arrays.asList(7, 8));
+        for (Set<List<Integer>> result : Arrays.asList(SetAlgebra.<List<Integer>>intersection(arrays, linked),
+                SetAlgebra.<List<Integer>>intersection(linked, arrays))) {
+            assertEquals(expected, result);
+            for (List<Integer> list : result) {
+                assertEquals(2, list.size());
+                assertEquals(list.get(0) + 1, (int) list.get(1));
+            }
+        }
+        assertEquals(2, SetAlgebra.intersectionSize(arrays, linked));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.effectivejava.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class AsyncFileCopierTests {
+
+    @Test
+    void copiesWithDoubleBuffering() throws IOException {
+        Path dir = Files.createTempDirectory("async-copier");
+        try (AsyncFileCopier copier = new AsyncFileCopier.Builder().build()) {
+            for (int size : new int[]{0, 1, DirectBufferPool.BUFFER_SIZE, 5 * DirectBufferPool.BUFFER_SIZE / 2 + 17}) {
+                byte[] data = new byte[size];
+                new Random(size).nextBytes(data);
+                Path src = Files.write(dir.resolve("src" + size), data);
+                //目标文件原来更长，复制后要被截断
+                Path dst = Files.write(dir.resolve("dst" + size), new byte[size + 100]);
+                CopyResult result = copier.copy(src, dst).join();
+                assertEquals(size, result.getBytes());
+                assertArrayEquals(data, Files.readAllBytes(dst));
+            }
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void capsConcurrentCopies() throws IOException {
+        Path dir = Files.createTempDirectory("async-copier");
+        try (AsyncFileCopier copier = new AsyncFileCopier.Builder().maxConcurrentCopies(4).build()) {
+            byte[] data = new byte[300_000];
+            new Random(24).nextBytes(data);
+            Path src = Files.write(dir.resolve("src"), data);
+            AtomicInteger maxActive = new AtomicInteger();
+            List<CompletableFuture<CopyResult>> copies = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                copies.add(copier.copy(src, dir.resolve("dst" + i))
+                        .whenComplete((r, ex) -> maxActive.accumulateAndGet(copier.activeCopies(), Math::max)));
+            }
+            CompletableFuture.allOf(copies.toArray(new CompletableFuture<?>[0])).join();
+            assertTrue(maxActive.get() <= 4, "active " + maxActive.get());
+            assertEquals(0, copier.activeCopies());
+            for (int i = 0; i < 200; i += 37) {
+                assertArrayEquals(data, Files.readAllBytes(dir.resolve("dst" + i)));
+            }
+
+            //排在后面的复制立即失败也不会影响其他复制
+            List<CompletableFuture<CopyResult>> failures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                failures.add(copier.copy(dir.resolve("missing"), dir.resolve("never")));
+            }
+            for (CompletableFuture<CopyResult> failure : failures) {
+                CompletionException ex = assertThrows(CompletionException.class, failure::join);
+                assertTrue(ex.getCause() instanceof NoSuchFileException);
+            }
+            assertEquals(0, copier.activeCopies());
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void cancelledQueuedCopyLeavesDestinationUntouched() throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("async-copier");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        try (AsyncFileCopier copier = new AsyncFileCopier.Builder().maxConcurrentCopies(1).executor(executor).build()) {
+            byte[] data = new byte[300_000];
+            new Random(24).nextBytes(data);
+            Path src = Files.write(dir.resolve("src"), data);
+            byte[] existing = "keep me".getBytes(StandardCharsets.US_ASCII);
+            Path kept = Files.write(dir.resolve("kept"), existing);
+            //唯一的线程被占住，第一个复制的读写回调无法执行，第二个复制一定在排队
+            executor.execute(() -> {
+                try {
+                    blocked.await();
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            CompletableFuture<CopyResult> first = copier.copy(src, dir.resolve("first"));
+            CompletableFuture<CopyResult> queued = copier.copy(src, kept);
+            assertTrue(queued.cancel(false));
+            blocked.countDown();
+            first.join();
+            //只有一个线程，排在被取消的复制后面的复制完成时，被取消的复制已经出队
+            copier.copy(src, dir.resolve("last")).join();
+            assertTrue(queued.isCancelled());
+            assertArrayEquals(existing, Files.readAllBytes(kept));
+        }
+        finally {
+            blocked.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.effectivejava.io;
+
+import com.example.effectivejava.TryResourceProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class FileCopierTests {
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    void copiesWithTransferTo() throws IOException {
+        Path dir = Files.createTempDirectory("copier");
+        try {
+            byte[] data = randomBytes(3 * DirectBufferPool.BUFFER_SIZE + 12345);
+            Path src = Files.write(dir.resolve("src"), data);
+            Files.write(dir.resolve("dst"), randomBytes(10 * DirectBufferPool.BUFFER_SIZE));
+
+            CopyResult result = FileCopier.copy(src, dir.resolve("dst"));
+            assertEquals(data.length, result.getBytes());
+            assertTrue(result.isZeroCopy());
+            assertArrayEquals(data, Files.readAllBytes(dir.resolve("dst")));
+
+            result = new TryResourceProcessor().copyWithChannels(src.toString(), dir.resolve("dst2").toString());
+            assertEquals(data.length, result.getBytes());
+            assertArrayEquals(data, Files.readAllBytes(dir.resolve("dst2")));
+
+            assertEquals(0, FileCopier.copy(Files.write(dir.resolve("empty"), new byte[0]), dir.resolve("dst3")).getBytes());
+            assertThrows(NoSuchFileException.class, () -> FileCopier.copy(dir.resolve("missing"), dir.resolve("dst4")));
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void loopsOverPartialTransfers() throws IOException {
+        Path dir = Files.createTempDirectory("copier");
+        try {
+            byte[] data = randomBytes(100_003);
+            Path src = Files.write(dir.resolve("src"), data);
+            try (FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(dir.resolve("dst"), StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+                //每次最多传输1000字节，模拟transferTo只传输了一部分
+                CopyResult result = FileCopier.copy(in, out, 1000);
+                assertEquals(data.length, result.getBytes());
+            }
+            assertArrayEquals(data, Files.readAllBytes(dir.resolve("dst")));
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void bufferedFallbackAndStreams() throws IOException {
+        Path dir = Files.createTempDirectory("copier");
+        try {
+            byte[] data = randomBytes(2 * DirectBufferPool.BUFFER_SIZE + 7);
+            Path src = Files.write(dir.resolve("src"), data);
+            CopyResult result = FileCopier.copyBuffered(src, dir.resolve("dst"));
+            assertEquals(data.length, result.getBytes());
+            assertFalse(result.isZeroCopy());
+            assertArrayEquals(data, Files.readAllBytes(dir.resolve("dst")));
+
+            //源文件比预期的短时在文件结束处停止
+            try (FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(dir.resolve("tail"), StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+                assertEquals(data.length - 100, FileCopier.copyBuffered(in, out, 100, data.length + 5000L));
+            }
+
+            result = FileCopier.copy(new ByteArrayInputStream(data), dir.resolve("fromStream"));
+            assertEquals(data.length, result.getBytes());
+            assertArrayEquals(data, Files.readAllBytes(dir.resolve("fromStream")));
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+}
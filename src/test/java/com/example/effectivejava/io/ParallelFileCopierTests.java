@@ -0,0 +1,78 @@
+package com.example.effectivejava.io;
+
+import com.example.effectivejava.io.ParallelFileCopier.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class ParallelFileCopierTests {
+
+    @Test
+    void copiesRegionsWithEveryStrategy() throws IOException {
+        Path dir = Files.createTempDirectory("parallel-copier");
+        try {
+            //不是区域大小的整数倍，最后一个区域较短
+            byte[] data = new byte[37 * 8192 + 1234];
+            new Random(22).nextBytes(data);
+            Path src = Files.write(dir.resolve("src"), data);
+            for (Strategy strategy : Strategy.values()) {
+                Path dst = dir.resolve(strategy.name());
+                //目标文件原来更长，复制后要被截断
+                Files.write(dst, new byte[data.length * 2]);
+                AtomicLong maxProgress = new AtomicLong();
+                AtomicInteger calls = new AtomicInteger();
+                ParallelFileCopier copier = new ParallelFileCopier.Builder()
+                        .parallelism(3)
+                        .regionSize(8192)
+                        .strategy(strategy)
+                        .force(true)
+                        .progress((copied, total) -> {
+                            assertEquals(data.length, total);
+                            maxProgress.accumulateAndGet(copied, Math::max);
+                            calls.incrementAndGet();
+                        })
+                        .build();
+                CopyResult result = copier.copy(src, dst);
+                assertEquals(data.length, result.getBytes());
+                assertEquals(strategy == Strategy.TRANSFER, result.isZeroCopy());
+                assertArrayEquals(data, Files.readAllBytes(dst), strategy.name());
+                assertEquals(data.length, maxProgress.get());
+                assertEquals(38, calls.get());
+            }
+
+            Path empty = Files.write(dir.resolve("empty"), new byte[0]);
+            assertEquals(0, new ParallelFileCopier.Builder().build().copy(empty, dir.resolve("emptyCopy")).getBytes());
+            assertEquals(0, Files.size(dir.resolve("emptyCopy")));
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void rejectsBadArguments() throws IOException {
+        ParallelFileCopier.Builder builder = new ParallelFileCopier.Builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.regionSize(5000));
+        assertThrows(IllegalArgumentException.class, () -> builder.regionSize(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.parallelism(0));
+        Path dir = Files.createTempDirectory("parallel-copier");
+        try {
+            assertThrows(NoSuchFileException.class, () -> builder.build().copy(dir.resolve("missing"), dir.resolve("dst")));
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.effectivejava.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class ParallelGzipTests {
+
+    private static byte[] logLines(int bytes) {
+        StringBuilder sb = new StringBuilder(bytes + 100);
+        Random random = new Random(bytes);
+        for (int i = 0; sb.length() < bytes; i++) {
+            sb.append("2026-10-18 12:00:").append(i % 60).append(" INFO request ").append(random.nextInt(1000))
+                    .append(" served in ").append(random.nextInt(500)).append("ms\n");
+        }
+        return Arrays.copyOf(sb.toString().getBytes(StandardCharsets.US_ASCII), bytes);
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void producesStandardMultiMemberGzip() throws IOException {
+        ParallelGzip gzip = new ParallelGzip.Builder().blockSize(4096).parallelism(3).build();
+        for (int size : new int[]{0, 1, 4096, 4097, 100_000}) {
+            byte[] data = logLines(size);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            CompressionResult result = gzip.compress(new ByteArrayInputStream(data), compressed);
+            assertEquals(size, result.getInputBytes());
+            assertEquals(compressed.size(), result.getOutputBytes());
+            //JDK的GZIPInputStream和ParallelGzip.decompress都能解压
+            assertArrayEquals(data, gunzip(compressed.toByteArray()));
+            ByteArrayOutputStream restored = new ByteArrayOutputStream();
+            CompressionResult back = ParallelGzip.decompress(new ByteArrayInputStream(compressed.toByteArray()), restored);
+            assertArrayEquals(data, restored.toByteArray());
+            assertEquals(size, back.getInputBytes());
+            assertEquals(compressed.size(), back.getOutputBytes());
+        }
+        byte[] logs = logLines(100_000);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        assertTrue(gzip.compress(new ByteArrayInputStream(logs), compressed).ratio() > 3);
+    }
+
+    @Test
+    void decompressesJdkAndConcatenatedGzip() throws IOException {
+        byte[] first = logLines(50_000);
+        byte[] second = logLines(30_000);
+        ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+        for (byte[] part : new byte[][]{first, second}) {
+            try (GZIPOutputStream out = new GZIPOutputStream(concatenated) {
+                @Override
+                public void close() throws IOException {
+                    finish();
+                }
+            }) {
+                out.write(part);
+            }
+        }
+        ByteArrayOutputStream restored = new ByteArrayOutputStream();
+        ParallelGzip.decompress(new ByteArrayInputStream(concatenated.toByteArray()), restored);
+        byte[] expected = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, expected, first.length, second.length);
+        assertArrayEquals(expected, restored.toByteArray());
+
+        //带文件名和注释的头
+        byte[] member = concatenated.toByteArray();
+        byte[] withName = new byte[member.length + 10];
+        System.arraycopy(member, 0, withName, 0, 10);
+        withName[3] = 8 | 16;
+        System.arraycopy("a.log\0".getBytes(StandardCharsets.US_ASCII), 0, withName, 10, 6);
+        System.arraycopy("hi\0\0".getBytes(StandardCharsets.US_ASCII), 0, withName, 16, 3);
+        System.arraycopy(member, 10, withName, 19, member.length - 10);
+        restored.reset();
+        ParallelGzip.decompress(new ByteArrayInputStream(Arrays.copyOf(withName, member.length + 9)), restored);
+        assertArrayEquals(expected, restored.toByteArray());
+    }
+
+    @Test
+    void rejectsCorruptInput() throws IOException {
+        byte[] data = logLines(20_000);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelGzip.Builder().blockSize(8192).build().compress(new ByteArrayInputStream(data), compressed);
+        byte[] gzip = compressed.toByteArray();
+
+        byte[] badCrc = gzip.clone();
+        badCrc[badCrc.length - 6] ^= 1;
+        assertThrows(ZipException.class, () -> ParallelGzip.decompress(new ByteArrayInputStream(badCrc), new ByteArrayOutputStream()));
+        assertThrows(EOFException.class, () -> ParallelGzip.decompress(
+                new ByteArrayInputStream(Arrays.copyOf(gzip, gzip.length - 3)), new ByteArrayOutputStream()));
+        assertThrows(EOFException.class, () -> ParallelGzip.decompress(new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream()));
+        assertThrows(ZipException.class, () -> ParallelGzip.decompress(
+                new ByteArrayInputStream("plain text".getBytes(StandardCharsets.US_ASCII)), new ByteArrayOutputStream()));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzip.Builder().level(10));
+    }
+
+    @Test
+    void compressesFiles() throws IOException {
+        Path dir = Files.createTempDirectory("parallel-gzip");
+        try {
+            byte[] data = logLines(3 << 20);
+            Path src = Files.write(dir.resolve("app.log"), data);
+            CompressionResult result = new ParallelGzip.Builder().build().compress(src, dir.resolve("app.log.gz"));
+            assertEquals(Files.size(dir.resolve("app.log.gz")), result.getOutputBytes());
+            ParallelGzip.decompress(dir.resolve("app.log.gz"), dir.resolve("restored.log"));
+            assertArrayEquals(data, Files.readAllBytes(dir.resolve("restored.log")));
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.effectivejava.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试用的合成目录树：目录按四叉树嵌套，每个目录若干个随机内容的文件，大小大多在maxFileSize以内，每200个文件有一个largeFileSize大小的
+ * 在本地压测时可以把文件数调到几十万，见TreeCopierTests
+ * @author Don
+ * @date 2026/10/18.
+ */
+final class SyntheticTree {
+    private final Path root;
+    private final int files;
+    private final long bytes;
+
+    private SyntheticTree(Path root, int files, long bytes) {
+        this.root = root;
+        this.files = files;
+        this.bytes = bytes;
+    }
+
+    static SyntheticTree build(Path root, int directories, int filesPerDirectory, int maxFileSize, int largeFileSize, long seed)
+            throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        Path[] dirs = new Path[directories];
+        int files = 0;
+        long bytes = 0;
+        for (int d = 0; d < directories; d++) {
+            dirs[d] = d == 0 ? root : dirs[(d - 1) / 4].resolve("dir" + d);
+            Files.createDirectories(dirs[d]);
+            for (int f = 0; f < filesPerDirectory; f++) {
+                int size = files % 200 == 199 ? largeFileSize : random.nextInt(maxFileSize + 1);
+                byte[] data = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    data[i] = (byte) random.nextInt();
+                }
+                Files.write(dirs[d].resolve("file" + f + ".dat"), data);
+                files++;
+                bytes += size;
+            }
+        }
+        return new SyntheticTree(root, files, bytes);
+    }
+
+    Path root() {
+        return root;
+    }
+
+    int files() {
+        return files;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+     /**
+       * 断言两棵树有相同的目录、相同的文件和相同的内容
+       **/
+    static void assertSameTree(Path expected, Path actual) throws IOException {
+        try (Stream<Path> paths = Files.walk(expected)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path other = actual.resolve(expected.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    assertTrue(Files.isDirectory(other), other.toString());
+                }
+                else {
+                    assertTrue(Arrays.equals(Files.readAllBytes(path), Files.readAllBytes(other)), other.toString());
+                }
+            }
+        }
+        try (Stream<Path> expectedPaths = Files.walk(expected); Stream<Path> actualPaths = Files.walk(actual)) {
+            assertEquals(expectedPaths.count(), actualPaths.count());
+        }
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.effectivejava.io;
+
+import com.example.effectivejava.io.TreeCopier.ChangeDetection;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 默认的合成目录树有85个目录、2040个文件；本地压测时用-Dsynthetic.tree.directories和-Dsynthetic.tree.files.per.directory调大
+ * @author Don
+ * @date 2026/10/18.
+ */
+class TreeCopierTests {
+    private static final int DIRECTORIES = Integer.getInteger("synthetic.tree.directories", 85);
+    private static final int FILES_PER_DIRECTORY = Integer.getInteger("synthetic.tree.files.per.directory", 24);
+
+    @Test
+    void copiesTreeIncrementally() throws IOException {
+        Path dir = Files.createTempDirectory("tree-copier");
+        try {
+            SyntheticTree tree = SyntheticTree.build(dir.resolve("src"), DIRECTORIES, FILES_PER_DIRECTORY, 8192, 3 << 20, 23);
+            Path target = dir.resolve("dst");
+            TreeCopier copier = new TreeCopier.Builder().parallelism(4).batchFiles(32).build();
+
+            TreeCopyResult first = copier.copy(tree.root(), target);
+            assertEquals(tree.files(), first.getFilesCopied());
+            assertEquals(0, first.getFilesSkipped());
+            assertEquals(tree.bytes(), first.getBytesCopied());
+            assertEquals(DIRECTORIES, first.getDirectories());
+            assertTrue(first.filesPerSecond() > 0);
+            SyntheticTree.assertSameTree(tree.root(), target);
+
+            TreeCopyResult second = copier.copy(tree.root(), target);
+            assertEquals(0, second.getFilesCopied());
+            assertEquals(tree.files(), second.getFilesSkipped());
+            assertEquals(0, second.getBytesCopied());
+
+            Path changed = tree.root().resolve("dir1").resolve("file0.dat");
+            Files.write(changed, new byte[]{1, 2, 3});
+            Files.delete(target.resolve("dir2").resolve("file1.dat"));
+            TreeCopyResult third = copier.copy(tree.root(), target);
+            assertEquals(2, third.getFilesCopied());
+            assertEquals(tree.files() - 2, third.getFilesSkipped());
+            SyntheticTree.assertSameTree(tree.root(), target);
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void contentHashDetectsChangesWithSameSizeAndTime() throws IOException {
+        Path dir = Files.createTempDirectory("tree-copier");
+        try {
+            SyntheticTree tree = SyntheticTree.build(dir.resolve("src"), 5, 10, 4096, 1 << 20, 24);
+            Path target = dir.resolve("dst");
+            new TreeCopier.Builder().build().copy(tree.root(), target);
+
+            //改变内容但保持大小和修改时间不变
+            Path changed = tree.root().resolve("file3.dat");
+            byte[] data = Files.readAllBytes(changed);
+            FileTime time = Files.getLastModifiedTime(changed);
+            data[0] ^= 1;
+            Files.write(changed, data);
+            Files.setLastModifiedTime(changed, time);
+
+            assertEquals(0, new TreeCopier.Builder().build().copy(tree.root(), target).getFilesCopied());
+            TreeCopyResult result = new TreeCopier.Builder().changeDetection(ChangeDetection.CONTENT_HASH).build()
+                    .copy(tree.root(), target);
+            assertEquals(1, result.getFilesCopied());
+            assertEquals(tree.files() - 1, result.getFilesSkipped());
+            SyntheticTree.assertSameTree(tree.root(), target);
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void cancelsAndReportsFailures() throws Exception {
+        Path dir = Files.createTempDirectory("tree-copier");
+        TreeCopier copier = new TreeCopier.Builder().parallelism(2).batchFiles(1).build();
+        try {
+            SyntheticTree tree = SyntheticTree.build(dir.resolve("src"), 21, 50, 4096, 1 << 20, 25);
+            CompletableFuture<TreeCopyResult> copy = copier.start(tree.root(), dir.resolve("dst"));
+            copy.cancel(true);
+            assertTrue(copy.isCancelled());
+            assertThrows(CancellationException.class, copy::join);
+
+            assertThrows(NoSuchFileException.class, () -> new TreeCopier.Builder().build().copy(dir.resolve("missing"), dir.resolve("x")));
+            assertThrows(IllegalArgumentException.class, () -> new TreeCopier.Builder().batchBytes(0));
+        }
+        finally {
+            //等待被取消的任务退出，避免删除目录时还有文件在写
+            assertTrue(copier.awaitTermination(30, TimeUnit.SECONDS));
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+
+     /**
+       * 目标树里的同名符号链接指向目标树之外：复制替换掉链接本身，链接指向的文件和目录不受影响
+       **/
+    @Test
+    void replacesSymlinksInTarget() throws IOException {
+        Path dir = Files.createTempDirectory("tree-copier");
+        try {
+            Path src = Files.createDirectories(dir.resolve("src").resolve("sub"));
+            Files.write(dir.resolve("src").resolve("a.dat"), new byte[]{1, 2, 3});
+            Files.write(src.resolve("b.dat"), new byte[]{4, 5});
+            Path outside = Files.createDirectories(dir.resolve("outside"));
+            Path victim = Files.write(outside.resolve("victim.dat"), new byte[]{9});
+            Path target = Files.createDirectories(dir.resolve("dst"));
+            try {
+                Files.createSymbolicLink(target.resolve("a.dat"), victim);
+                Files.createSymbolicLink(target.resolve("sub"), outside);
+            }
+            catch (UnsupportedOperationException | IOException ex) {
+                assumeTrue(false, "symbolic links not supported: " + ex);
+            }
+
+            TreeCopyResult result = new TreeCopier.Builder().build().copy(dir.resolve("src"), target);
+            assertEquals(2, result.getFilesCopied());
+            assertArrayEquals(new byte[]{9}, Files.readAllBytes(victim));
+            assertFalse(Files.exists(outside.resolve("b.dat")));
+            assertFalse(Files.isSymbolicLink(target.resolve("a.dat")));
+            assertFalse(Files.isSymbolicLink(target.resolve("sub")));
+            SyntheticTree.assertSameTree(dir.resolve("src"), target);
+        }
+        finally {
+            SyntheticTree.deleteRecursively(dir);
+        }
+    }
+}
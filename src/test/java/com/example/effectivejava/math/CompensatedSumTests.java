@@ -0,0 +1,71 @@
+package com.example.effectivejava.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class CompensatedSumTests {
+
+    @Test
+    void largeTermsCancel() {
+        assertEquals(1.0, CompensatedSum.sum(new double[]{1e100, 1.0, -1e100}));
+        assertEquals(2.0, CompensatedSum.sum(new double[]{1.0, 1e100, 1.0, -1e100}));
+        assertEquals(0.0, new CompensatedSum().sum());
+        assertTrue(Double.isNaN(new CompensatedSum().average()));
+    }
+
+    @Test
+    void parallelSumStaysWithinFewUlps() {
+        Random random = new Random(5);
+        double[] values = new double[2_000_000];
+        for (int i = 0; i < values.length; i++) {
+            //跨越多个数量级，正负相消
+            values[i] = (random.nextBoolean() ? 1 : -1) * Math.pow(10, random.nextInt(20) - 10) * random.nextDouble();
+        }
+        double exact = exactSum(values);
+        double ulp = Math.ulp(exact);
+        assertEquals(exact, CompensatedSum.sum(values), 2 * ulp);
+        assertEquals(exact, CompensatedSum.sum(Arrays.stream(values).parallel()), 2 * ulp);
+        assertEquals(exact, IntStream.range(0, values.length).boxed().parallel()
+                .collect(CompensatedSum.summing(i -> values[i])), 2 * ulp);
+    }
+
+    @Test
+    void mergeKeepsCompensation() {
+        CompensatedSum left = new CompensatedSum();
+        CompensatedSum right = new CompensatedSum();
+        for (int i = 0; i < 1_000_000; i++) {
+            left.accept(0.1);
+            right.accept(0.1);
+        }
+        assertEquals(200_000.0, left.merge(right).sum());
+        assertEquals(2_000_000, left.count());
+        assertEquals(0.1, left.average(), 1e-17);
+    }
+
+    @Test
+    void nonFiniteValues() {
+        assertEquals(Double.POSITIVE_INFINITY, CompensatedSum.sum(DoubleStream.of(1, Double.POSITIVE_INFINITY, 2)));
+        assertEquals(Double.NEGATIVE_INFINITY, CompensatedSum.sum(new double[]{Double.NEGATIVE_INFINITY, 1}));
+        assertTrue(Double.isNaN(CompensatedSum.sum(new double[]{Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY})));
+        assertTrue(Double.isNaN(CompensatedSum.sum(new double[]{1, Double.NaN})));
+    }
+
+    private static double exactSum(double[] values) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (double v : values) {
+            sum = sum.add(new BigDecimal(v));
+        }
+        return sum.doubleValue();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.effectivejava.math;
+
+import com.example.effectivejava.Complex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.BinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 逐元素运算和Complex的对应方法逐位相同
+ * @author Don
+ * @date 2026/10/18.
+ */
+class ComplexArrayTests {
+
+    private static final Complex ZERO = new Complex(0, 0);
+
+    private static Complex[] values(Random random, int n) {
+        Complex[] values = new Complex[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = new Complex(random.nextGaussian() * 100, random.nextGaussian() * 100);
+        }
+        return values;
+    }
+
+    private static void assertElements(Complex[] expected, ComplexArray actual) {
+        assertEquals(expected.length, actual.length());
+        for (int i = 0; i < expected.length; i++) {
+            //Complex.equals用Double.compare比较，NaN、-0.0也要一致
+            assertEquals(expected[i], actual.get(i), "index " + i);
+        }
+    }
+
+    private static Complex[] apply(Complex[] a, Complex[] b, BinaryOperator<Complex> op) {
+        Complex[] result = new Complex[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = op.apply(a[i], b[i]);
+        }
+        return result;
+    }
+
+    @Test
+    void arithmeticMatchesComplex() {
+        Random random = new Random(9);
+        //包含0和单个元素
+        for (int n : new int[]{0, 1, 7, 1000}) {
+            Complex[] a = values(random, n);
+            Complex[] b = values(random, n);
+            ComplexArray x = ComplexArray.of(a);
+            ComplexArray y = ComplexArray.of(b);
+            assertElements(apply(a, b, Complex::plus), x.plus(y));
+            assertElements(apply(a, b, Complex::minus), x.minus(y));
+            assertElements(apply(a, b, Complex::times), x.times(y));
+            assertElements(apply(a, b, Complex::dividedBy), x.dividedBy(y));
+            //入参不变
+            assertElements(a, x);
+            assertElements(b, y);
+        }
+    }
+
+    @Test
+    void inPlaceOperations() {
+        Random random = new Random(10);
+        Complex[] a = values(random, 64);
+        Complex[] b = values(random, 64);
+        ComplexArray y = ComplexArray.of(b);
+
+        ComplexArray x = ComplexArray.of(a);
+        assertSame(x, x.times(y, x));
+        assertElements(apply(a, b, Complex::times), x);
+        x = ComplexArray.of(a);
+        assertSame(x, x.dividedBy(y, x));
+        assertElements(apply(a, b, Complex::dividedBy), x);
+        //dst就是参数c
+        ComplexArray c = ComplexArray.of(b);
+        ComplexArray.of(a).minus(c, c);
+        assertElements(apply(a, b, Complex::minus), c);
+        //自己乘自己
+        x = ComplexArray.of(a);
+        x.times(x, x);
+        assertElements(apply(a, a, Complex::times), x);
+    }
+
+    @Test
+    void divisionByZero() {
+        Complex[] a = {new Complex(1, 2), ZERO, new Complex(-3, 0), new Complex(0, -4)};
+        Complex[] zeros = {ZERO, ZERO, ZERO, ZERO};
+        ComplexArray quotient = ComplexArray.of(a).dividedBy(ComplexArray.of(zeros));
+        assertElements(apply(a, zeros, Complex::dividedBy), quotient);
+        //Complex.dividedBy的公式里分子、分母都是0，结果全是NaN，不抛异常
+        for (int i = 0; i < a.length; i++) {
+            assertTrue(Double.isNaN(quotient.realPart(i)));
+            assertTrue(Double.isNaN(quotient.imaginaryPart(i)));
+        }
+    }
+
+    @Test
+    void conjugateScaleMagnitudeAndDot() {
+        Random random = new Random(11);
+        Complex[] a = values(random, 100);
+        Complex[] b = values(random, 100);
+        ComplexArray x = ComplexArray.of(a);
+        ComplexArray y = ComplexArray.of(b);
+
+        Complex[] conjugates = new Complex[a.length];
+        Complex[] scaled = new Complex[a.length];
+        Complex dot = ZERO;
+        for (int i = 0; i < a.length; i++) {
+            conjugates[i] = new Complex(a[i].realPart(), -a[i].imaginaryPart());
+            scaled[i] = a[i].times(new Complex(2.5, 0));
+            dot = dot.plus(a[i].times(b[i]));
+            assertEquals(Math.hypot(a[i].realPart(), a[i].imaginaryPart()), x.magnitude()[i], 1e-9);
+        }
+        assertElements(conjugates, x.conjugate());
+        assertElements(scaled, x.scale(2.5, new ComplexArray(a.length)));
+        assertEquals(dot.realPart(), x.dot(y).realPart(), 1e-6);
+        assertEquals(dot.imaginaryPart(), x.dot(y).imaginaryPart(), 1e-6);
+
+        ComplexArray copy = x.copy();
+        assertEquals(x, copy);
+        assertEquals(x.hashCode(), copy.hashCode());
+        assertSame(copy, copy.conjugate(copy));
+        assertElements(conjugates, copy);
+        assertNotEquals(x, copy);
+    }
+
+    @Test
+    void lengthMismatch() {
+        ComplexArray x = new ComplexArray(3);
+        ComplexArray y = new ComplexArray(4);
+        assertThrows(IllegalArgumentException.class, () -> x.plus(y));
+        assertThrows(IllegalArgumentException.class, () -> x.minus(y));
+        assertThrows(IllegalArgumentException.class, () -> x.times(y));
+        assertThrows(IllegalArgumentException.class, () -> x.dividedBy(y));
+        assertThrows(IllegalArgumentException.class, () -> x.dot(y));
+        //dst长度不同
+        assertThrows(IllegalArgumentException.class, () -> x.plus(x, y));
+        assertThrows(IllegalArgumentException.class, () -> x.conjugate(y));
+        assertThrows(IllegalArgumentException.class, () -> x.scale(2, y));
+        assertThrows(IllegalArgumentException.class, () -> x.magnitude(new double[4]));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexArray(new double[3], new double[4]));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexArray(-1));
+    }
+}
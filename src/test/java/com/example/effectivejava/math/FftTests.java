@@ -0,0 +1,109 @@
+package com.example.effectivejava.math;
+
+import com.example.effectivejava.Complex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class FftTests {
+
+    private static ComplexArray random(Random random, int n) {
+        ComplexArray x = new ComplexArray(n);
+        for (int i = 0; i < n; i++) {
+            x.set(i, random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1);
+        }
+        return x;
+    }
+
+    //O(n²)的定义式，作为精度基准
+    private static ComplexArray naiveDft(ComplexArray x, boolean inverse) {
+        int n = x.length();
+        ComplexArray result = new ComplexArray(n);
+        double sign = inverse ? 1 : -1;
+        for (int k = 0; k < n; k++) {
+            double sumRe = 0;
+            double sumIm = 0;
+            for (int j = 0; j < n; j++) {
+                double angle = sign * 2 * Math.PI * (((long) j * k) % n) / n;
+                double c = Math.cos(angle);
+                double s = Math.sin(angle);
+                sumRe += x.realPart(j) * c - x.imaginaryPart(j) * s;
+                sumIm += x.realPart(j) * s + x.imaginaryPart(j) * c;
+            }
+            result.set(k, inverse ? sumRe / n : sumRe, inverse ? sumIm / n : sumIm);
+        }
+        return result;
+    }
+
+    private static double maxError(ComplexArray expected, ComplexArray actual) {
+        assertEquals(expected.length(), actual.length());
+        double error = 0;
+        for (int i = 0; i < expected.length(); i++) {
+            error = Math.max(error, Math.abs(expected.realPart(i) - actual.realPart(i)));
+            error = Math.max(error, Math.abs(expected.imaginaryPart(i) - actual.imaginaryPart(i)));
+        }
+        return error;
+    }
+
+    @Test
+    void matchesNaiveDft() {
+        Random random = new Random(42);
+        int[] sizes = {1, 2, 3, 4, 5, 7, 8, 12, 16, 31, 64, 100, 127, 256, 1000, 1024};
+        for (int n : sizes) {
+            ComplexArray x = random(random, n);
+            assertTrue(maxError(naiveDft(x, false), Fft.forward(x)) < 1e-9 * Math.max(1, n), "forward n=" + n);
+            assertTrue(maxError(naiveDft(x, true), Fft.inverse(x)) < 1e-12 * Math.max(1, n), "inverse n=" + n);
+        }
+    }
+
+    @Test
+    void inverseRestoresInput() {
+        Random random = new Random(7);
+        for (int n : new int[]{4096, 3000, 1 << 16, 100_003}) {
+            ComplexArray x = random(random, n);
+            assertTrue(maxError(x, Fft.inverse(Fft.forward(x))) < 1e-10, "n=" + n);
+        }
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        Random random = new Random(11);
+        for (int n : new int[]{1 << 17, 100_000}) {
+            ComplexArray x = random(random, n);
+            assertEquals(0, maxError(Fft.forward(x), Fft.forward(x, Fft.Mode.PARALLEL)), 1e-12);
+            ComplexArray inPlace = x.copy();
+            Fft.forwardInPlace(inPlace, Fft.Mode.PARALLEL);
+            Fft.inverseInPlace(inPlace, Fft.Mode.PARALLEL);
+            assertTrue(maxError(x, inPlace) < 1e-10, "n=" + n);
+        }
+    }
+
+     /**
+       * 缓存的旋转因子表比当前长度大时按步长取值，Bluestein的缓存在不同长度之间交替替换
+       **/
+    @Test
+    void smallerSizesReuseLargerTables() {
+        Random random = new Random(13);
+        Fft.forward(random(random, 1 << 14));
+        for (int n : new int[]{2, 8, 1024, 3, 100, 3, 1000, 16}) {
+            ComplexArray x = random(random, n);
+            assertTrue(maxError(naiveDft(x, false), Fft.forward(x)) < 1e-9 * n, "forward n=" + n);
+        }
+    }
+
+    @Test
+    void complexArrayApi() {
+        Complex[] x = {new Complex(1, 0), new Complex(0, 0), new Complex(0, 0), new Complex(0, 0)};
+        //单位脉冲的频谱处处为1
+        for (Complex c : Fft.forward(x)) {
+            assertEquals(1, c.realPart(), 1e-15);
+            assertEquals(0, c.imaginaryPart(), 1e-15);
+        }
+    }
+}
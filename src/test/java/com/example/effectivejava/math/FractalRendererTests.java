@@ -0,0 +1,113 @@
+package com.example.effectivejava.math;
+
+import com.example.effectivejava.Complex;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class FractalRendererTests {
+
+    //逐像素顺序计算的Mandelbrot集，和FractalRenderer用同样的坐标映射
+    private static int[] sequential(int width, int height, int maxIterations, double centerRe, double centerIm, double viewWidth) {
+        double step = viewWidth / width;
+        double minRe = centerRe - viewWidth / 2;
+        double maxIm = centerIm + step * height / 2;
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double cr = minRe + x * step;
+                double ci = maxIm - y * step;
+                double zr = 0;
+                double zi = 0;
+                int n = 0;
+                while (n < maxIterations && zr * zr + zi * zi <= 4) {
+                    double t = zr * zr - zi * zi + cr;
+                    zi = 2 * zr * zi + ci;
+                    zr = t;
+                    n++;
+                }
+                pixels[y * width + x] = n;
+            }
+        }
+        return pixels;
+    }
+
+     /**
+       * 宽高都不是tileSize的整数倍，右边和下边的方块不完整
+       **/
+    @Test
+    void tiledRenderMatchesSequential() {
+        int width = 101;
+        int height = 67;
+        int[] expected = sequential(width, height, 200, -0.7, 0.1, 2.9);
+        for (int tileSize : new int[]{1, 16, 32, 64, 1000}) {
+            FractalRenderer renderer = new FractalRenderer.Builder(width, height).maxIterations(200).tileSize(tileSize)
+                    .viewport(-0.7, 0.1, 2.9).build();
+            assertArrayEquals(expected, renderer.render(), "tileSize " + tileSize);
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            FractalRenderer renderer = new FractalRenderer.Builder(width, height).maxIterations(200).tileSize(7)
+                    .viewport(-0.7, 0.1, 2.9).build();
+            assertArrayEquals(expected, renderer.render(pool));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void complexAndPrimitiveAgree() {
+        for (Complex julia : new Complex[]{null, new Complex(-0.8, 0.156)}) {
+            int[][] results = new int[2][];
+            for (FractalRenderer.Arithmetic arithmetic : FractalRenderer.Arithmetic.values()) {
+                FractalRenderer.Builder builder = new FractalRenderer.Builder(45, 33).maxIterations(300).tileSize(8)
+                        .arithmetic(arithmetic);
+                if (julia != null) {
+                    builder.julia(julia).viewport(0, 0, 3);
+                }
+                results[arithmetic.ordinal()] = builder.build().render();
+            }
+            assertArrayEquals(results[0], results[1], "julia " + julia);
+        }
+    }
+
+    @Test
+    void knownPoints() {
+        //2x2的图像，视口宽2：四个像素正好是-1+i、i、-1、0
+        for (FractalRenderer.Arithmetic arithmetic : FractalRenderer.Arithmetic.values()) {
+            int[] pixels = new FractalRenderer.Builder(2, 2).maxIterations(500).viewport(0, 0, 2).arithmetic(arithmetic)
+                    .build().render();
+            //-1+i在第3次迭代后逃逸，其余三点都在集合内
+            assertArrayEquals(new int[]{3, 500, 500, 500}, pixels);
+
+            //远处的点：Mandelbrot从z=0开始，第一次迭代后逃逸；Julia的起点本身就在半径2之外
+            int[] far = new FractalRenderer.Builder(2, 2).viewport(100, 0, 2).arithmetic(arithmetic).build().render();
+            assertArrayEquals(new int[]{1, 1, 1, 1}, far);
+            int[] farJulia = new FractalRenderer.Builder(2, 2).viewport(100, 0, 2).julia(new Complex(0, 0))
+                    .arithmetic(arithmetic).build().render();
+            assertArrayEquals(new int[]{0, 0, 0, 0}, farJulia);
+        }
+    }
+
+    @Test
+    void builderValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new FractalRenderer.Builder(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new FractalRenderer.Builder(10, -1));
+        FractalRenderer.Builder builder = new FractalRenderer.Builder(10, 10);
+        assertThrows(IllegalArgumentException.class, () -> builder.maxIterations(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.tileSize(0));
+        assertThrows(NullPointerException.class, () -> builder.julia(null));
+        assertThrows(NullPointerException.class, () -> builder.arithmetic(null));
+        FractalRenderer renderer = builder.build();
+        assertEquals(10, renderer.width());
+        assertEquals(10, renderer.height());
+        assertEquals(100, renderer.render().length);
+    }
+}
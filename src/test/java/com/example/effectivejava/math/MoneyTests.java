@@ -0,0 +1,64 @@
+package com.example.effectivejava.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class MoneyTests {
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    @Test
+    void divisionRoundsLikeBigDecimal() {
+        Random random = new Random(42);
+        long[] edges = {0, 1, -1, 5, -5, 15, -15, 25, -25, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (int i = 0; i < 20_000; i++) {
+            long dividend = i < edges.length ? edges[i] : random.nextLong() >> random.nextInt(63);
+            long divisor = random.nextInt(4) == 0 ? 10 : random.nextLong() >> random.nextInt(63);
+            if (divisor == 0) {
+                continue;
+            }
+            for (RoundingMode mode : RoundingMode.values()) {
+                if (mode == RoundingMode.UNNECESSARY) {
+                    continue;
+                }
+                long expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, mode).longValue();
+                assertEquals(expected, Money.divide(dividend, divisor, mode), dividend + " / " + divisor + " " + mode);
+            }
+        }
+        assertThrows(ArithmeticException.class, () -> Money.divide(7, 2, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Money.divide(Long.MIN_VALUE, -1, RoundingMode.DOWN));
+    }
+
+    @Test
+    void arithmeticIsExact() {
+        Money price = Money.of("19.99", USD);
+        assertEquals(1999, price.minorUnits());
+        assertEquals("USD 59.97", price.times(3).toString());
+        assertEquals(Money.of("6.66", USD), price.dividedBy(3, RoundingMode.HALF_EVEN));
+        assertEquals(Money.of("1.60", USD), price.times(new BigDecimal("0.08"), RoundingMode.HALF_UP));
+        assertEquals(Money.ofMinor(500, JPY), Money.of("500", JPY));
+
+        assertThrows(ArithmeticException.class, () -> Money.of("0.001", USD));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE, USD).plus(Money.ofMinor(1, USD)));
+        assertThrows(IllegalArgumentException.class, () -> price.plus(Money.zero(JPY)));
+
+        MoneyAccumulator sum = new MoneyAccumulator(USD);
+        for (int i = 0; i < 10; i++) {
+            sum.add(Money.of("0.10", USD));
+        }
+        assertEquals(Money.of("1.00", USD), sum.get());
+        sum.addMinor(Long.MAX_VALUE - 100);
+        assertThrows(ArithmeticException.class, () -> sum.addMinor(1));
+        assertEquals(Long.MAX_VALUE, sum.minorUnits());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.effectivejava.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class StreamingStatisticsTests {
+
+    @Test
+    void momentsMatchTwoPassComputation() {
+        double[] values = new Random(7).doubles(100_000, -50, 1_000).toArray();
+        StreamingStatistics stats = new StreamingStatistics();
+        Arrays.stream(values).forEach(stats);
+        double mean = Arrays.stream(values).average().getAsDouble();
+        double m2 = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum();
+        assertEquals(values.length, stats.count());
+        assertEquals(Arrays.stream(values).min().getAsDouble(), stats.min());
+        assertEquals(Arrays.stream(values).max().getAsDouble(), stats.max());
+        assertEquals(mean, stats.mean(), 1e-9);
+        assertEquals(m2 / (values.length - 1), stats.sampleVariance(), 1e-6);
+        assertEquals(m2 / values.length, stats.populationVariance(), 1e-6);
+    }
+
+    @Test
+    void quantilesStayWithinRelativeAccuracy() {
+        Random random = new Random(11);
+        double[] values = new double[200_001];
+        for (int i = 0; i < values.length; i++) {
+            //跨越多个数量级，有正有负
+            values[i] = (random.nextBoolean() ? 1 : -1) * Math.exp(random.nextGaussian() * 5);
+        }
+        StreamingStatistics stats = new StreamingStatistics();
+        Arrays.stream(values).forEach(stats);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : new double[]{0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1}) {
+            double exact = sorted[(int) (q * (sorted.length - 1))];
+            assertEquals(exact, stats.quantile(q), Math.abs(exact) * 0.01 + 1e-12, "q=" + q);
+        }
+    }
+
+    @Test
+    void parallelMergeMatchesSequential() {
+        double[] values = new Random(3).doubles(1_000_000).map(v -> v * v * 1e6).toArray();
+        StreamingStatistics sequential = new StreamingStatistics();
+        Arrays.stream(values).forEach(sequential);
+        StreamingStatistics parallel = Arrays.stream(values).parallel()
+                .collect(StreamingStatistics::new, StreamingStatistics::accept, StreamingStatistics::merge);
+        StreamingStatistics collected = IntStream.range(0, values.length).boxed().parallel()
+                .collect(StreamingStatistics.collector(i -> values[i]));
+        for (StreamingStatistics other : Arrays.asList(parallel, collected)) {
+            assertEquals(sequential.count(), other.count());
+            assertEquals(sequential.min(), other.min());
+            assertEquals(sequential.max(), other.max());
+            assertEquals(sequential.mean(), other.mean(), 1e-6);
+            assertEquals(sequential.sampleVariance(), other.sampleVariance(), sequential.sampleVariance() * 1e-9);
+            for (double q : new double[]{0, 0.5, 0.9, 0.99, 1}) {
+                //桶计数相加，合并后的草图和顺序统计的完全相同
+                assertEquals(sequential.quantile(q), other.quantile(q), "q=" + q);
+            }
+        }
+    }
+
+    @Test
+    void sketchMemoryIsBounded() {
+        QuantileSketch sketch = new QuantileSketch(0.01, 64);
+        for (int e = -299; e <= 300; e++) {
+            sketch.accept(Math.pow(10, e));
+        }
+        assertEquals(600, sketch.count());
+        //最大的值仍然精确到1%，最小的那些值被合并到了一起
+        assertEquals(1e300, sketch.quantile(1), 1e298);
+        assertTrue(sketch.quantile(0) > 1e299);
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch()));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+    }
+
+    @Test
+    void infinitiesMixWithFiniteValues() {
+        //先无穷后有限、先有限后无穷两种顺序
+        double[][] orders = {
+                {Double.POSITIVE_INFINITY, 1.0, Double.NEGATIVE_INFINITY, -1.0, 0, 2.0},
+                {1.0, -1.0, 0, 2.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}};
+        for (double[] values : orders) {
+            QuantileSketch sketch = new QuantileSketch();
+            Arrays.stream(values).forEach(sketch::accept);
+            assertEquals(6, sketch.count());
+            assertEquals(Double.NEGATIVE_INFINITY, sketch.quantile(0));
+            assertEquals(-1.0, sketch.quantile(0.2), 0.01);
+            assertEquals(0.0, sketch.quantile(0.4));
+            assertEquals(1.0, sketch.quantile(0.6), 0.01);
+            assertEquals(2.0, sketch.quantile(0.8), 0.02);
+            assertEquals(Double.POSITIVE_INFINITY, sketch.quantile(1));
+            StreamingStatistics stats = new StreamingStatistics();
+            Arrays.stream(values).forEach(stats);
+            assertEquals(6, stats.count());
+            assertEquals(Double.POSITIVE_INFINITY, stats.max());
+            assertEquals(1.0, stats.quantile(0.6), 0.01);
+            QuantileSketch merged = new QuantileSketch().merge(sketch);
+            assertEquals(Double.POSITIVE_INFINITY, merged.quantile(1));
+            assertEquals(6, merged.count());
+        }
+        //α很小时极大、极小的有限值的桶编号超出int，被限制在两端
+        QuantileSketch fine = new QuantileSketch(1e-12, 64);
+        fine.accept(Double.MAX_VALUE);
+        fine.accept(1.0);
+        fine.accept(Double.MIN_NORMAL);
+        fine.accept(-Double.MAX_VALUE);
+        assertEquals(4, fine.count());
+        assertTrue(fine.quantile(0) < 0);
+        assertTrue(Double.isFinite(fine.quantile(0)));
+        assertTrue(fine.quantile(1) > 0);
+        assertTrue(Double.isFinite(fine.quantile(1)));
+    }
+
+    @Test
+    void emptyAndNaN() {
+        StreamingStatistics stats = new StreamingStatistics();
+        assertTrue(Double.isNaN(stats.mean()));
+        assertTrue(Double.isNaN(stats.min()));
+        assertTrue(Double.isNaN(stats.quantile(0.5)));
+        stats.accept(Double.NaN);
+        stats.accept(0);
+        stats.accept(-2);
+        assertEquals(2, stats.count());
+        assertEquals(-1.0, stats.mean());
+        assertEquals(-2.0, stats.quantile(0));
+        assertEquals(0.0, stats.quantile(1));
+        assertTrue(Double.isNaN(new StreamingStatistics().merge(new StreamingStatistics()).mean()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.effectivejava.optional;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class TopKTests {
+    private static final int LARGE = 500_000;
+
+    @Test
+    void primitiveTopKMatchesSort() {
+        SplittableRandom random = new SplittableRandom(1);
+        int[] ints = random.ints(LARGE).toArray();
+        long[] longs = random.longs(LARGE).toArray();
+        double[] doubles = random.doubles(LARGE).toArray();
+        doubles[12345] = Double.NaN;
+        for (int k : new int[]{1, 10, 10_000, LARGE + 1}) {
+            int[] sortedInts = ints.clone();
+            Arrays.sort(sortedInts);
+            long[] sortedLongs = longs.clone();
+            Arrays.sort(sortedLongs);
+            double[] sortedDoubles = doubles.clone();
+            Arrays.sort(sortedDoubles);
+            int m = Math.min(k, LARGE);
+            int[] expectedInts = new int[m];
+            long[] expectedLongs = new long[m];
+            double[] expectedDoubles = new double[m];
+            for (int i = 0; i < m; i++) {
+                expectedInts[i] = sortedInts[LARGE - 1 - i];
+                expectedLongs[i] = sortedLongs[LARGE - 1 - i];
+                expectedDoubles[i] = sortedDoubles[LARGE - 1 - i];
+            }
+            assertArrayEquals(expectedInts, TopK.topK(ints, k));
+            assertArrayEquals(expectedLongs, TopK.topK(longs, k));
+            assertArrayEquals(expectedDoubles, TopK.topK(doubles, k));
+        }
+        assertEquals(Arrays.stream(ints).max().getAsInt(), TopK.max(ints).getAsInt());
+        assertEquals(Arrays.stream(longs).max().getAsLong(), TopK.max(longs).getAsLong());
+        assertTrue(Double.isNaN(TopK.max(doubles).getAsDouble()));
+    }
+
+    @Test
+    void objectTopKMatchesSort() {
+        List<String> words = new SplittableRandom(2).ints(LARGE, 0, 1_000_000)
+                .mapToObj(Integer::toString).collect(Collectors.toList());
+        List<String> sorted = new ArrayList<>(words);
+        sorted.sort(Collections.reverseOrder());
+        assertEquals(sorted.subList(0, 100), TopK.topK(words, 100));
+        assertEquals(sorted.get(0), TopK.max(words).get());
+        assertEquals(sorted.get(0), TopK.max(new LinkedList<>(words)).get());
+        assertEquals(sorted.subList(0, 5), TopK.topK(new LinkedList<>(words), 5));
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+        assertEquals(1, TopK.max(words, byLength.reversed()).get().length());
+    }
+
+    @Test
+    void emptyAndInvalid() {
+        assertFalse(TopK.max(new int[0]).isPresent());
+        assertFalse(TopK.max(new long[0]).isPresent());
+        assertFalse(TopK.max(new double[0]).isPresent());
+        assertFalse(TopK.max(Collections.<String>emptyList()).isPresent());
+        assertEquals(0, TopK.topK(new int[]{1, 2}, 0).length);
+        assertTrue(TopK.topK(Arrays.asList(3, 1, 2), 0).isEmpty());
+        assertEquals(Arrays.asList(3, 2, 1), TopK.topK(new Integer[]{3, 1, 2}, 10));
+        assertThrows(IllegalArgumentException.class, () -> TopK.topK(new int[]{1}, -1));
+        assertThrows(NullPointerException.class, () -> TopK.max(Arrays.asList("a", null)));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.effectivejava.sort;
+
+import com.example.effectivejava.CompactNumber;
+import com.example.effectivejava.MyNumber;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class RadixSortTests {
+
+    @Test
+    void orderSortsSignedKeys() {
+        int[] keys = {5, -1, Integer.MAX_VALUE, 0, Integer.MIN_VALUE, 5, -1, 256, -256};
+        int[] order = RadixSort.sortedOrder(keys);
+        int[] sorted = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = keys[order[i]];
+        }
+        int[] expected = keys.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, sorted);
+        //相等的键保持原来的先后顺序
+        assertArrayEquals(new int[]{4, 8, 1, 6, 3, 0, 5, 7, 2}, order);
+        assertEquals(0, RadixSort.sortedOrder(new int[0]).length);
+    }
+
+    @Test
+    void parallelMatchesStableComparatorSort() {
+        SplittableRandom random = new SplittableRandom(9);
+        for (int n : new int[]{1, 1000, 300_000}) {
+            //键的范围很小，有大量重复，可以检查稳定性；高位全相同的轮次会被跳过
+            int bound = n / 10 + 1;
+            List<CompactNumber> expected = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                expected.add(new CompactNumber(random.nextInt(bound) - bound / 2));
+            }
+            List<CompactNumber> sequential = new ArrayList<>(expected);
+            CompactNumber[] parallel = expected.toArray(new CompactNumber[0]);
+            expected.sort(Comparator.comparingInt(CompactNumber::getA));
+            RadixSort.sort(sequential, CompactNumber::getA);
+            RadixSort.sort(parallel, CompactNumber::getA, RadixSort.Mode.PARALLEL);
+            for (int i = 0; i < n; i++) {
+                assertSame(expected.get(i), sequential.get(i));
+                assertSame(expected.get(i), parallel[i]);
+            }
+        }
+    }
+
+    @Test
+    void sortsLinkedListOfMyNumber() {
+        List<MyNumber> list = new LinkedList<>();
+        for (int a : new int[]{3, -7, 42, 0, 3}) {
+            MyNumber number = new MyNumber();
+            number.setA(a);
+            list.add(number);
+        }
+        RadixSort.sort(list, MyNumber::getA);
+        int[] values = list.stream().mapToInt(MyNumber::getA).toArray();
+        assertArrayEquals(new int[]{-7, 0, 3, 3, 42}, values);
+    }
+}
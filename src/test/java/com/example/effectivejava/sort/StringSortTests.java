@@ -0,0 +1,95 @@
+package com.example.effectivejava.sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class StringSortTests {
+
+    @Test
+    void matchesComparatorSort() {
+        SplittableRandom random = new SplittableRandom(4);
+        for (int n : new int[]{0, 1, 2, 17, 1_000, 200_000}) {
+            String[] words = new String[n];
+            for (int i = 0; i < n; i++) {
+                words[i] = randomWord(random);
+            }
+            String[] expected = words.clone();
+            Arrays.sort(expected, StringSort.ORDER);
+            String[] sequential = words.clone();
+            StringSort.sort(sequential);
+            String[] parallel = words.clone();
+            StringSort.sort(parallel, StringSort.Mode.PARALLEL);
+            assertArrayEquals(expected, sequential);
+            assertArrayEquals(expected, parallel);
+        }
+    }
+
+    @Test
+    void handlesLongSharedPrefixesAndDuplicates() {
+        List<String> words = new ArrayList<>();
+        String prefix = new String(new char[500]).replace('\0', 'x');
+        for (int i = 0; i < 50_000; i++) {
+            words.add(prefix + (i % 977));
+            words.add("");
+            words.add("￿" + (char) (i % 3));
+        }
+        List<String> expected = new ArrayList<>(words);
+        expected.sort(StringSort.ORDER);
+        List<String> linked = new LinkedList<>(words);
+        StringSort.sort(linked, StringSort.Mode.PARALLEL);
+        assertEquals(expected, linked);
+        StringSort.sort(words);
+        assertEquals(expected, words);
+        assertThrows(NullPointerException.class, () -> StringSort.sort(new String[]{"a", null}));
+    }
+
+     /**
+       * 超过计数上限的字符串：一个几MB的字符串、若干长度相同或不同的长字符串，和普通的短字符串混在一起
+       **/
+    @Test
+    void handlesVeryLongStrings() {
+        SplittableRandom random = new SplittableRandom(5);
+        List<String> words = new ArrayList<>();
+        char[] huge = new char[4 << 20];
+        Arrays.fill(huge, 'q');
+        words.add(new String(huge));
+        for (int i = 0; i < 200; i++) {
+            char[] chars = new char[(1 << 12) - 2 + random.nextInt(6) + (i % 3 == 0 ? 3000 : 0)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(j < chars.length - 3 ? 1 : 3));
+            }
+            words.add(new String(chars));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            words.add(randomWord(random));
+        }
+        String[] expected = words.toArray(new String[0]);
+        Arrays.sort(expected, StringSort.ORDER);
+        for (StringSort.Mode mode : StringSort.Mode.values()) {
+            String[] actual = words.toArray(new String[0]);
+            StringSort.sort(actual, mode);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    private static String randomWord(SplittableRandom random) {
+        //长度集中在3到10之间，字母表很小，大量重复和公共前缀
+        int length = random.nextInt(4) == 0 ? random.nextInt(30) : 3 + random.nextInt(8);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(random.nextInt(4) == 0 ? 26 : 3));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.effectivejava.stack;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class ConcurrentStackTests {
+
+    @Test
+    void emptyPop() {
+        ConcurrentStack<String> stack = new ConcurrentStack<>();
+        assertTrue(stack.isEmpty());
+        assertThrows(EmptyStackException.class, stack::pop);
+        stack.pushAll(Arrays.asList("a", "b"));
+        assertEquals("b", stack.pop());
+        assertEquals("a", stack.pop());
+        assertThrows(EmptyStackException.class, stack::pop);
+        List<Object> dst = new ArrayList<>();
+        stack.popAll(dst);
+        assertTrue(dst.isEmpty());
+    }
+
+     /**
+       * 每个线程交替push自己的元素和pop任意元素，最后取空：每个元素恰好出栈一次，没有丢失也没有重复
+       **/
+    @Test
+    void pushPopConservesElements() throws Exception {
+        ConcurrentStack<Integer> stack = new ConcurrentStack<>();
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            futures.add(pool.submit(() -> {
+                List<Integer> popped = new ArrayList<>();
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    stack.push(base + i);
+                    if ((i & 1) == 1) {
+                        popped.add(stack.pop());
+                    }
+                }
+                return popped;
+            }));
+        }
+        start.countDown();
+        int[] seen = new int[threads * perThread];
+        for (Future<List<Integer>> f : futures) {
+            for (int e : f.get()) {
+                seen[e]++;
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        List<Integer> rest = new ArrayList<>();
+        stack.popAll(rest);
+        assertTrue(stack.isEmpty());
+        for (int e : rest) {
+            seen[e]++;
+        }
+        for (int i = 0; i < seen.length; i++) {
+            assertEquals(1, seen[i], "element " + i);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.effectivejava.stack;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EmptyStackException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IntStack、LongStack、DoubleStack
+ * @author Don
+ * @date 2026/10/18.
+ */
+class PrimitiveStackTests {
+
+    @Test
+    void intStack() {
+        IntStack stack = new IntStack();
+        assertThrows(EmptyStackException.class, stack::pop);
+        //超过默认容量16，需要扩容
+        for (int i = 0; i < 100; i++) {
+            stack.push(i);
+        }
+        stack.pushAll(new int[]{-1, 100, 101, 102, -1}, 1, 3);
+        assertEquals(103, stack.size());
+        assertEquals(102, stack.peek());
+        assertEquals(103, stack.size());
+        int[] dst = new int[5];
+        assertEquals(5, stack.popInto(dst));
+        assertArrayEquals(new int[]{102, 101, 100, 99, 98}, dst);
+        for (int i = 97; i >= 0; i--) {
+            assertEquals(i, stack.pop());
+        }
+        assertTrue(stack.isEmpty());
+        assertEquals(0, stack.popInto(dst));
+        assertThrows(EmptyStackException.class, stack::pop);
+        assertThrows(EmptyStackException.class, stack::peek);
+        assertThrows(IndexOutOfBoundsException.class, () -> stack.pushAll(new int[3], 2, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> stack.pushAll(new int[3], -1, 1));
+    }
+
+    @Test
+    void longStack() {
+        LongStack stack = new LongStack();
+        assertThrows(EmptyStackException.class, stack::pop);
+        for (long i = 0; i < 100; i++) {
+            stack.push(i << 40);
+        }
+        stack.pushAll(new long[]{Long.MIN_VALUE, Long.MAX_VALUE}, 0, 2);
+        assertEquals(Long.MAX_VALUE, stack.peek());
+        long[] dst = new long[3];
+        assertEquals(3, stack.popInto(dst));
+        assertArrayEquals(new long[]{Long.MAX_VALUE, Long.MIN_VALUE, 99L << 40}, dst);
+        for (long i = 98; i >= 0; i--) {
+            assertEquals(i << 40, stack.pop());
+        }
+        assertTrue(stack.isEmpty());
+        assertThrows(EmptyStackException.class, stack::pop);
+        assertThrows(EmptyStackException.class, stack::peek);
+        assertThrows(IndexOutOfBoundsException.class, () -> stack.pushAll(new long[1], 0, 2));
+    }
+
+    @Test
+    void doubleStack() {
+        DoubleStack stack = new DoubleStack();
+        assertThrows(EmptyStackException.class, stack::pop);
+        for (int i = 0; i < 100; i++) {
+            stack.push(i + 0.5);
+        }
+        stack.pushAll(new double[]{Double.NaN, -0.0}, 0, 2);
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(stack.peek()));
+        //栈中只有102个元素，popInto只取走102个
+        double[] dst = new double[110];
+        assertEquals(102, stack.popInto(dst));
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(dst[0]));
+        assertTrue(Double.isNaN(dst[1]));
+        assertEquals(99.5, dst[2]);
+        assertEquals(0.5, dst[101]);
+        assertTrue(stack.isEmpty());
+        assertThrows(EmptyStackException.class, stack::pop);
+    }
+}
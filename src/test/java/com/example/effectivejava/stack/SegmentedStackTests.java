@@ -0,0 +1,74 @@
+package com.example.effectivejava.stack;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class SegmentedStackTests {
+
+    @Test
+    void growsAndShrinksAcrossChunks() {
+        SegmentedStack<Integer> stack = new SegmentedStack<>(4);
+        assertEquals(0, stack.capacity());
+        //超过初始的16个段，段目录也要扩容
+        int count = 4 * 40 + 3;
+        for (int i = 0; i < count; i++) {
+            stack.push(i);
+            assertEquals((i >> 2) + 1, stack.capacity() / 4);
+        }
+        assertEquals(count, stack.size());
+        for (int i = count - 1; i >= 0; i--) {
+            assertEquals(i, (int) stack.pop());
+            //使用中的段之外最多保留一个空闲段
+            long usedChunks = (stack.size() + 3) / 4;
+            assertTrue(stack.capacity() / 4 <= usedChunks + 1, "capacity " + stack.capacity() + " at size " + stack.size());
+        }
+        assertTrue(stack.isEmpty());
+        assertTrue(stack.capacity() <= 4);
+    }
+
+    @Test
+    void pushPopOnChunkBoundary() {
+        SegmentedStack<String> stack = new SegmentedStack<>(8);
+        for (int i = 0; i < 8; i++) {
+            stack.push("e" + i);
+        }
+        for (int round = 0; round < 100; round++) {
+            stack.push("x");
+            assertEquals("x", stack.pop());
+        }
+        assertEquals(8, stack.size());
+        assertEquals(16, stack.capacity());
+        assertEquals("e7", stack.pop());
+    }
+
+    @Test
+    void bulkOperations() {
+        SegmentedStack<Integer> stack = new SegmentedStack<>(2);
+        stack.pushAll(Arrays.asList(1, 2, 3, 4, 5));
+        List<Number> dst = new ArrayList<>();
+        stack.popAll(dst);
+        assertEquals(Arrays.asList(5, 4, 3, 2, 1), dst);
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    void popOnEmptyStack() {
+        SegmentedStack<Object> stack = new SegmentedStack<>();
+        assertThrows(EmptyStackException.class, stack::pop);
+        stack.push("a");
+        stack.pop();
+        assertThrows(EmptyStackException.class, stack::pop);
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedStack<>(3));
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedStack<>(0));
+    }
+}
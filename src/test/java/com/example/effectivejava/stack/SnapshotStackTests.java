@@ -0,0 +1,74 @@
+package com.example.effectivejava.stack;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnapshotStack和PersistentStack
+ * @author Don
+ * @date 2026/10/18.
+ */
+class SnapshotStackTests {
+
+    @Test
+    void persistentVersionsAreIndependent() {
+        PersistentStack<String> empty = PersistentStack.empty();
+        PersistentStack<String> ab = empty.push("a").push("b");
+        PersistentStack<String> abc = ab.push("c");
+        PersistentStack<String> abd = ab.push("d");
+        assertEquals("[c, b, a]", abc.toString());
+        assertEquals("[d, b, a]", abd.toString());
+        assertEquals("[b, a]", ab.toString());
+        //pop返回共享的后缀，不是拷贝
+        assertSame(ab, abc.pop());
+        assertSame(ab, abd.pop());
+        assertEquals(0, empty.size());
+        assertSame(empty, PersistentStack.<Integer>empty());
+    }
+
+    @Test
+    void popOnEmptyStack() {
+        assertThrows(EmptyStackException.class, () -> PersistentStack.empty().pop());
+        assertThrows(EmptyStackException.class, () -> PersistentStack.empty().peek());
+        SnapshotStack<Integer> stack = new SnapshotStack<>();
+        assertThrows(EmptyStackException.class, stack::pop);
+        stack.push(1);
+        assertEquals(1, (int) stack.pop());
+        assertThrows(EmptyStackException.class, stack::pop);
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    void snapshotIsIsolatedFromLaterChanges() {
+        SnapshotStack<Integer> stack = new SnapshotStack<>();
+        stack.pushAll(Arrays.asList(1, 2, 3));
+        PersistentStack<Integer> snapshot = stack.snapshot();
+        stack.push(4);
+        stack.push(5);
+        assertEquals(5, (int) stack.pop());
+        assertEquals(4, (int) stack.pop());
+        assertEquals(3, (int) stack.pop());
+        stack.push(30);
+        assertEquals("[3, 2, 1]", snapshot.toString());
+        assertEquals(3, snapshot.size());
+
+        //从快照恢复出的栈和原栈互不影响
+        SnapshotStack<Integer> copy = new SnapshotStack<>(snapshot);
+        copy.push(99);
+        assertEquals("[30, 2, 1]", stack.snapshot().toString());
+        stack.restore(snapshot);
+        List<Number> dst = new ArrayList<>();
+        stack.popAll(dst);
+        assertEquals(Arrays.asList(3, 2, 1), dst);
+        assertEquals(4, copy.size());
+        assertEquals(99, (int) copy.pop());
+        assertEquals("[3, 2, 1]", snapshot.toString());
+        assertThrows(NullPointerException.class, () -> stack.restore(null));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.effectivejava.stack;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static com.example.effectivejava.stack.SpillingStackTests.BYTES;
+import static com.example.effectivejava.stack.SpillingStackTests.PAYLOAD_SIZE;
+import static com.example.effectivejava.stack.SpillingStackTests.payload;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 压入的数据是堆大小的几倍，验证SpillingStack的数据量可以超过堆
+ * 需要小堆运行：pom.xml中单独的surefire execution用-Xmx64m只跑这个类，默认的测试不包含它
+ * @author Don
+ * @date 2026/10/18.
+ */
+class SpillingStackHeapTests {
+
+    private static final long MAX_HEAP = 256L << 20;
+
+    @Test
+    void pushesSeveralTimesTheHeap() throws IOException {
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        assumeTrue(maxMemory <= MAX_HEAP, "needs a small -Xmx, heap is " + maxMemory);
+        long count = 4 * maxMemory / PAYLOAD_SIZE;
+        //堆上最多2个1024元素的段，约8MB
+        try (SpillingStack<byte[]> stack = new SpillingStack<>(BYTES, 1024, 2, null)) {
+            for (long i = 0; i < count; i++) {
+                stack.push(payload(i));
+            }
+            assertEquals(count, stack.size());
+            assertTrue(stack.getBytesSpilled() > 3 * maxMemory, stack.getBytesSpilled() + " bytes spilled");
+            for (long i = count - 1; i >= 0; i--) {
+                byte[] element = stack.pop();
+                assertEquals(PAYLOAD_SIZE, element.length);
+                assertEquals((byte) i, element[0]);
+                assertEquals((byte) i, element[PAYLOAD_SIZE - 1]);
+            }
+            assertTrue(stack.isEmpty());
+        }
+    }
+}
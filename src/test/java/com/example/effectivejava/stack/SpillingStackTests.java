@@ -0,0 +1,145 @@
+package com.example.effectivejava.stack;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Don
+ * @date 2026/10/18.
+ */
+class SpillingStackTests {
+
+    static final int PAYLOAD_SIZE = 4096;
+
+    //每个元素是一个字节数组，内容全部填成下标的低8位，长度和内容都可以校验
+    static final SpillingStack.Serializer<byte[]> BYTES = new SpillingStack.Serializer<byte[]>() {
+        @Override
+        public void write(byte[] element, DataOutput out) throws IOException {
+            out.writeInt(element.length);
+            out.write(element);
+        }
+
+        @Override
+        public byte[] read(DataInput in) throws IOException {
+            byte[] element = new byte[in.readInt()];
+            in.readFully(element);
+            return element;
+        }
+    };
+
+    static byte[] payload(long index) {
+        byte[] bytes = new byte[PAYLOAD_SIZE];
+        Arrays.fill(bytes, (byte) index);
+        return bytes;
+    }
+
+     /**
+       * 堆上最多只有hotSegments个段，其余的都在磁盘上：用很小的段验证，不依赖-Xmx
+       **/
+    @Test
+    void spillsAllButHotSegments() throws IOException {
+        int segmentSize = 64;
+        int hotSegments = 2;
+        long count = 10_000;
+        try (SpillingStack<byte[]> stack = new SpillingStack<>(BYTES, segmentSize, hotSegments, null)) {
+            for (long i = 0; i < count; i++) {
+                stack.push(payload(i));
+            }
+            assertEquals(count, stack.size());
+            long onHeap = count - stack.getBytesSpilled() / (PAYLOAD_SIZE + 4);
+            assertTrue(onHeap <= (long) segmentSize * hotSegments, onHeap + " elements on heap");
+            assertEquals(0, stack.getReloadCount());
+
+            for (long i = count - 1; i >= 0; i--) {
+                byte[] element = stack.pop();
+                assertEquals(PAYLOAD_SIZE, element.length);
+                assertEquals((byte) i, element[0]);
+                assertEquals((byte) i, element[PAYLOAD_SIZE - 1]);
+            }
+            assertTrue(stack.isEmpty());
+            assertEquals((count - onHeap) / segmentSize, stack.getReloadCount());
+        }
+    }
+
+    @Test
+    void interleavedPushPop() throws IOException {
+        SpillingStack.Serializer<Integer> ints = new SpillingStack.Serializer<Integer>() {
+            @Override
+            public void write(Integer element, DataOutput out) throws IOException {
+                out.writeInt(element);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+        try (SpillingStack<Integer> stack = new SpillingStack<>(ints, 16, 2, null)) {
+            IntStack expected = new IntStack();
+            for (int round = 0; round < 50; round++) {
+                for (int i = 0; i < 100; i++) {
+                    stack.push(round * 1000 + i);
+                    expected.push(round * 1000 + i);
+                }
+                for (int i = 0; i < 70; i++) {
+                    assertEquals(expected.pop(), (int) stack.pop());
+                }
+            }
+            while (!expected.isEmpty()) {
+                assertEquals(expected.pop(), (int) stack.pop());
+            }
+            assertThrows(EmptyStackException.class, stack::pop);
+        }
+    }
+
+    @Test
+    void failedReloadCanBeRetried() throws IOException {
+        //读回时失败两次：第一次是IOException，第二次是序列化器抛出的RuntimeException
+        int[] failuresLeft = {2};
+        SpillingStack.Serializer<Integer> flaky = new SpillingStack.Serializer<Integer>() {
+            @Override
+            public void write(Integer element, DataOutput out) throws IOException {
+                out.writeInt(element);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                int value = in.readInt();
+                if (value == 70 && failuresLeft[0] > 0) {
+                    if (failuresLeft[0]-- == 2) {
+                        throw new IOException("disk hiccup");
+                    }
+                    throw new IllegalStateException("corrupt element");
+                }
+                return value;
+            }
+        };
+        try (SpillingStack<Integer> stack = new SpillingStack<>(flaky, 16, 2, null)) {
+            for (int i = 0; i < 100; i++) {
+                stack.push(i);
+            }
+            //堆上的两个段是80..95和96..99，先把它们取空，下一次pop读回64..79
+            for (int i = 99; i >= 80; i--) {
+                assertEquals(i, (int) stack.pop());
+            }
+            assertThrows(UncheckedIOException.class, stack::pop);
+            assertEquals(80, stack.size());
+            assertThrows(IllegalStateException.class, stack::pop);
+            assertEquals(80, stack.size());
+            assertEquals(0, stack.getReloadCount());
+            for (int i = 79; i >= 0; i--) {
+                assertEquals(i, (int) stack.pop());
+            }
+            assertTrue(stack.isEmpty());
+            assertEquals(5, stack.getReloadCount());
+        }
+    }
+}